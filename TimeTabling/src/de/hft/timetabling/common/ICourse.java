@@ -4,7 +4,9 @@ import java.util.Set;
 
 /**
  * An <tt>ICourse</tt> captures all the information provided by the competition
- * for a specific course.
+ * for a specific course. Additionally, a unique number is assigned to each
+ * course so it can be used as array index for the precomputed
+ * {@link InstanceTables}.
  * 
  * @author Alexander Weickmann
  */
@@ -48,4 +50,9 @@ public interface ICourse {
 	 */
 	IProblemInstance getProblemInstance();
 
+	/**
+	 * Returns the unique number assigned to this course.
+	 */
+	int getUniqueNumber();
+
 }
@@ -118,4 +118,10 @@ public interface IProblemInstance {
 	 */
 	Set<ICourse> getCoursesForTeacher(String teacher);
 
+	/**
+	 * Returns the tables that have been derived from this problem instance by
+	 * the preprocessing pass performed after reading the instance.
+	 */
+	InstanceTables getInstanceTables();
+
 }
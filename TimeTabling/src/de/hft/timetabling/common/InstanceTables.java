@@ -0,0 +1,414 @@
+package de.hft.timetabling.common;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.hft.timetabling.util.BitSetUtil;
+
+/**
+ * Immutable set of tables derived from a problem instance. All values stored
+ * here only depend on the problem instance itself, so they are computed once
+ * by a preprocessing pass right after reading the instance instead of being
+ * recomputed over and over again by the generator, the evaluator, the writer
+ * and the genetist.
+ * <p>
+ * Courses are identified by their unique number (see
+ * {@link ICourse#getUniqueNumber()}), rooms by their unique number (see
+ * {@link IRoom#getUniqueNumber()}) and periods by the period-only format.
+ * Curricula and teachers are numbered in the order in which they appear in the
+ * problem instance.
+ * <p>
+ * For performance reasons the arrays returned by this class are not copied.
+ * Clients must never modify them.
+ *
+ * @see IProblemInstance#getInstanceTables()
+ */
+public final class InstanceTables {
+
+	private final int numberOfPeriods;
+
+	private final int numberOfRooms;
+
+	private final int numberOfCourses;
+
+	private final int numberOfDays;
+
+	private final int periodsPerDay;
+
+	private final int totalNumberOfLectures;
+
+	private final ICourse[] courses;
+
+	private final IRoom[] rooms;
+
+	private final ICurriculum[] curricula;
+
+	private final String[] teachers;
+
+	private final int[] dayOfPeriod;
+
+	private final int[] roomCapacities;
+
+	/** Unique room numbers sorted by ascending capacity. */
+	private final int[] roomsByCapacity;
+
+	private final int[] numberOfLectures;
+
+	private final int[] numberOfStudents;
+
+	private final int[] minWorkingDays;
+
+	private final int[] teacherOfCourse;
+
+	private final int[] lecturesPerTeacher;
+
+	private final int[][] curriculaOfCourse;
+
+	private final int[] curriculumSizes;
+
+	private final int[] curriculumLectures;
+
+	private final boolean[][] unavailable;
+
+	/** Bit set of the periods not forbidden by unavailability constraints. */
+	private final long[][] feasiblePeriods;
+
+	private final int[] numberOfFeasiblePeriods;
+
+	/**
+	 * Bit set of the courses sharing the teacher or a curriculum with the
+	 * course. A course is never in conflict with itself.
+	 */
+	private final long[][] conflicts;
+
+	private final int[][] conflictingCourses;
+
+	private final Map<ICurriculum, Integer> curriculumNumbers;
+
+	/**
+	 * Performs the preprocessing of the given problem instance. The problem
+	 * instance must be completely read when calling this constructor.
+	 *
+	 * @param instance
+	 *            The problem instance to compute the tables for.
+	 */
+	public InstanceTables(final IProblemInstance instance) {
+		numberOfPeriods = instance.getNumberOfPeriods();
+		numberOfRooms = instance.getNumberOfRooms();
+		numberOfCourses = instance.getCourses().size();
+		numberOfDays = instance.getNumberOfDays();
+		periodsPerDay = instance.getPeriodsPerDay();
+
+		dayOfPeriod = new int[numberOfPeriods];
+		for (int period = 0; period < numberOfPeriods; period++) {
+			dayOfPeriod[period] = period / periodsPerDay;
+		}
+
+		rooms = new IRoom[numberOfRooms];
+		roomCapacities = new int[numberOfRooms];
+		for (final IRoom room : instance.getRooms()) {
+			rooms[room.getUniqueNumber()] = room;
+			roomCapacities[room.getUniqueNumber()] = room.getCapacity();
+		}
+		roomsByCapacity = computeRoomsByCapacity();
+
+		curricula = instance.getCurricula().toArray(
+				new ICurriculum[instance.getCurricula().size()]);
+		curriculumNumbers = new HashMap<ICurriculum, Integer>();
+		for (int i = 0; i < curricula.length; i++) {
+			curriculumNumbers.put(curricula[i], i);
+		}
+
+		courses = new ICourse[numberOfCourses];
+		numberOfLectures = new int[numberOfCourses];
+		numberOfStudents = new int[numberOfCourses];
+		minWorkingDays = new int[numberOfCourses];
+		teacherOfCourse = new int[numberOfCourses];
+		curriculaOfCourse = new int[numberOfCourses][];
+		unavailable = new boolean[numberOfCourses][numberOfPeriods];
+		feasiblePeriods = new long[numberOfCourses][];
+		numberOfFeasiblePeriods = new int[numberOfCourses];
+		curriculumSizes = new int[curricula.length];
+		curriculumLectures = new int[curricula.length];
+
+		final Map<String, Integer> teacherNumbers = new HashMap<String, Integer>();
+		int lectures = 0;
+		for (final ICourse course : instance.getCourses()) {
+			final int c = course.getUniqueNumber();
+			courses[c] = course;
+			numberOfLectures[c] = course.getNumberOfLectures();
+			numberOfStudents[c] = course.getNumberOfStudents();
+			minWorkingDays[c] = course.getMinWorkingDays();
+			lectures += course.getNumberOfLectures();
+
+			Integer teacher = teacherNumbers.get(course.getTeacher());
+			if (teacher == null) {
+				teacher = teacherNumbers.size();
+				teacherNumbers.put(course.getTeacher(), teacher);
+			}
+			teacherOfCourse[c] = teacher;
+
+			final int[] courseCurricula = new int[course.getCurricula().size()];
+			int i = 0;
+			for (final ICurriculum curriculum : course.getCurricula()) {
+				final int cur = curriculumNumbers.get(curriculum);
+				courseCurricula[i++] = cur;
+				curriculumSizes[cur]++;
+				curriculumLectures[cur] += course.getNumberOfLectures();
+			}
+			curriculaOfCourse[c] = courseCurricula;
+
+			feasiblePeriods[c] = BitSetUtil.create(numberOfPeriods);
+			BitSetUtil.setAll(feasiblePeriods[c], numberOfPeriods);
+			for (final int period : instance.getUnavailabilityConstraints(course)) {
+				unavailable[c][period] = true;
+				BitSetUtil.clear(feasiblePeriods[c], period);
+			}
+			numberOfFeasiblePeriods[c] = BitSetUtil
+					.cardinality(feasiblePeriods[c]);
+		}
+		totalNumberOfLectures = lectures;
+
+		teachers = new String[teacherNumbers.size()];
+		lecturesPerTeacher = new int[teacherNumbers.size()];
+		for (final Map.Entry<String, Integer> entry : teacherNumbers.entrySet()) {
+			teachers[entry.getValue()] = entry.getKey();
+		}
+		for (int c = 0; c < numberOfCourses; c++) {
+			lecturesPerTeacher[teacherOfCourse[c]] += numberOfLectures[c];
+		}
+
+		conflicts = new long[numberOfCourses][];
+		conflictingCourses = new int[numberOfCourses][];
+		computeConflicts();
+	}
+
+	private int[] computeRoomsByCapacity() {
+		final Integer[] sorted = new Integer[numberOfRooms];
+		for (int room = 0; room < numberOfRooms; room++) {
+			sorted[room] = room;
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer room1, final Integer room2) {
+				return roomCapacities[room1] - roomCapacities[room2];
+			}
+		});
+		final int[] result = new int[numberOfRooms];
+		for (int i = 0; i < numberOfRooms; i++) {
+			result[i] = sorted[i];
+		}
+		return result;
+	}
+
+	private void computeConflicts() {
+		for (int c = 0; c < numberOfCourses; c++) {
+			conflicts[c] = BitSetUtil.create(numberOfCourses);
+		}
+		for (int c1 = 0; c1 < numberOfCourses; c1++) {
+			for (int c2 = c1 + 1; c2 < numberOfCourses; c2++) {
+				if ((teacherOfCourse[c1] == teacherOfCourse[c2])
+						|| shareCurriculum(c1, c2)) {
+					BitSetUtil.set(conflicts[c1], c2);
+					BitSetUtil.set(conflicts[c2], c1);
+				}
+			}
+		}
+		for (int c = 0; c < numberOfCourses; c++) {
+			conflictingCourses[c] = BitSetUtil.toArray(conflicts[c]);
+		}
+	}
+
+	private boolean shareCurriculum(final int course1, final int course2) {
+		for (final int cur1 : curriculaOfCourse[course1]) {
+			for (final int cur2 : curriculaOfCourse[course2]) {
+				if (cur1 == cur2) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public int getNumberOfPeriods() {
+		return numberOfPeriods;
+	}
+
+	public int getNumberOfRooms() {
+		return numberOfRooms;
+	}
+
+	public int getNumberOfCourses() {
+		return numberOfCourses;
+	}
+
+	public int getNumberOfDays() {
+		return numberOfDays;
+	}
+
+	public int getPeriodsPerDay() {
+		return periodsPerDay;
+	}
+
+	public int getNumberOfCurricula() {
+		return curricula.length;
+	}
+
+	public int getNumberOfTeachers() {
+		return teachers.length;
+	}
+
+	/**
+	 * Returns how many lectures have to be scheduled in total.
+	 */
+	public int getTotalNumberOfLectures() {
+		return totalNumberOfLectures;
+	}
+
+	/**
+	 * Returns the course with the given unique number.
+	 */
+	public ICourse getCourse(final int course) {
+		return courses[course];
+	}
+
+	/**
+	 * Returns the room with the given unique number.
+	 */
+	public IRoom getRoom(final int room) {
+		return rooms[room];
+	}
+
+	/**
+	 * Returns the curriculum with the given number.
+	 */
+	public ICurriculum getCurriculum(final int curriculum) {
+		return curricula[curriculum];
+	}
+
+	/**
+	 * Returns the number of the given curriculum.
+	 */
+	public int getCurriculumNumber(final ICurriculum curriculum) {
+		return curriculumNumbers.get(curriculum);
+	}
+
+	/**
+	 * Returns the name of the teacher with the given number.
+	 */
+	public String getTeacher(final int teacher) {
+		return teachers[teacher];
+	}
+
+	/**
+	 * Returns the zero-based day of the given period (period-only format).
+	 */
+	public int getDay(final int period) {
+		return dayOfPeriod[period];
+	}
+
+	public int getRoomCapacity(final int room) {
+		return roomCapacities[room];
+	}
+
+	/**
+	 * Returns the unique numbers of all rooms sorted by ascending capacity.
+	 */
+	public int[] getRoomsByCapacity() {
+		return roomsByCapacity;
+	}
+
+	public int getNumberOfLectures(final int course) {
+		return numberOfLectures[course];
+	}
+
+	public int getNumberOfStudents(final int course) {
+		return numberOfStudents[course];
+	}
+
+	public int getMinWorkingDays(final int course) {
+		return minWorkingDays[course];
+	}
+
+	/**
+	 * Returns the number of the teacher holding the given course.
+	 */
+	public int getTeacherOfCourse(final int course) {
+		return teacherOfCourse[course];
+	}
+
+	/**
+	 * Returns how many lectures the given teacher has to hold in total.
+	 */
+	public int getLecturesPerTeacher(final int teacher) {
+		return lecturesPerTeacher[teacher];
+	}
+
+	/**
+	 * Returns the numbers of all curricula the given course is part of.
+	 */
+	public int[] getCurriculaOfCourse(final int course) {
+		return curriculaOfCourse[course];
+	}
+
+	/**
+	 * Returns how many courses are part of the given curriculum.
+	 */
+	public int getCurriculumSize(final int curriculum) {
+		return curriculumSizes[curriculum];
+	}
+
+	/**
+	 * Returns how many lectures of all courses of the given curriculum have to
+	 * be scheduled in total.
+	 */
+	public int getCurriculumLectures(final int curriculum) {
+		return curriculumLectures[curriculum];
+	}
+
+	/**
+	 * Returns whether the given course must not be scheduled in the given
+	 * period due to an unavailability constraint.
+	 */
+	public boolean isUnavailable(final int course, final int period) {
+		return unavailable[course][period];
+	}
+
+	/**
+	 * Returns the bit set of all periods the given course may be scheduled in
+	 * with respect to the unavailability constraints.
+	 */
+	public long[] getFeasiblePeriods(final int course) {
+		return feasiblePeriods[course];
+	}
+
+	public int getNumberOfFeasiblePeriods(final int course) {
+		return numberOfFeasiblePeriods[course];
+	}
+
+	/**
+	 * Returns whether the two given courses must not be scheduled in the same
+	 * period because they are held by the same teacher or share a curriculum.
+	 */
+	public boolean isConflicting(final int course1, final int course2) {
+		return BitSetUtil.get(conflicts[course1], course2);
+	}
+
+	/**
+	 * Returns the bit set of all courses conflicting with the given course.
+	 */
+	public long[] getConflicts(final int course) {
+		return conflicts[course];
+	}
+
+	/**
+	 * Returns the unique numbers of all courses conflicting with the given
+	 * course in ascending order.
+	 */
+	public int[] getConflictingCourses(final int course) {
+		return conflictingCourses[course];
+	}
+
+}
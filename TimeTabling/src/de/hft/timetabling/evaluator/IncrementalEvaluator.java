@@ -0,0 +1,285 @@
+package de.hft.timetabling.evaluator;
+
+import java.util.Arrays;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.util.BitSetUtil;
+
+/**
+ * Keeps track of the total penalty of a coding while lectures are moved
+ * around. The penalty equals the total penalty computed by the
+ * {@link NewEvaluator} (room capacity, room stability, minimum working days
+ * and curriculum compactness). It is not recomputed after each change but
+ * updated incrementally from counters per course, room, day, curriculum and
+ * period, so a move costs time proportional to the number of curricula of the
+ * involved courses times the periods per day.
+ * <p>
+ * The hard constraints are checked with a bit set of the courses assigned to
+ * each period, so only hard constraint valid codings are produced.
+ * <p>
+ * The counters are sized once for the problem instance and reset by
+ * {@link #load(ICourse[][])}, so one evaluator serves any number of codings.
+ * They are not synchronized, so each thread needs its own evaluator.
+ */
+public final class IncrementalEvaluator {
+
+	private final InstanceTables tables;
+
+	/** Number of lectures per course and room. */
+	private final int[][] roomCounts;
+
+	/** Number of rooms used per course. */
+	private final int[] distinctRooms;
+
+	/** Number of lectures per course and day. */
+	private final int[][] dayCounts;
+
+	/** Number of days used per course. */
+	private final int[] distinctDays;
+
+	/** Number of lectures per curriculum and period. */
+	private final int[][] curriculumCounts;
+
+	/** Number of periods used per curriculum. */
+	private final int[] curriculumPeriods;
+
+	/** Number of isolated lectures per curriculum. */
+	private final int[] isolatedLectures;
+
+	/** Bit set of the courses assigned to each period. */
+	private final long[][] periodCourses;
+
+	private ICourse[][] coding;
+
+	private int penalty;
+
+	public IncrementalEvaluator(final InstanceTables tables) {
+		this.tables = tables;
+		final int numberOfCourses = tables.getNumberOfCourses();
+		final int numberOfCurricula = tables.getNumberOfCurricula();
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		roomCounts = new int[numberOfCourses][tables.getNumberOfRooms()];
+		distinctRooms = new int[numberOfCourses];
+		dayCounts = new int[numberOfCourses][tables.getNumberOfDays()];
+		distinctDays = new int[numberOfCourses];
+		curriculumCounts = new int[numberOfCurricula][numberOfPeriods];
+		curriculumPeriods = new int[numberOfCurricula];
+		isolatedLectures = new int[numberOfCurricula];
+		periodCourses = new long[numberOfPeriods][BitSetUtil
+				.getNumberOfWords(numberOfCourses)];
+	}
+
+	public InstanceTables getInstanceTables() {
+		return tables;
+	}
+
+	/**
+	 * Starts tracking the given coding. The coding must be hard constraint
+	 * valid and contain all lectures. All moves change the coding in place.
+	 */
+	public void load(final ICourse[][] coding) {
+		this.coding = coding;
+		for (final int[] counts : roomCounts) {
+			Arrays.fill(counts, 0);
+		}
+		for (final int[] counts : dayCounts) {
+			Arrays.fill(counts, 0);
+		}
+		for (final int[] counts : curriculumCounts) {
+			Arrays.fill(counts, 0);
+		}
+		for (final long[] courses : periodCourses) {
+			Arrays.fill(courses, 0L);
+		}
+		Arrays.fill(distinctRooms, 0);
+		Arrays.fill(distinctDays, 0);
+		Arrays.fill(curriculumPeriods, 0);
+		Arrays.fill(isolatedLectures, 0);
+
+		// Without lectures only the minimum working days are violated.
+		penalty = 0;
+		for (int course = 0; course < distinctDays.length; course++) {
+			penalty += getMinWorkingDaysPenalty(course);
+		}
+		for (int period = 0; period < coding.length; period++) {
+			for (int room = 0; room < coding[period].length; room++) {
+				if (coding[period][room] != null) {
+					add(coding[period][room].getUniqueNumber(), period, room);
+				}
+			}
+		}
+	}
+
+	/** Returns the coding currently tracked. */
+	public ICourse[][] getCoding() {
+		return coding;
+	}
+
+	/** Returns the total penalty of the coding currently tracked. */
+	public int getPenalty() {
+		return penalty;
+	}
+
+	/**
+	 * Moves the lecture in the first slot to the second slot. If the second
+	 * slot is occupied, the two lectures are swapped. Returns whether the
+	 * coding has been changed, which is not the case if the first slot is
+	 * empty, both slots contain the same course or the move would violate a
+	 * hard constraint.
+	 * <p>
+	 * A move can be undone by moving the second slot to the first slot.
+	 */
+	public boolean move(final int period1, final int room1,
+			final int period2, final int room2) {
+		final ICourse first = coding[period1][room1];
+		final ICourse second = coding[period2][room2];
+		if ((first == null) || (first == second)) {
+			return false;
+		}
+		final int course1 = first.getUniqueNumber();
+		if (second == null) {
+			if ((period1 != period2) && !isValidPeriod(course1, period2)) {
+				return false;
+			}
+			remove(course1, period1, room1);
+			add(course1, period2, room2);
+			return true;
+		}
+
+		final int course2 = second.getUniqueNumber();
+		if ((period1 != period2)
+				&& (tables.isUnavailable(course1, period2) || tables
+						.isUnavailable(course2, period1))) {
+			return false;
+		}
+		remove(course1, period1, room1);
+		remove(course2, period2, room2);
+		if ((period1 != period2)
+				&& !(isValidPeriod(course1, period2) && isValidPeriod(course2,
+						period1))) {
+			add(course1, period1, room1);
+			add(course2, period2, room2);
+			return false;
+		}
+		add(course1, period2, room2);
+		add(course2, period1, room1);
+		return true;
+	}
+
+	/**
+	 * Returns whether the given course can be held in the given period without
+	 * violating any hard constraint, ignoring whether a room is free.
+	 */
+	public boolean isValidPeriod(final int course, final int period) {
+		return !tables.isUnavailable(course, period)
+				&& !BitSetUtil.get(periodCourses[period], course)
+				&& !BitSetUtil.intersects(tables.getConflicts(course),
+						periodCourses[period]);
+	}
+
+	private void add(final int course, final int period, final int room) {
+		coding[period][room] = tables.getCourse(course);
+		BitSetUtil.set(periodCourses[period], course);
+		penalty += getRoomCapacityPenalty(course, room);
+
+		if ((roomCounts[course][room]++ == 0) && (distinctRooms[course]++ > 0)) {
+			penalty++;
+		}
+
+		final int day = tables.getDay(period);
+		if (dayCounts[course][day]++ == 0) {
+			penalty -= getMinWorkingDaysPenalty(course);
+			distinctDays[course]++;
+			penalty += getMinWorkingDaysPenalty(course);
+		}
+
+		for (final int curriculum : tables.getCurriculaOfCourse(course)) {
+			if (curriculumCounts[curriculum][period] == 0) {
+				penalty -= getCompactnessPenalty(curriculum);
+				isolatedLectures[curriculum] -= countIsolatedLectures(
+						curriculum, day);
+				curriculumCounts[curriculum][period]++;
+				curriculumPeriods[curriculum]++;
+				isolatedLectures[curriculum] += countIsolatedLectures(
+						curriculum, day);
+				penalty += getCompactnessPenalty(curriculum);
+			} else {
+				curriculumCounts[curriculum][period]++;
+			}
+		}
+	}
+
+	private void remove(final int course, final int period, final int room) {
+		coding[period][room] = null;
+		BitSetUtil.clear(periodCourses[period], course);
+		penalty -= getRoomCapacityPenalty(course, room);
+
+		if ((--roomCounts[course][room] == 0) && (--distinctRooms[course] > 0)) {
+			penalty--;
+		}
+
+		final int day = tables.getDay(period);
+		if (--dayCounts[course][day] == 0) {
+			penalty -= getMinWorkingDaysPenalty(course);
+			distinctDays[course]--;
+			penalty += getMinWorkingDaysPenalty(course);
+		}
+
+		for (final int curriculum : tables.getCurriculaOfCourse(course)) {
+			if (curriculumCounts[curriculum][period] == 1) {
+				penalty -= getCompactnessPenalty(curriculum);
+				isolatedLectures[curriculum] -= countIsolatedLectures(
+						curriculum, day);
+				curriculumCounts[curriculum][period]--;
+				curriculumPeriods[curriculum]--;
+				isolatedLectures[curriculum] += countIsolatedLectures(
+						curriculum, day);
+				penalty += getCompactnessPenalty(curriculum);
+			} else {
+				curriculumCounts[curriculum][period]--;
+			}
+		}
+	}
+
+	private int getRoomCapacityPenalty(final int course, final int room) {
+		return Math.max(0, tables.getNumberOfStudents(course)
+				- tables.getRoomCapacity(room));
+	}
+
+	private int getMinWorkingDaysPenalty(final int course) {
+		return 5 * Math.max(0, tables.getMinWorkingDays(course)
+				- distinctDays[course]);
+	}
+
+	/**
+	 * Like the evaluator, a curriculum held in a single period only is not
+	 * penalized.
+	 */
+	private int getCompactnessPenalty(final int curriculum) {
+		if (curriculumPeriods[curriculum] == 1) {
+			return 0;
+		}
+		return 2 * isolatedLectures[curriculum];
+	}
+
+	/**
+	 * Returns the number of periods of the given day in which the curriculum
+	 * has a lecture but neither in the period before nor after on that day.
+	 */
+	private int countIsolatedLectures(final int curriculum, final int day) {
+		final int[] counts = curriculumCounts[curriculum];
+		final int first = day * tables.getPeriodsPerDay();
+		final int last = first + tables.getPeriodsPerDay() - 1;
+		int isolated = 0;
+		for (int period = first; period <= last; period++) {
+			if ((counts[period] > 0)
+					&& ((period == first) || (counts[period - 1] == 0))
+					&& ((period == last) || (counts[period + 1] == 0))) {
+				isolated++;
+			}
+		}
+		return isolated;
+	}
+
+}
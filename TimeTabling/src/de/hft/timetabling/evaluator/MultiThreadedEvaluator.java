@@ -20,7 +20,8 @@ public class MultiThreadedEvaluator {
 			.getInstance().getSolutionTableService();
 
 	private final ExecutorService exec = Executors.newFixedThreadPool(Runtime
-			.getRuntime().availableProcessors());
+			.getRuntime().availableProcessors(), ServiceLocator
+			.createBoundThreadFactory());
 
 	public MultiThreadedEvaluator() {
 		for (int i = 0; i < solutionTable.getMaximumSize(); i++) {
@@ -28,6 +29,14 @@ public class MultiThreadedEvaluator {
 		}
 	}
 
+	/**
+	 * Stops the threads of the evaluator. It cannot be used anymore
+	 * afterwards.
+	 */
+	public void shutdown() {
+		exec.shutdown();
+	}
+
 	public SolutionEvaluation evaluateSolution(final ISolution newSolution) {
 		// TODO Auto-generated method stub
 		return null;
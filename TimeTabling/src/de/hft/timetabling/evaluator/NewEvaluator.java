@@ -12,6 +12,7 @@ import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.ServiceLocator;
 
@@ -80,7 +81,8 @@ public final class NewEvaluator {
 	private void calcRoomCapPen(final ISolution sol,
 			final SolutionEvaluation res) {
 		final ICourse[][] schedule = sol.getCoding();
-		final IProblemInstance instance = sol.getProblemInstance();
+		final InstanceTables tables = sol.getProblemInstance()
+				.getInstanceTables();
 
 		for (final ICourse[] element : schedule) {
 			for (int room = 0; room < element.length; room++) {
@@ -92,7 +94,7 @@ public final class NewEvaluator {
 
 				/* calculate room capacity penalty */
 				final int roomStudentDifference = course.getNumberOfStudents()
-						- instance.getRoomByUniqueNumber(room).getCapacity();
+						- tables.getRoomCapacity(room);
 				final int roomCapacityPenalty = roomStudentDifference < 0 ? 0
 						: roomStudentDifference;
 				res.addTotalRoomCapacityPenalty(roomCapacityPenalty);
@@ -139,6 +141,7 @@ public final class NewEvaluator {
 	private void calcMinWorkDaysPen(final ISolution sol,
 			final SolutionEvaluation res) {
 		final IProblemInstance instance = sol.getProblemInstance();
+		final InstanceTables tables = instance.getInstanceTables();
 		final ICourse[][] schedule = sol.getCoding();
 		final Map<ICourse, Set<Integer>> workingDaysPerCourse = new HashMap<ICourse, Set<Integer>>();
 
@@ -155,7 +158,7 @@ public final class NewEvaluator {
 				}
 
 				/* store all days on which a course takes place */
-				final int day = period / instance.getPeriodsPerDay();
+				final int day = tables.getDay(period);
 				workingDaysPerCourse.get(course).add(day);
 			}
 		}
@@ -178,7 +181,8 @@ public final class NewEvaluator {
 
 	private void calcCurCompPen(final ISolution sol,
 			final SolutionEvaluation res) {
-		final IProblemInstance instance = sol.getProblemInstance();
+		final InstanceTables tables = sol.getProblemInstance()
+				.getInstanceTables();
 		final ICourse[][] schedule = sol.getCoding();
 		final Map<ICurriculum, List<Integer>> curriculaInPeriods = new HashMap<ICurriculum, List<Integer>>();
 
@@ -219,19 +223,17 @@ public final class NewEvaluator {
 				int dayOfPreviousPeriod = -1;
 				if (i > 0) {
 					previousPeriod = periods.get(i - 1);
-					dayOfPreviousPeriod = previousPeriod
-							/ instance.getPeriodsPerDay();
+					dayOfPreviousPeriod = tables.getDay(previousPeriod);
 				}
 
 				final int currentPeriod = periods.get(i);
-				final int dayOfCurrentPeriod = currentPeriod
-						/ instance.getPeriodsPerDay();
+				final int dayOfCurrentPeriod = tables.getDay(currentPeriod);
 
 				int nextPeriod = -1;
 				int dayOfNextPeriod = -1;
 				if (i + 1 < periods.size()) {
 					nextPeriod = periods.get(i + 1);
-					dayOfNextPeriod = nextPeriod / instance.getPeriodsPerDay();
+					dayOfNextPeriod = tables.getDay(nextPeriod);
 				}
 
 				if ((dayOfPreviousPeriod != dayOfCurrentPeriod)
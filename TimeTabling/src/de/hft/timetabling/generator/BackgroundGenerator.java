@@ -0,0 +1,174 @@
+package de.hft.timetabling.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.services.IGeneratorService;
+import de.hft.timetabling.services.ISolutionTableService;
+import de.hft.timetabling.services.ServiceLocator;
+
+/**
+ * Generator service producing feasible solutions in the background. Producer
+ * threads keep generating solutions into a bounded lock-free queue, so filling
+ * the solution table usually only means draining the solutions that are
+ * already available. The generation is thereby taken off the critical path of
+ * each iteration and runs in parallel to the evaluator and the genetist.
+ * <p>
+ * Only if the solution table is completely empty (e.g. at the start of a run)
+ * the calling thread helps generating until the table is full. Otherwise empty
+ * slots for which no solution is ready yet remain empty until the next call.
+ * <p>
+ * The producers are bound to the problem instance of the most recent call.
+ * They are replaced as soon as another problem instance is passed and idle as
+ * long as the queue is full.
+ */
+public final class BackgroundGenerator implements IGeneratorService {
+
+	/** How long a producer sleeps before checking a full queue again. */
+	private static final long IDLE_NANOS = 1000000L;
+
+	private final IGeneratorService generator;
+
+	private final int numberOfProducers;
+
+	private final ISolutionTableService solutionTable = ServiceLocator
+			.getInstance().getSolutionTableService();
+
+	private final List<Producer> producers = new ArrayList<Producer>();
+
+	private IProblemInstance problemInstance;
+
+	private BoundedQueue<ISolution> queue;
+
+	/**
+	 * @param generator
+	 *            The generator used by the calling thread.
+	 * @param numberOfProducers
+	 *            The number of background threads, must be positive.
+	 */
+	public BackgroundGenerator(final IGeneratorService generator,
+			final int numberOfProducers) {
+		if (numberOfProducers <= 0) {
+			throw new IllegalArgumentException(
+					"The number of producers must be positive.");
+		}
+		this.generator = generator;
+		this.numberOfProducers = numberOfProducers;
+	}
+
+	@Override
+	public void fillSolutionTable(final IProblemInstance problemInstance) {
+		if (this.problemInstance != problemInstance) {
+			startProducers(problemInstance);
+		}
+
+		final boolean fillCompletely = (solutionTable.getSize(true) == 0);
+		int drained = 0;
+		int generated = 0;
+		while (!solutionTable.isFull()) {
+			ISolution solution = queue.poll();
+			if (solution != null) {
+				drained++;
+			} else if (fillCompletely) {
+				solution = createSolution(generator, problemInstance);
+				generated++;
+			} else {
+				break;
+			}
+			if (solution != null) {
+				solutionTable.addSolution(solution);
+			}
+		}
+		System.out.println("GENERATOR: Took " + drained
+				+ " solutions from the background, generated " + generated
+				+ ", " + solutionTable.getNumberOfEmptySlots()
+				+ " slots left empty.");
+	}
+
+	@Override
+	public ICourse[][] generateFeasibleSolution(
+			final IProblemInstance problemInstance)
+			throws NoFeasibleSolutionFoundException {
+		return generator.generateFeasibleSolution(problemInstance);
+	}
+
+	/**
+	 * Stops all producers. They finish the solution they are currently
+	 * generating but do not offer it anymore.
+	 */
+	public void shutdown() {
+		for (final Producer producer : producers) {
+			producer.running = false;
+			producer.interrupt();
+		}
+		producers.clear();
+		problemInstance = null;
+	}
+
+	private void startProducers(final IProblemInstance problemInstance) {
+		shutdown();
+		this.problemInstance = problemInstance;
+		queue = new BoundedQueue<ISolution>(solutionTable.getMaximumSize());
+		for (int i = 0; i < numberOfProducers; i++) {
+			final Producer producer = new Producer(problemInstance, queue);
+			producer.setName("GENERATOR-PRODUCER-" + i);
+			producers.add(producer);
+			producer.start();
+		}
+	}
+
+	/**
+	 * Returns a new feasible solution or <tt>null</tt> if the given generator
+	 * did not find one.
+	 */
+	private ISolution createSolution(final IGeneratorService generator,
+			final IProblemInstance problemInstance) {
+		try {
+			final ICourse[][] coding = generator
+					.generateFeasibleSolution(problemInstance);
+			return solutionTable.createNewSolution(coding, problemInstance);
+		} catch (final NoFeasibleSolutionFoundException e) {
+			return null;
+		}
+	}
+
+	private final class Producer extends Thread {
+
+		private final IProblemInstance problemInstance;
+
+		private final BoundedQueue<ISolution> queue;
+
+		private final IGeneratorService generator = new Generator();
+
+		private volatile boolean running = true;
+
+		private Producer(final IProblemInstance problemInstance,
+				final BoundedQueue<ISolution> queue) {
+			this.problemInstance = problemInstance;
+			this.queue = queue;
+			setDaemon(true);
+			setPriority(Thread.MIN_PRIORITY);
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				if (queue.isFull()) {
+					LockSupport.parkNanos(IDLE_NANOS);
+					continue;
+				}
+				final ISolution solution = createSolution(generator,
+						problemInstance);
+				if ((solution != null) && running) {
+					queue.offer(solution);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+package de.hft.timetabling.generator;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free queue holding at most a fixed number of elements. The elements are
+ * stored in a {@link ConcurrentLinkedQueue}, the number of elements is tracked
+ * separately by an atomic counter that producers increment before inserting.
+ * Neither producers nor consumers ever block, {@link #offer(Object)} simply
+ * fails if the queue is full and {@link #poll()} returns <tt>null</tt> if it is
+ * empty.
+ */
+final class BoundedQueue<E> {
+
+	private final Queue<E> elements = new ConcurrentLinkedQueue<E>();
+
+	/** Number of inserted or reserved elements. */
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final int capacity;
+
+	/**
+	 * @param capacity
+	 *            The maximum number of elements, must be positive.
+	 */
+	BoundedQueue(final int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Inserts the given element if the queue is not full. Returns whether the
+	 * element was inserted.
+	 */
+	boolean offer(final E element) {
+		while (true) {
+			final int current = size.get();
+			if (current >= capacity) {
+				return false;
+			}
+			if (size.compareAndSet(current, current + 1)) {
+				elements.add(element);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns the head of the queue or <tt>null</tt> if the queue
+	 * is empty.
+	 */
+	E poll() {
+		final E element = elements.poll();
+		if (element != null) {
+			size.decrementAndGet();
+		}
+		return element;
+	}
+
+	/**
+	 * Returns whether no more elements can be inserted. Elements that are
+	 * currently being inserted are counted as well.
+	 */
+	boolean isFull() {
+		return size.get() >= capacity;
+	}
+
+	void clear() {
+		while (poll() != null) {
+			// Drain all elements.
+		}
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+}
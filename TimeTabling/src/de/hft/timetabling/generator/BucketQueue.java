@@ -0,0 +1,137 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+
+/**
+ * Priority queue for integer elements with small integer keys. Each key owns a
+ * bucket containing all elements with that key, so adding, removing and
+ * changing the key of an element as well as polling an element with the
+ * minimum key are possible in (amortized) constant time. Elements with the same
+ * key are polled in random order.
+ * <p>
+ * During construction the key of a course is the number of periods it can
+ * still be assigned to. Keys only shrink while the schedule fills up, so the
+ * most critical course can be retrieved without scanning all remaining
+ * courses.
+ */
+final class BucketQueue {
+
+	/** Elements per key, only the first <tt>bucketSizes[key]</tt> are valid. */
+	private final int[][] buckets;
+
+	private final int[] bucketSizes;
+
+	/** Key per element or <tt>-1</tt> if the element is not contained. */
+	private final int[] keys;
+
+	/** Position of each element inside its bucket. */
+	private final int[] positions;
+
+	private int size;
+
+	/** Lower bound for the smallest key currently in use. */
+	private int minKey;
+
+	/**
+	 * @param numberOfElements
+	 *            Elements must be in the range <tt>[0, numberOfElements)</tt>.
+	 * @param maxKey
+	 *            Keys must be in the range <tt>[0, maxKey]</tt>.
+	 */
+	BucketQueue(final int numberOfElements, final int maxKey) {
+		buckets = new int[maxKey + 1][numberOfElements];
+		bucketSizes = new int[maxKey + 1];
+		keys = new int[numberOfElements];
+		positions = new int[numberOfElements];
+		clear();
+	}
+
+	void clear() {
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = -1;
+		}
+		for (int i = 0; i < bucketSizes.length; i++) {
+			bucketSizes[i] = 0;
+		}
+		size = 0;
+		minKey = bucketSizes.length;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	boolean contains(final int element) {
+		return keys[element] >= 0;
+	}
+
+	int getKey(final int element) {
+		return keys[element];
+	}
+
+	/**
+	 * Adds the given element with the given key. The element must not be
+	 * contained already.
+	 */
+	void add(final int element, final int key) {
+		final int position = bucketSizes[key]++;
+		buckets[key][position] = element;
+		positions[element] = position;
+		keys[element] = key;
+		size++;
+		if (key < minKey) {
+			minKey = key;
+		}
+	}
+
+	/**
+	 * Removes the given element. Does nothing if the element is not contained.
+	 */
+	void remove(final int element) {
+		final int key = keys[element];
+		if (key < 0) {
+			return;
+		}
+		final int position = positions[element];
+		final int last = --bucketSizes[key];
+		final int moved = buckets[key][last];
+		buckets[key][position] = moved;
+		positions[moved] = position;
+		keys[element] = -1;
+		size--;
+	}
+
+	/**
+	 * Changes the key of the given element. Does nothing if the element is not
+	 * contained.
+	 */
+	void updateKey(final int element, final int key) {
+		if ((keys[element] < 0) || (keys[element] == key)) {
+			return;
+		}
+		remove(element);
+		add(element, key);
+	}
+
+	/**
+	 * Removes and returns a random element among those with the smallest key.
+	 * Returns <tt>-1</tt> if the queue is empty.
+	 */
+	int pollMin(final Random random) {
+		if (size == 0) {
+			return -1;
+		}
+		while (bucketSizes[minKey] == 0) {
+			minKey++;
+		}
+		final int element = buckets[minKey][random
+				.nextInt(bucketSizes[minKey])];
+		remove(element);
+		return element;
+	}
+
+}
@@ -0,0 +1,147 @@
+package de.hft.timetabling.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.InstanceTables;
+
+/**
+ * Remembers for a problem instance which courses could not be assigned by the
+ * construction pass of the generator and how often. The memory is shared by
+ * all generators working on the same problem instance, so knowledge gained in
+ * earlier attempts and earlier fills of the solution table is kept. Courses
+ * that turned out to be hard to place are assigned first by subsequent
+ * sessions.
+ * <p>
+ * All counters are atomic and only ever increased, so the memory can be
+ * updated concurrently by generator threads without locking.
+ */
+public final class CourseDifficultyMemory {
+
+	/**
+	 * The maximum share of courses (in percent) that are assigned before all
+	 * other courses.
+	 */
+	private static final int MAX_PRIORITIZED_PERCENTAGE = 5;
+
+	private static final Map<IProblemInstance, CourseDifficultyMemory> MEMORIES = new WeakHashMap<IProblemInstance, CourseDifficultyMemory>();
+
+	private final InstanceTables tables;
+
+	/** How often each course was left unassigned by the construction pass. */
+	private final AtomicIntegerArray unassignedCounts;
+
+	private final AtomicInteger numberOfSessions = new AtomicInteger();
+
+	private final AtomicInteger numberOfFirstPassFailures = new AtomicInteger();
+
+	/**
+	 * Returns the memory of the given problem instance, creating it if
+	 * necessary.
+	 */
+	public static synchronized CourseDifficultyMemory getMemory(
+			final IProblemInstance instance) {
+		CourseDifficultyMemory memory = MEMORIES.get(instance);
+		if (memory == null) {
+			memory = new CourseDifficultyMemory(instance);
+			MEMORIES.put(instance, memory);
+		}
+		return memory;
+	}
+
+	private CourseDifficultyMemory(final IProblemInstance instance) {
+		tables = instance.getInstanceTables();
+		unassignedCounts = new AtomicIntegerArray(tables.getNumberOfCourses());
+	}
+
+	/**
+	 * Records the outcome of the construction pass of one session.
+	 *
+	 * @param unassigned
+	 *            The courses that could not be assigned.
+	 */
+	void recordSession(final Set<ICourse> unassigned) {
+		numberOfSessions.incrementAndGet();
+		if (!unassigned.isEmpty()) {
+			numberOfFirstPassFailures.incrementAndGet();
+		}
+		for (final ICourse course : unassigned) {
+			unassignedCounts.incrementAndGet(course.getUniqueNumber());
+		}
+	}
+
+	/**
+	 * Returns the courses which should be assigned before all other courses,
+	 * the hardest course first.
+	 */
+	public List<ICourse> getPrioritizedCourses() {
+		final int maximum = (tables.getNumberOfCourses() * MAX_PRIORITIZED_PERCENTAGE) / 100;
+		return getHardestCourses(maximum);
+	}
+
+	/**
+	 * Returns at most the given number of courses which were left unassigned
+	 * at least once, ordered by descending frequency.
+	 */
+	public List<ICourse> getHardestCourses(final int maximum) {
+		final int[] counts = new int[tables.getNumberOfCourses()];
+		final List<Integer> hardCourses = new ArrayList<Integer>();
+		for (int course = 0; course < counts.length; course++) {
+			counts[course] = unassignedCounts.get(course);
+			if (counts[course] > 0) {
+				hardCourses.add(course);
+			}
+		}
+		Collections.sort(hardCourses, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer course1, final Integer course2) {
+				if (counts[course1] != counts[course2]) {
+					return counts[course2] - counts[course1];
+				}
+				return course1 - course2;
+			}
+		});
+
+		final List<ICourse> result = new ArrayList<ICourse>();
+		for (final int course : hardCourses) {
+			if (result.size() == maximum) {
+				break;
+			}
+			result.add(tables.getCourse(course));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns how often the given course was left unassigned by the
+	 * construction pass.
+	 */
+	public int getUnassignedCount(final ICourse course) {
+		return unassignedCounts.get(course.getUniqueNumber());
+	}
+
+	/**
+	 * Returns the number of sessions recorded so far.
+	 */
+	public int getNumberOfSessions() {
+		return numberOfSessions.get();
+	}
+
+	/**
+	 * Returns the number of sessions whose construction pass left at least one
+	 * course unassigned, i.e. that needed the repair phase.
+	 */
+	public int getNumberOfFirstPassFailures() {
+		return numberOfFirstPassFailures.get();
+	}
+
+}
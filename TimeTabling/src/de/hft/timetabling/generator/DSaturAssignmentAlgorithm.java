@@ -0,0 +1,334 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+import java.util.Set;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.util.BitSetUtil;
+import de.hft.timetabling.util.RoomAssignmentUtil;
+
+/**
+ * Construction algorithm treating the lectures as vertices of the conflict
+ * graph (lectures of the same course, of courses held by the same teacher and
+ * of courses sharing a curriculum are adjacent) which are coloured with
+ * periods, similar to the DSatur heuristic for graph colouring. The number of
+ * lectures per colour is limited by the number of rooms.
+ * <p>
+ * The next course to colour is the one with the least slack, i.e. the fewest
+ * available periods in relation to its remaining lectures. Ties are broken by
+ * the degree in the uncoloured part of the graph and then randomly. Each
+ * lecture gets the period which removes the fewest options from uncoloured
+ * neighbours. Rooms are not part of the colouring: lectures are put into any
+ * free room and the rooms of each period are rearranged by capacity when the
+ * coding is requested.
+ * <p>
+ * All state is kept in bit sets and <tt>int</tt> arrays indexed by the unique
+ * numbers of courses, rooms and periods.
+ */
+public class DSaturAssignmentAlgorithm implements GeneratorAlgorithm {
+
+	private final InstanceTables tables;
+
+	private final Random random;
+
+	/** Bit set of the periods still available per course. */
+	private final long[][] availablePeriods;
+
+	/** Bit set of the courses the period is still available for per period. */
+	private final long[][] availableCourses;
+
+	/** Number of bits set in the available periods bit set per course. */
+	private final int[] domainSizes;
+
+	/**
+	 * Number of assigned lectures per course and period which prevent the
+	 * course from being assigned to the period.
+	 */
+	private final int[][] blockingLectures;
+
+	private final int[] freeRoomCounts;
+
+	/** Bit set of the courses that are not assigned. */
+	private final long[] unassignedCourses;
+
+	/**
+	 * Number of lectures of unassigned conflicting courses per course, i.e.
+	 * the degree of the course in the uncoloured part of the conflict graph.
+	 */
+	private final int[] degrees;
+
+	/**
+	 * Bit set of the courses of the set most recently passed to
+	 * {@link #getMostCriticalEvent(Set)} that have not been returned yet.
+	 */
+	private final long[] candidates;
+
+	private Set<ICourse> candidateCourses;
+
+	private int numberOfCandidates;
+
+	private final ICourse[][] schedule;
+
+	public DSaturAssignmentAlgorithm(final IProblemInstance instance,
+			final Random random) {
+		this.random = random;
+		tables = instance.getInstanceTables();
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		final int numberOfRooms = tables.getNumberOfRooms();
+		final int numberOfCourses = tables.getNumberOfCourses();
+		schedule = new ICourse[numberOfPeriods][numberOfRooms];
+
+		availablePeriods = new long[numberOfCourses][];
+		availableCourses = new long[numberOfPeriods][];
+		domainSizes = new int[numberOfCourses];
+		blockingLectures = new int[numberOfCourses][numberOfPeriods];
+		for (int period = 0; period < numberOfPeriods; period++) {
+			availableCourses[period] = BitSetUtil.create(numberOfCourses);
+		}
+		for (int course = 0; course < numberOfCourses; course++) {
+			availablePeriods[course] = tables.getFeasiblePeriods(course)
+					.clone();
+			domainSizes[course] = tables.getNumberOfFeasiblePeriods(course);
+			for (final int period : BitSetUtil
+					.toArray(availablePeriods[course])) {
+				BitSetUtil.set(availableCourses[period], course);
+			}
+		}
+
+		freeRoomCounts = new int[numberOfPeriods];
+		for (int period = 0; period < numberOfPeriods; period++) {
+			freeRoomCounts[period] = numberOfRooms;
+		}
+
+		unassignedCourses = BitSetUtil.create(numberOfCourses);
+		BitSetUtil.setAll(unassignedCourses, numberOfCourses);
+		degrees = new int[numberOfCourses];
+		for (int course = 0; course < numberOfCourses; course++) {
+			for (final int conflicting : tables.getConflictingCourses(course)) {
+				degrees[course] += tables.getNumberOfLectures(conflicting);
+			}
+		}
+		candidates = BitSetUtil.create(numberOfCourses);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The course with the least slack (available periods minus lectures) is
+	 * returned, ties are broken by the highest degree in the uncoloured part of
+	 * the conflict graph and then randomly.
+	 */
+	public ICourse getMostCriticalEvent(final Set<ICourse> courses) {
+		if ((courses != candidateCourses)
+				|| (numberOfCandidates != courses.size())) {
+			for (int i = 0; i < candidates.length; i++) {
+				candidates[i] = 0;
+			}
+			for (final ICourse course : courses) {
+				BitSetUtil.set(candidates, course.getUniqueNumber());
+			}
+			candidateCourses = courses;
+			numberOfCandidates = courses.size();
+		}
+
+		int critical = -1;
+		int bestSlack = Integer.MAX_VALUE;
+		int bestDegree = -1;
+		int ties = 0;
+		for (int course = BitSetUtil.nextSetBit(candidates, 0); course >= 0; course = BitSetUtil
+				.nextSetBit(candidates, course + 1)) {
+			final int slack = domainSizes[course]
+					- tables.getNumberOfLectures(course);
+			final int degree = degrees[course];
+			if ((slack < bestSlack)
+					|| ((slack == bestSlack) && (degree > bestDegree))) {
+				critical = course;
+				bestSlack = slack;
+				bestDegree = degree;
+				ties = 1;
+			} else if ((slack == bestSlack) && (degree == bestDegree)) {
+				// Reservoir sampling among equally critical courses.
+				ties++;
+				if (random.nextInt(ties) == 0) {
+					critical = course;
+				}
+			}
+		}
+
+		BitSetUtil.clear(candidates, critical);
+		numberOfCandidates--;
+		return tables.getCourse(critical);
+	}
+
+	public ICourse getAssignedCourse(final int period, final int room) {
+		return schedule[period][room];
+	}
+
+	public ICourse[][] getCoding() {
+		for (int period = 0; period < schedule.length; period++) {
+			RoomAssignmentUtil.assignRoomsByCapacity(schedule[period], tables);
+		}
+		return schedule;
+	}
+
+	public boolean isAssignable(final ICourse course) {
+		final int c = course.getUniqueNumber();
+		return domainSizes[c] >= tables.getNumberOfLectures(c);
+	}
+
+	public void assignRandomViableSlots(final ICourse course) {
+		final int c = course.getUniqueNumber();
+		final long[] conflicts = tables.getConflicts(c);
+
+		for (int i = 0; i < tables.getNumberOfLectures(c); i++) {
+			int bestPeriod = -1;
+			int bestCost = Integer.MAX_VALUE;
+			int ties = 0;
+			final long[] domain = availablePeriods[c];
+			for (int period = BitSetUtil.nextSetBit(domain, 0); period >= 0; period = BitSetUtil
+					.nextSetBit(domain, period + 1)) {
+				final int cost = countRemovedOptions(conflicts,
+						availableCourses[period]);
+				if (cost < bestCost) {
+					bestPeriod = period;
+					bestCost = cost;
+					ties = 1;
+				} else if ((cost == bestCost) && (random.nextInt(++ties) == 0)) {
+					bestPeriod = period;
+				}
+			}
+			assignLecture(course, bestPeriod);
+		}
+		markAssigned(c);
+	}
+
+	public void assignLecture(final ICourse course, final int period,
+			final int room) {
+		placeLecture(course, period, room);
+		final int c = course.getUniqueNumber();
+		if (BitSetUtil.get(unassignedCourses, c)) {
+			markAssigned(c);
+		}
+	}
+
+	public void unassignCourse(final ICourse course) {
+		final int c = course.getUniqueNumber();
+		if (BitSetUtil.get(unassignedCourses, c)) {
+			return;
+		}
+		for (int period = 0; period < schedule.length; period++) {
+			for (int room = 0; room < schedule[period].length; room++) {
+				if (schedule[period][room] == course) {
+					unassignLecture(course, period, room);
+				}
+			}
+		}
+
+		BitSetUtil.set(unassignedCourses, c);
+		for (final int conflicting : tables.getConflictingCourses(c)) {
+			degrees[conflicting] += tables.getNumberOfLectures(c);
+		}
+	}
+
+	/**
+	 * Returns how many unassigned courses conflicting with a course would lose
+	 * a period that is still available to them.
+	 */
+	private int countRemovedOptions(final long[] conflicts,
+			final long[] coursesOfPeriod) {
+		int count = 0;
+		for (int i = 0; i < conflicts.length; i++) {
+			count += Long.bitCount(conflicts[i] & coursesOfPeriod[i]
+					& unassignedCourses[i]);
+		}
+		return count;
+	}
+
+	/**
+	 * Removes the given course from the uncoloured part of the conflict graph.
+	 */
+	private void markAssigned(final int course) {
+		BitSetUtil.clear(unassignedCourses, course);
+		for (final int conflicting : tables.getConflictingCourses(course)) {
+			degrees[conflicting] -= tables.getNumberOfLectures(course);
+		}
+	}
+
+	private void assignLecture(final ICourse course, final int period) {
+		int room = 0;
+		while (schedule[period][room] != null) {
+			room++;
+		}
+		placeLecture(course, period, room);
+	}
+
+	private void placeLecture(final ICourse course, final int period,
+			final int room) {
+		schedule[period][room] = course;
+		freeRoomCounts[period]--;
+
+		final int c = course.getUniqueNumber();
+		block(c, period);
+		for (final int conflicting : tables.getConflictingCourses(c)) {
+			block(conflicting, period);
+		}
+
+		if (freeRoomCounts[period] == 0) {
+			for (int other = 0; other < availablePeriods.length; other++) {
+				removeFromDomain(other, period);
+			}
+		}
+	}
+
+	private void unassignLecture(final ICourse course, final int period,
+			final int room) {
+		schedule[period][room] = null;
+		freeRoomCounts[period]++;
+
+		if (freeRoomCounts[period] == 1) {
+			for (int other = 0; other < availablePeriods.length; other++) {
+				restoreToDomain(other, period);
+			}
+		}
+
+		final int c = course.getUniqueNumber();
+		unblock(c, period);
+		for (final int conflicting : tables.getConflictingCourses(c)) {
+			unblock(conflicting, period);
+		}
+	}
+
+	private void block(final int course, final int period) {
+		if (blockingLectures[course][period]++ == 0) {
+			removeFromDomain(course, period);
+		}
+	}
+
+	private void unblock(final int course, final int period) {
+		if (--blockingLectures[course][period] == 0) {
+			restoreToDomain(course, period);
+		}
+	}
+
+	private void removeFromDomain(final int course, final int period) {
+		if (BitSetUtil.get(availablePeriods[course], period)) {
+			BitSetUtil.clear(availablePeriods[course], period);
+			BitSetUtil.clear(availableCourses[period], course);
+			domainSizes[course]--;
+		}
+	}
+
+	private void restoreToDomain(final int course, final int period) {
+		if ((blockingLectures[course][period] == 0)
+				&& (freeRoomCounts[period] > 0)
+				&& !tables.isUnavailable(course, period)
+				&& !BitSetUtil.get(availablePeriods[course], period)) {
+			BitSetUtil.set(availablePeriods[course], period);
+			BitSetUtil.set(availableCourses[period], course);
+			domainSizes[course]++;
+		}
+	}
+
+}
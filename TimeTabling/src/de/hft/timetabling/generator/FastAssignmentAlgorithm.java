@@ -1,118 +1,246 @@
 package de.hft.timetabling.generator;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import de.hft.timetabling.common.ICourse;
-import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
-
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.util.BitSetUtil;
+import de.hft.timetabling.util.RoomAssignmentUtil;
+
+/**
+ * Construction algorithm working on period granularity. The domain of each
+ * course, i.e. the set of periods the course can still be assigned to without
+ * violating any hard constraints, is stored as a bit set. The same is done for
+ * the free rooms of each period. That way, picking a random viable period or
+ * room is a matter of selecting a random set bit.
+ * <p>
+ * For each course and period the number of assigned lectures preventing the
+ * course from being held in that period (lectures of the course itself and of
+ * conflicting courses) is counted. A period is part of the domain of a course
+ * if it is not forbidden by unavailability constraints, its counter is zero
+ * and the period still has a free room. This allows to take courses out of the
+ * schedule again during the repair phase of the construction.
+ */
 public class FastAssignmentAlgorithm implements GeneratorAlgorithm {
 
-	private final IProblemInstance instance;
+	private final InstanceTables tables;
 
-	private final HashMap<ICourse, Set<Integer>> availablePeriods = new HashMap<ICourse, Set<Integer>>();
+	private final Random random;
 
-	private final List<Set<Integer>> availableRooms = new ArrayList<Set<Integer>>();
+	/** Bit set of the periods still available per course. */
+	private final long[][] availablePeriods;
 
-	private final ICourse[][] schedule;
+	/** Number of bits set in the available periods bit set per course. */
+	private final int[] domainSizes;
 
-	public FastAssignmentAlgorithm(final IProblemInstance instance) {
-		this.instance = instance;
-		schedule = new ICourse[instance.getNumberOfPeriods()][instance
-				.getNumberOfRooms()];
+	/**
+	 * Number of assigned lectures per course and period which prevent the
+	 * course from being assigned to the period.
+	 */
+	private final int[][] blockingLectures;
 
-		for (final ICourse course : instance.getCourses()) {
-			for (int period = 0; period < instance.getNumberOfPeriods(); period++) {
-				if (availablePeriods.get(course) == null) {
-					availablePeriods.put(course, new HashSet<Integer>());
-				}
+	/** Bit set of the rooms still free per period. */
+	private final long[][] freeRooms;
 
-				if (!instance.getUnavailabilityConstraints(course).contains(
-						period)) {
-					availablePeriods.get(course).add(period);
-				}
-			}
+	/** Number of bits set in the free rooms bit set per period. */
+	private final int[] freeRoomCounts;
+
+	/** Scratch bit set of the periods a course might still be assigned to. */
+	private final long[] candidatePeriods;
+
+	/**
+	 * The courses of the set most recently passed to
+	 * {@link #getMostCriticalEvent(Set)} that have not been returned yet, keyed
+	 * by their domain size.
+	 */
+	private final BucketQueue queue;
+
+	private Set<ICourse> queuedCourses;
+
+	private final ICourse[][] schedule;
+
+	public FastAssignmentAlgorithm(final IProblemInstance instance,
+			final Random random) {
+		this.random = random;
+		tables = instance.getInstanceTables();
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		final int numberOfRooms = tables.getNumberOfRooms();
+		final int numberOfCourses = tables.getNumberOfCourses();
+		schedule = new ICourse[numberOfPeriods][numberOfRooms];
+
+		availablePeriods = new long[numberOfCourses][];
+		domainSizes = new int[numberOfCourses];
+		for (int course = 0; course < numberOfCourses; course++) {
+			availablePeriods[course] = tables.getFeasiblePeriods(course)
+					.clone();
+			domainSizes[course] = tables.getNumberOfFeasiblePeriods(course);
 		}
 
-		for (int period = 0; period < instance.getNumberOfPeriods(); period++) {
-			availableRooms.add(new HashSet<Integer>());
+		blockingLectures = new int[numberOfCourses][numberOfPeriods];
 
-			for (int room = 0; room < instance.getNumberOfRooms(); room++) {
-				availableRooms.get(period).add(room);
-			}
+		freeRooms = new long[numberOfPeriods][];
+		freeRoomCounts = new int[numberOfPeriods];
+		for (int period = 0; period < numberOfPeriods; period++) {
+			freeRooms[period] = BitSetUtil.create(numberOfRooms);
+			BitSetUtil.setAll(freeRooms[period], numberOfRooms);
+			freeRoomCounts[period] = numberOfRooms;
 		}
+
+		candidatePeriods = BitSetUtil.create(numberOfPeriods);
+		queue = new BucketQueue(numberOfCourses, numberOfPeriods);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The given courses are kept in a bucket queue keyed by domain size which
+	 * is updated whenever an assignment shrinks a domain. As long as the caller
+	 * passes the same set again after removing the returned course, the queue
+	 * does not have to be rebuilt and a call takes constant time.
+	 */
 	public ICourse getMostCriticalEvent(final Set<ICourse> courses) {
-		int minimum = Integer.MAX_VALUE;
-		final List<ICourse> criticalCourses = new ArrayList<ICourse>();
-
-		for (final ICourse course : courses) {
-			final int periods = availablePeriods.get(course).size();
-
-			if (periods < minimum) {
-				minimum = periods;
-				criticalCourses.clear();
-				criticalCourses.add(course);
-			} else if (periods == minimum) {
-				criticalCourses.add(course);
+		if ((courses != queuedCourses) || (queue.size() != courses.size())) {
+			queue.clear();
+			for (final ICourse course : courses) {
+				final int c = course.getUniqueNumber();
+				queue.add(c, domainSizes[c]);
 			}
+			queuedCourses = courses;
 		}
-		Collections.shuffle(criticalCourses);
+		return tables.getCourse(queue.pollMin(random));
+	}
 
-		return criticalCourses.get(0);
+	public ICourse getAssignedCourse(final int period, final int room) {
+		return schedule[period][room];
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The rooms are chosen randomly during construction. Before the schedule
+	 * is returned the courses of each period are moved between the rooms of
+	 * the period so that the room capacity penalty is minimal.
+	 */
 	public ICourse[][] getCoding() {
+		for (int period = 0; period < schedule.length; period++) {
+			RoomAssignmentUtil.assignRoomsByCapacity(schedule[period], tables);
+			for (int room = 0; room < schedule[period].length; room++) {
+				if (schedule[period][room] == null) {
+					BitSetUtil.set(freeRooms[period], room);
+				} else {
+					BitSetUtil.clear(freeRooms[period], room);
+				}
+			}
+		}
 		return schedule;
 	}
 
 	public boolean isAssignable(final ICourse course) {
-		return availablePeriods.get(course).size() >= course
-				.getNumberOfLectures();
+		final int c = course.getUniqueNumber();
+		return domainSizes[c] >= tables.getNumberOfLectures(c);
 	}
 
 	public void assignRandomViableSlots(final ICourse critical) {
-		final List<Integer> periods = new ArrayList<Integer>();
-		periods.addAll(availablePeriods.get(critical));
-		final Set<Integer> assignedPeriods = new HashSet<Integer>();
-
-		for (int i = 0; i < critical.getNumberOfLectures(); i++) {
-			Collections.shuffle(periods);
-			final int randomPeriod = periods.get(0);
-
-			final List<Integer> rooms = new ArrayList<Integer>();
-			rooms.addAll(availableRooms.get(randomPeriod));
+		final int c = critical.getUniqueNumber();
+		System.arraycopy(availablePeriods[c], 0, candidatePeriods, 0,
+				candidatePeriods.length);
+		int numberOfCandidates = domainSizes[c];
+
+		for (int i = 0; i < tables.getNumberOfLectures(c); i++) {
+			final int randomPeriod = BitSetUtil.selectSetBit(candidatePeriods,
+					random.nextInt(numberOfCandidates));
+			BitSetUtil.clear(candidatePeriods, randomPeriod);
+			numberOfCandidates--;
+
+			final int randomRoom = BitSetUtil.selectSetBit(
+					freeRooms[randomPeriod], random
+							.nextInt(freeRoomCounts[randomPeriod]));
+			assignLecture(critical, randomPeriod, randomRoom);
+		}
+	}
 
-			if (rooms.size() == 1) {
-				for (final ICourse course : instance.getCourses()) {
-					availablePeriods.get(course).remove(randomPeriod);
+	public void unassignCourse(final ICourse course) {
+		for (int period = 0; period < schedule.length; period++) {
+			for (int room = 0; room < schedule[period].length; room++) {
+				if (schedule[period][room] == course) {
+					unassignLecture(course, period, room);
 				}
 			}
-			Collections.shuffle(rooms);
-			final int randomRoom = rooms.get(0);
-			schedule[randomPeriod][randomRoom] = critical;
+		}
+	}
 
-			availableRooms.get(randomPeriod).remove(randomRoom);
-			periods.remove(0);
+	public void assignLecture(final ICourse course, final int period,
+			final int room) {
+		final int c = course.getUniqueNumber();
+		schedule[period][room] = course;
+		BitSetUtil.clear(freeRooms[period], room);
+		freeRoomCounts[period]--;
+
+		/*
+		 * courses sharing a curriculum or the teacher with the course cannot
+		 * take place in the period anymore
+		 */
+		block(c, period);
+		for (final int conflicting : tables.getConflictingCourses(c)) {
+			block(conflicting, period);
+		}
 
-			assignedPeriods.add(randomPeriod);
+		if (freeRoomCounts[period] == 0) {
+			for (int other = 0; other < availablePeriods.length; other++) {
+				removeFromDomain(other, period);
+			}
 		}
+	}
+
+	private void unassignLecture(final ICourse course, final int period,
+			final int room) {
+		final int c = course.getUniqueNumber();
+		schedule[period][room] = null;
+		BitSetUtil.set(freeRooms[period], room);
+		freeRoomCounts[period]++;
 
-		for (final ICurriculum curriculum : critical.getCurricula()) {
-			for (final ICourse course : curriculum.getCourses()) {
-				availablePeriods.get(course).removeAll(assignedPeriods);
+		if (freeRoomCounts[period] == 1) {
+			for (int other = 0; other < availablePeriods.length; other++) {
+				restoreToDomain(other, period);
 			}
 		}
 
-		for (final ICourse course : instance.getCoursesForTeacher(critical
-				.getTeacher())) {
-			availablePeriods.get(course).removeAll(assignedPeriods);
+		unblock(c, period);
+		for (final int conflicting : tables.getConflictingCourses(c)) {
+			unblock(conflicting, period);
+		}
+	}
+
+	private void block(final int course, final int period) {
+		if (blockingLectures[course][period]++ == 0) {
+			removeFromDomain(course, period);
+		}
+	}
+
+	private void unblock(final int course, final int period) {
+		if (--blockingLectures[course][period] == 0) {
+			restoreToDomain(course, period);
+		}
+	}
+
+	private void removeFromDomain(final int course, final int period) {
+		if (BitSetUtil.get(availablePeriods[course], period)) {
+			BitSetUtil.clear(availablePeriods[course], period);
+			domainSizes[course]--;
+			queue.updateKey(course, domainSizes[course]);
+		}
+	}
+
+	private void restoreToDomain(final int course, final int period) {
+		if ((blockingLectures[course][period] == 0)
+				&& (freeRoomCounts[period] > 0)
+				&& !tables.isUnavailable(course, period)
+				&& !BitSetUtil.get(availablePeriods[course], period)) {
+			BitSetUtil.set(availablePeriods[course], period);
+			domainSizes[course]++;
+			queue.updateKey(course, domainSizes[course]);
 		}
 	}
 }
@@ -1,11 +1,20 @@
 package de.hft.timetabling.generator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
 import de.hft.timetabling.main.Main;
 import de.hft.timetabling.services.IGeneratorService;
 import de.hft.timetabling.services.ISolutionTableService;
@@ -20,16 +29,79 @@ import de.hft.timetabling.services.ServiceLocator;
  * @author Matthias Ruszala
  */
 public final class Generator implements IGeneratorService {
+
+	/**
+	 * The construction algorithms the generator can use.
+	 */
+	public enum Algorithm {
+		/** {@link FastAssignmentAlgorithm} */
+		FAST,
+		/** {@link SlowAssignmentAlgorithm} */
+		SLOW,
+		/** {@link DSaturAssignmentAlgorithm} */
+		DSATUR
+	}
+
 	/**
 	 * the amount of iterations which will be performed before the algorithm
 	 * gives up trying to create a feasible solution
 	 */
 	private final int MAX_ITERATIONS = 50;
 	/**
-	 * the amount of loops during each iteration. Higher loop counts increase
-	 * the likelihood of a feasible solution to be found
+	 * the amount of repair steps during each iteration. Higher step counts
+	 * increase the likelihood of a feasible solution to be found
+	 */
+	private final int MAX_REPAIR_STEPS = 200;
+	/**
+	 * the amount of repair steps during which a course that has just been
+	 * inserted is protected from being ejected again
 	 */
-	private final int MAX_LOOPS = 10;
+	private final int TABU_TENURE = 5;
+	/**
+	 * the additional ejection cost of a course which is protected
+	 */
+	private final int TABU_PENALTY = 1000;
+
+	private final Random random;
+
+	/**
+	 * the courses to assign first or <tt>null</tt> if they are taken from the
+	 * difficulty memory of the problem instance at the start of each session
+	 */
+	private final Collection<ICourse> prioritizedCourses;
+
+	private Algorithm algorithm = Main.generatorAlgorithm;
+
+	/**
+	 * Creates a generator using a new random stream of the current run.
+	 */
+	public Generator() {
+		this(Main.newRandomStream());
+	}
+
+	/**
+	 * Creates a generator using the given random stream. The generator must
+	 * then only be used by one thread at a time.
+	 */
+	public Generator(final Random random) {
+		this(random, null);
+	}
+
+	/**
+	 * Creates a generator using the given random stream which assigns the
+	 * given courses first instead of consulting the difficulty memory at the
+	 * start of each session. Generators running in parallel should be created
+	 * with a snapshot of the memory taken by the creating thread, since the
+	 * memory is updated concurrently and the outcome would otherwise depend on
+	 * the thread scheduling.
+	 * 
+	 * @see CourseDifficultyMemory#getPrioritizedCourses()
+	 */
+	public Generator(final Random random,
+			final Collection<ICourse> prioritizedCourses) {
+		this.random = random;
+		this.prioritizedCourses = prioritizedCourses;
+	}
 
 	/**
 	 * This method tries to construct a feasible solution for the given problem
@@ -40,34 +112,41 @@ public final class Generator implements IGeneratorService {
 	 * @return the valid schedule
 	 * @throws NoFeasibleSolutionFoundException
 	 *             when no solution can be found within the set amount of
-	 *             iterations
+	 *             iterations or the current thread is interrupted
 	 */
 	public ICourse[][] generateFeasibleSolution(final IProblemInstance instance)
 			throws NoFeasibleSolutionFoundException {
 		int iterations = 0;
+		final CourseDifficultyMemory memory = CourseDifficultyMemory
+				.getMemory(instance);
+		final Set<ICourse> prioritized = new LinkedHashSet<ICourse>();
 		/*
 		 * each iteration performs one run of the construction algorithm as
-		 * described by Geiger
+		 * described by Geiger followed by a repair phase for the courses which
+		 * could not be assigned
 		 */
 		while (iterations < MAX_ITERATIONS) {
-			int loops = 0;
-			final GeneratorAlgorithm session = new FastAssignmentAlgorithm(
-					instance);
-
-			final Set<ICourse> prioterized = new HashSet<ICourse>();
-			final Set<ICourse> nonPrioterized = new HashSet<ICourse>();
-			final Set<ICourse> unassigned = new HashSet<ICourse>();
-
-			do {
-				prioterized.addAll(unassigned);
-				unassigned.clear();
-				nonPrioterized.clear();
-				nonPrioterized.addAll(instance.getCourses());
-				nonPrioterized.removeAll(prioterized);
-
-				unassigned.addAll(assignCourses(session, prioterized));
-				unassigned.addAll(assignCourses(session, nonPrioterized));
-			} while (!unassigned.isEmpty() && (loops++ < MAX_LOOPS));
+			final GeneratorAlgorithm session = createSession(instance);
+
+			/*
+			 * courses known to be hard to place are assigned first
+			 */
+			prioritized.addAll((prioritizedCourses == null) ? memory
+					.getPrioritizedCourses() : prioritizedCourses);
+			final Set<ICourse> nonPrioritized = new HashSet<ICourse>(instance
+					.getCourses());
+			nonPrioritized.removeAll(prioritized);
+
+			final Set<ICourse> unassigned = assignCourses(session,
+					new LinkedHashSet<ICourse>(prioritized));
+			unassigned.addAll(assignCourses(session, nonPrioritized));
+			memory.recordSession(unassigned);
+			/*
+			 * the courses left unassigned are prioritized in the next session
+			 * if the repair fails
+			 */
+			prioritized.addAll(unassigned);
+			repair(session, instance, unassigned);
 			/*
 			 * feasible solution found if there are no unassigned courses left
 			 */
@@ -75,12 +154,255 @@ public final class Generator implements IGeneratorService {
 				Main.generatorSuccess++;
 				return session.getCoding();
 			}
+			/*
+			 * cancelled attempts are not counted as failures
+			 */
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
 			Main.generatorFailure++;
 			iterations++;
 		}
 		throw new NoFeasibleSolutionFoundException();
 	}
 
+	/**
+	 * This method completes a partial schedule by assigning the given courses
+	 * to it, followed by the same repair phase as used for the construction of
+	 * new solutions. Courses of the partial schedule may be moved during the
+	 * repair. Only a single attempt is made and the generator statistics are
+	 * not updated, so the method can be used to reinsert courses that have been
+	 * taken out of a feasible solution.
+	 * 
+	 * @param instance
+	 *            the problem instance the schedule is for
+	 * @param partialCoding
+	 *            a hard constraint valid schedule without the given courses,
+	 *            it is not changed
+	 * @param courses
+	 *            the courses to assign
+	 * @return the completed schedule
+	 * @throws NoFeasibleSolutionFoundException
+	 *             when not all courses can be assigned
+	 */
+	public ICourse[][] completeSchedule(final IProblemInstance instance,
+			final ICourse[][] partialCoding, final Collection<ICourse> courses)
+			throws NoFeasibleSolutionFoundException {
+		final GeneratorAlgorithm session = createSession(instance);
+		for (int period = 0; period < partialCoding.length; period++) {
+			for (int room = 0; room < partialCoding[period].length; room++) {
+				final ICourse course = partialCoding[period][room];
+				if (course != null) {
+					session.assignLecture(course, period, room);
+				}
+			}
+		}
+
+		final Set<ICourse> unassigned = assignCourses(session,
+				new LinkedHashSet<ICourse>(courses));
+		repair(session, instance, unassigned);
+		if (!unassigned.isEmpty()) {
+			throw new NoFeasibleSolutionFoundException();
+		}
+		return session.getCoding();
+	}
+
+	/**
+	 * This method sets the construction algorithm used by all subsequent
+	 * sessions.
+	 * 
+	 * @param algorithm
+	 *            the construction algorithm to use
+	 */
+	public void setAlgorithm(final Algorithm algorithm) {
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * This method returns the construction algorithm used by all subsequent
+	 * sessions. Unless set explicitly, it is the one chosen for the run when
+	 * the generator was created, see {@link Main#generatorAlgorithm}.
+	 * 
+	 * @return the construction algorithm in use
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * This method creates a new session of the selected construction
+	 * algorithm.
+	 * 
+	 * @param instance
+	 *            the problem instance for which a solution is to be found
+	 * @return the new session with an empty schedule
+	 */
+	private GeneratorAlgorithm createSession(final IProblemInstance instance) {
+		switch (algorithm) {
+		case SLOW:
+			return new SlowAssignmentAlgorithm(instance, random);
+		case DSATUR:
+			return new DSaturAssignmentAlgorithm(instance, random);
+		default:
+			return new FastAssignmentAlgorithm(instance, random);
+		}
+	}
+
+	/**
+	 * This method repairs a partial schedule by ejection chains. In each step
+	 * one unassigned course is chosen and the periods where it can be inserted
+	 * by ejecting the cheapest set of courses are determined. The conflicting
+	 * courses in these periods are removed from the schedule, the chosen course
+	 * is inserted and the ejected courses are reinserted as far as possible.
+	 * Courses which still cannot be assigned remain unassigned for the next
+	 * step. Recently inserted courses are protected from ejection for a few
+	 * steps so the chain does not cycle.
+	 * 
+	 * @param session
+	 *            the session object holding the partial schedule
+	 * @param instance
+	 *            the problem instance for which a solution is to be found
+	 * @param unassigned
+	 *            the set of unassigned courses, updated by this method
+	 */
+	private void repair(final GeneratorAlgorithm session,
+			final IProblemInstance instance, final Set<ICourse> unassigned) {
+		final InstanceTables tables = instance.getInstanceTables();
+		final int[] insertedAt = new int[tables.getNumberOfCourses()];
+		Arrays.fill(insertedAt, -TABU_TENURE);
+		int steps = 0;
+
+		while (!unassigned.isEmpty() && (steps++ < MAX_REPAIR_STEPS)
+				&& !Thread.currentThread().isInterrupted()) {
+			final List<ICourse> candidates = new ArrayList<ICourse>(unassigned);
+			final ICourse course = candidates.get(random.nextInt(candidates
+					.size()));
+			final Set<ICourse> ejected = ejectBlockingCourses(session, tables,
+					course, insertedAt, steps);
+			if (ejected == null) {
+				continue;
+			}
+
+			unassigned.remove(course);
+			final Set<ICourse> inserted = new HashSet<ICourse>();
+			inserted.add(course);
+			unassigned.addAll(assignCourses(session, inserted));
+			insertedAt[course.getUniqueNumber()] = steps;
+
+			unassigned.addAll(ejected);
+			final Set<ICourse> reinserted = new HashSet<ICourse>(unassigned);
+			unassigned.clear();
+			unassigned.addAll(assignCourses(session, reinserted));
+		}
+	}
+
+	/**
+	 * This method chooses as many periods as the given course has lectures so
+	 * that inserting the course into these periods requires ejecting as few
+	 * lectures as possible. All courses conflicting with the given course in
+	 * the chosen periods are removed from the schedule. If a chosen period has
+	 * no free room, the course with the fewest lectures in that period is
+	 * removed as well.
+	 * 
+	 * @return the set of ejected courses or <tt>null</tt> if the course cannot
+	 *         be inserted into enough periods
+	 */
+	private Set<ICourse> ejectBlockingCourses(final GeneratorAlgorithm session,
+			final InstanceTables tables, final ICourse course,
+			final int[] insertedAt, final int step) {
+		final int c = course.getUniqueNumber();
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		final int numberOfRooms = tables.getNumberOfRooms();
+		final int[] costs = new int[numberOfPeriods];
+		final List<Integer> periods = new ArrayList<Integer>();
+
+		for (int period = 0; period < numberOfPeriods; period++) {
+			if (tables.isUnavailable(c, period)) {
+				continue;
+			}
+			int cost = 0;
+			boolean freeRoom = false;
+			ICourse cheapest = null;
+			for (int room = 0; room < numberOfRooms; room++) {
+				final ICourse other = session.getAssignedCourse(period, room);
+				if (other == null) {
+					freeRoom = true;
+				} else if (tables.isConflicting(c, other.getUniqueNumber())) {
+					cost += getEjectionCost(tables, other, insertedAt, step);
+					freeRoom = true;
+				} else if ((cheapest == null)
+						|| (getEjectionCost(tables, other, insertedAt, step) < getEjectionCost(
+								tables, cheapest, insertedAt, step))) {
+					cheapest = other;
+				}
+			}
+			if (!freeRoom) {
+				cost += getEjectionCost(tables, cheapest, insertedAt, step);
+			}
+			costs[period] = cost;
+			periods.add(period);
+		}
+
+		final int lectures = tables.getNumberOfLectures(c);
+		if (periods.size() < lectures) {
+			return null;
+		}
+		/*
+		 * shuffling before the stable sort breaks ties randomly
+		 */
+		Collections.shuffle(periods, random);
+		Collections.sort(periods, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer period1, final Integer period2) {
+				return costs[period1] - costs[period2];
+			}
+		});
+
+		final Set<ICourse> ejected = new HashSet<ICourse>();
+		for (final int period : periods.subList(0, lectures)) {
+			ICourse cheapest = null;
+			for (int room = 0; room < numberOfRooms; room++) {
+				final ICourse other = session.getAssignedCourse(period, room);
+				if (other == null) {
+					continue;
+				}
+				if (tables.isConflicting(c, other.getUniqueNumber())) {
+					ejected.add(other);
+					session.unassignCourse(other);
+				} else if ((cheapest == null)
+						|| (tables.getNumberOfLectures(other.getUniqueNumber()) < tables
+								.getNumberOfLectures(cheapest.getUniqueNumber()))) {
+					cheapest = other;
+				}
+			}
+			if (!hasFreeRoom(session, period, numberOfRooms)) {
+				ejected.add(cheapest);
+				session.unassignCourse(cheapest);
+			}
+		}
+		return ejected;
+	}
+
+	private int getEjectionCost(final InstanceTables tables,
+			final ICourse course, final int[] insertedAt, final int step) {
+		final int c = course.getUniqueNumber();
+		final int cost = tables.getNumberOfLectures(c);
+		if (step - insertedAt[c] <= TABU_TENURE) {
+			return cost + TABU_PENALTY;
+		}
+		return cost;
+	}
+
+	private boolean hasFreeRoom(final GeneratorAlgorithm session,
+			final int period, final int numberOfRooms) {
+		for (int room = 0; room < numberOfRooms; room++) {
+			if (session.getAssignedCourse(period, room) == null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * This method tries to assign all passed courses to slots in the schedule
 	 * while not violating any hard constraints.
@@ -7,9 +7,9 @@ import de.hft.timetabling.common.ICourse;
 /**
  * This interface is used during construction of a feasible solution. It stores
  * all necessary information needed during the construction of *one* feasible
- * solution and offers methods required by the construction algorithm. Objects
- * of this class are discarded after each failed attempt to construct a feasible
- * solution.
+ * solution and offers methods required by the construction algorithm. Courses
+ * can be taken out of the schedule again, which allows the construction
+ * algorithm to repair a partial schedule instead of discarding it.
  * 
  * @author Matthias Ruszala
  */
@@ -21,6 +21,12 @@ public interface GeneratorAlgorithm {
 	 * assigned to without violating any hard constraints. This course is called
 	 * the most critical course. Note that there can be more than one courses
 	 * which are critical, i.e. which have the same amount of available slots.
+	 * In this case one of them is chosen randomly.
+	 * <p>
+	 * The construction algorithm calls this method repeatedly with the same
+	 * set, removing the returned course from the set before the next call.
+	 * Implementations may rely on this to keep the courses in an incrementally
+	 * updated priority queue instead of scanning the whole set on each call.
 	 * 
 	 * @param courses
 	 *            the (sub)set of unassigned courses
@@ -50,6 +56,46 @@ public interface GeneratorAlgorithm {
 	 */
 	public void assignRandomViableSlots(ICourse course);
 
+	/**
+	 * This method assigns one lecture of the given course to the given slot.
+	 * It is used to seed a session with a partial schedule before the
+	 * remaining courses are assigned. The slot must be free and the assignment
+	 * must not violate any hard constraints, which is not checked.
+	 * 
+	 * @param course
+	 *            the course of the lecture
+	 * @param period
+	 *            the period of the slot
+	 * @param room
+	 *            the room of the slot
+	 */
+	void assignLecture(ICourse course, int period, int room);
+
+	/**
+	 * This method removes all lectures of the given course from the schedule.
+	 * The slots occupied by the course become available again for all other
+	 * courses as far as the hard constraints allow. Does nothing if the course
+	 * is not assigned.
+	 * 
+	 * @param course
+	 *            the course which will be removed from the schedule
+	 */
+	void unassignCourse(ICourse course);
+
+	/**
+	 * This method returns the course assigned to the given slot of the current
+	 * schedule. Unlike {@link #getCoding()} it neither copies the schedule nor
+	 * moves the courses between rooms, so the repair can inspect the schedule
+	 * in every step. The result reflects all later changes of the schedule.
+	 * 
+	 * @param period
+	 *            the period of the slot
+	 * @param room
+	 *            the room of the slot
+	 * @return the course assigned to the slot or <tt>null</tt> if it is free
+	 */
+	ICourse getAssignedCourse(int period, int room);
+
 	/**
 	 * This method returns the two-dimensional array representing the current
 	 * assignments of courses to periods and rooms. This method does not check
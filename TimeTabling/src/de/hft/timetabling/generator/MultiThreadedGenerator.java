@@ -3,62 +3,178 @@ package de.hft.timetabling.generator;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.main.Main;
 import de.hft.timetabling.services.IGeneratorService;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.ServiceLocator;
 
+/**
+ * Fills the solution table by generating solutions on all available
+ * processors. By default one attempt is launched per empty slot and the fill
+ * waits for all of them, so seeded runs are reproducible. In speculative mode
+ * more attempts than empty slots are launched; the first feasible results are
+ * taken and the remaining attempts are cancelled, so a single unlucky attempt
+ * does not delay the whole fill. A speculative fill may in addition be aborted
+ * after a deadline, leaving the remaining slots empty, unless the solution
+ * table was empty. Attempts that fail with an exception leave their slot empty
+ * as well.
+ */
 public final class MultiThreadedGenerator implements IGeneratorService {
 
-	private IProblemInstance problemInstance;
-
-	private final List<Callable<ISolution>> taskGroup = new ArrayList<Callable<ISolution>>();
+	private static final int NUMBER_OF_PROCESSORS = Runtime.getRuntime()
+			.availableProcessors();
 
 	private final ISolutionTableService solutionTable = ServiceLocator
 			.getInstance().getSolutionTableService();
 
-	private final ExecutorService exec = Executors.newFixedThreadPool(Runtime
-			.getRuntime().availableProcessors());
+	private final ExecutorService exec = Executors
+			.newFixedThreadPool(NUMBER_OF_PROCESSORS);
 
 	private final IGeneratorService generator;
 
+	private final boolean speculative;
+
+	/** The time after which a fill is aborted or <tt>0</tt> for no deadline. */
+	private final long fillDeadlineMillis;
+
+	/**
+	 * Creates a generator launching one attempt per empty slot without a
+	 * deadline.
+	 *
+	 * @param generator
+	 *            The generator used for single solutions.
+	 */
 	public MultiThreadedGenerator(final IGeneratorService generator) {
+		this(generator, false, 0);
+	}
+
+	/**
+	 * @param generator
+	 *            The generator used for single solutions.
+	 * @param speculative
+	 *            Whether to launch one additional attempt per processor and
+	 *            cancel the attempts not needed.
+	 * @param fillDeadlineMillis
+	 *            The time after which a fill of a solution table that is not
+	 *            empty is aborted or <tt>0</tt> to wait until the solution
+	 *            table is full.
+	 */
+	public MultiThreadedGenerator(final IGeneratorService generator,
+			final boolean speculative, final long fillDeadlineMillis) {
+		if (fillDeadlineMillis < 0) {
+			throw new IllegalArgumentException(
+					"The fill deadline must not be negative.");
+		}
 		this.generator = generator;
+		this.speculative = speculative;
+		this.fillDeadlineMillis = fillDeadlineMillis;
 	}
 
 	@Override
 	public void fillSolutionTable(final IProblemInstance problemInstance) {
-		if (this.problemInstance != problemInstance) {
-			this.problemInstance = problemInstance;
-			taskGroup.clear();
-			final ISolutionTableService solutionTable = ServiceLocator
-					.getInstance().getSolutionTableService();
-
-			for (int i = 0; i < solutionTable.getMaximumSize(); i++) {
-				taskGroup
-						.add(new SolutionTask(problemInstance, new Generator()));
-			}
+		final int numberOfEmptySlots = solutionTable.getNumberOfEmptySlots();
+		final int numberOfAttempts = speculative ? numberOfEmptySlots
+				+ NUMBER_OF_PROCESSORS : numberOfEmptySlots;
+
+		final CompletionService<ISolution> completionService = new ExecutorCompletionService<ISolution>(
+				exec);
+		final List<Future<ISolution>> futureList = new ArrayList<Future<ISolution>>();
+		final List<ICourse> prioritizedCourses = CourseDifficultyMemory
+				.getMemory(problemInstance).getPrioritizedCourses();
+		for (int i = 0; i < numberOfAttempts; i++) {
+			futureList.add(completionService.submit(new SolutionTask(
+					problemInstance, new Generator(Main.newRandomStream(),
+							prioritizedCourses))));
 		}
 
+		/*
+		 * an empty solution table is always filled completely, the main loop
+		 * cannot continue without solutions
+		 */
+		final boolean withDeadline = (fillDeadlineMillis > 0)
+				&& (solutionTable.getSize(true) > 0);
+		final long deadline = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(fillDeadlineMillis);
 		try {
-			final List<Future<ISolution>> futureList = exec.invokeAll(taskGroup
-					.subList(0, solutionTable.getNumberOfEmptySlots()));
-
-			for (final Future<ISolution> future : futureList) {
-				final ISolution sol = future.get();
-				solutionTable.addSolution(sol);
+			int completed = 0;
+			int feasible = 0;
+			while ((feasible < numberOfEmptySlots)
+					&& (completed < numberOfAttempts)) {
+				final Future<ISolution> future;
+				if (!withDeadline) {
+					future = completionService.take();
+				} else {
+					future = completionService.poll(deadline
+							- System.nanoTime(), TimeUnit.NANOSECONDS);
+				}
+				if (future == null) {
+					System.out.println("GENERATOR: Deadline exceeded, "
+							+ (numberOfEmptySlots - feasible)
+							+ " slots left empty.");
+					break;
+				}
+				completed++;
+				if (getSolution(future) != null) {
+					feasible++;
+				}
 			}
 		} catch (final InterruptedException e1) {
 			e1.printStackTrace();
+		}
+
+		/*
+		 * attempts which are not needed anymore are interrupted and stop at
+		 * the next check
+		 */
+		for (final Future<ISolution> future : futureList) {
+			future.cancel(true);
+		}
+
+		/*
+		 * the solutions are added in the order the attempts were submitted so
+		 * that runs without speculation are reproducible
+		 */
+		for (final Future<ISolution> future : futureList) {
+			if (solutionTable.isFull()) {
+				break;
+			}
+			if (future.isCancelled()) {
+				continue;
+			}
+			try {
+				final ISolution sol = getSolution(future);
+				if (sol != null) {
+					solutionTable.addSolution(sol);
+				}
+			} catch (final InterruptedException e1) {
+				e1.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Returns the solution of the given attempt or <tt>null</tt> if the
+	 * attempt was interrupted or failed with an exception. A failed attempt
+	 * only leaves its slot empty instead of aborting the whole fill.
+	 */
+	private static ISolution getSolution(final Future<ISolution> future)
+			throws InterruptedException {
+		try {
+			return future.get();
 		} catch (final ExecutionException e) {
 			e.printStackTrace();
+			return null;
 		}
 	}
 
@@ -87,11 +203,16 @@ final class SolutionTask implements Callable<ISolution> {
 		this.generator = generator;
 	}
 
+	/**
+	 * Retries until a feasible solution is found. Returns <tt>null</tt> if the
+	 * executing thread is interrupted before.
+	 */
 	@Override
 	public ISolution call() {
 		ISolution newSolution = null;
 
-		while (newSolution == null) {
+		while ((newSolution == null)
+				&& !Thread.currentThread().isInterrupted()) {
 			try {
 				final ICourse[][] coding = generator
 						.generateFeasibleSolution(problemInstance);
@@ -101,9 +222,11 @@ final class SolutionTask implements Callable<ISolution> {
 							problemInstance);
 				}
 			} catch (final NoFeasibleSolutionFoundException e) {
-				e.printStackTrace();
+				if (!Thread.currentThread().isInterrupted()) {
+					e.printStackTrace();
+				}
 			}
 		}
 		return newSolution;
 	}
-}
\ No newline at end of file
+}
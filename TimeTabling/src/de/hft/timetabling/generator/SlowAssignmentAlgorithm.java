@@ -1,21 +1,30 @@
 package de.hft.timetabling.generator;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.util.RoomAssignmentUtil;
 
 public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 
 	private final IProblemInstance instance;
 
-	private final Map<ICourse, List<Integer>> availableSlots = new HashMap<ICourse, List<Integer>>();
+	private final Random random;
+
+	/**
+	 * The free slots each course of the current set can be assigned to
+	 * without violating any hard constraints, indexed by slot number.
+	 */
+	private final Map<ICourse, BitSet> availableSlots = new HashMap<ICourse, BitSet>();
 
 	private final Map<ICourse, Integer> availablePeriodsCount = new HashMap<ICourse, Integer>();
 
@@ -25,16 +34,27 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 
 	private final ICourse[] schedule;
 
-	private boolean calculateSlots = true;
+	/**
+	 * The courses of the current set which have not been returned as most
+	 * critical course yet, keyed by their number of available slots.
+	 */
+	private final BucketQueue priorityQueue;
 
-	private final List<ICourse> priorityList = new ArrayList<ICourse>();
+	/**
+	 * The set most recently passed to {@link #getMostCriticalEvent(Set)} or
+	 * <tt>null</tt> if the available slots have to be recalculated.
+	 */
+	private Set<ICourse> currentCourses;
 
-	public SlowAssignmentAlgorithm(final IProblemInstance instance) {
+	public SlowAssignmentAlgorithm(final IProblemInstance instance,
+			final Random random) {
 
 		this.instance = instance;
+		this.random = random;
 		final int slots = instance.getNumberOfPeriods()
 				* instance.getNumberOfRooms();
 		schedule = new ICourse[slots];
+		priorityQueue = new BucketQueue(instance.getCourses().size(), slots);
 
 		for (int i = 0; i < instance.getNumberOfPeriods(); i++) {
 			curriculaInPeriod.add(new HashSet<ICurriculum>());
@@ -48,6 +68,11 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 	 * assigned to without violating any hard constraints. This course is called
 	 * the most critical course. Note that there can be more than one courses
 	 * which are critical, i.e. which have the same amount of available slots.
+	 * In this case one of them is chosen randomly.
+	 * <p>
+	 * The available slots are only calculated from scratch when a new set of
+	 * courses is passed or courses have been removed from the schedule.
+	 * Otherwise they are kept up to date by the assignments.
 	 * 
 	 * @param courses
 	 *            the (sub)set of unassigned courses
@@ -60,18 +85,13 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 		 * recalculate available slots for each course in the given set if
 		 * necessary
 		 */
-		if (calculateSlots) {
+		if ((courses != currentCourses)
+				|| (priorityQueue.size() != courses.size())) {
 			calculateSlots(courses);
 		}
 
-		final ICourse critical = priorityList.get(0);
-		priorityList.remove(0);
-
-		if (priorityList.isEmpty()) {
-			calculateSlots = true;
-		}
-
-		return critical;
+		return instance.getInstanceTables().getCourse(
+				priorityQueue.pollMin(random));
 	}
 
 	/**
@@ -84,14 +104,17 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 	 */
 	public void assignRandomViableSlots(final ICourse course) {
 
+		final BitSet slots = availableSlots.get(course);
+
 		for (int i = 0; i < course.getNumberOfLectures(); i++) {
 
 			/*
-			 * randomize the order of the available viable slots
+			 * pick a random one of the available viable slots
 			 */
-			final List<Integer> slots = availableSlots.get(course);
-			java.util.Collections.shuffle(slots);
-			final int randomSlot = slots.get(0);
+			int randomSlot = slots.nextSetBit(0);
+			for (int n = random.nextInt(slots.cardinality()); n > 0; n--) {
+				randomSlot = slots.nextSetBit(randomSlot + 1);
+			}
 			schedule[randomSlot] = course;
 
 			/*
@@ -102,34 +125,111 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 			curriculaInPeriod.get(period).addAll(course.getCurricula());
 			teachersInPeriod.get(period).add(course.getTeacher());
 
+			updateSlots(course, randomSlot);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The available slots are recalculated on the next call of
+	 * {@link #getMostCriticalEvent(Set)}.
+	 */
+	public void assignLecture(final ICourse course, final int period,
+			final int room) {
+		schedule[period * instance.getNumberOfRooms() + room] = course;
+		curriculaInPeriod.get(period).addAll(course.getCurricula());
+		teachersInPeriod.get(period).add(course.getTeacher());
+		currentCourses = null;
+	}
+
+	/**
+	 * This method updates the available slots of the given course and of all
+	 * courses of the current set which have not been assigned yet after the
+	 * given course has been assigned to the given slot. The slot is not
+	 * available anymore and courses sharing a curriculum or the teacher with
+	 * the given course (including the course itself) cannot be assigned to the
+	 * period of the slot anymore.
+	 * 
+	 * @param course
+	 *            the course which has been assigned
+	 * @param slot
+	 *            the slot the course has been assigned to
+	 */
+	private void updateSlots(final ICourse course, final int slot) {
+
+		final int period = getPeriodForSlot(slot);
+		final int periodStart = period * instance.getNumberOfRooms();
+		final int periodEnd = periodStart + instance.getNumberOfRooms();
+		final int c = course.getUniqueNumber();
+
+		for (final Map.Entry<ICourse, BitSet> entry : availableSlots.entrySet()) {
+			final ICourse other = entry.getKey();
+			final int o = other.getUniqueNumber();
+			if ((other != course) && !priorityQueue.contains(o)) {
+				continue;
+			}
+
+			final BitSet slots = entry.getValue();
+			final boolean hadPeriod = hasSlotInPeriod(slots, periodStart,
+					periodEnd);
+			if ((other == course)
+					|| instance.getInstanceTables().isConflicting(c, o)) {
+				slots.clear(periodStart, periodEnd);
+			} else {
+				slots.clear(slot);
+			}
+
 			/*
-			 * several viable slots for the given course can be in the same
-			 * period. After assignment the slots in the same periods have to be
-			 * removed as otherwise hard constraints would be violated on
-			 * assignment
+			 * the period is lost if no slot of the period is left
 			 */
-			final List<Integer> remainingSlots = new ArrayList<Integer>();
-
-			for (final int slot : slots) {
-				if (period != getPeriodForSlot(slot)) {
-					remainingSlots.add(slot);
-				}
+			if (hadPeriod && !hasSlotInPeriod(slots, periodStart, periodEnd)) {
+				availablePeriodsCount.put(other, availablePeriodsCount
+						.get(other) - 1);
 			}
+			priorityQueue.updateKey(o, slots.cardinality());
+		}
+	}
 
-			availableSlots.put(course, remainingSlots);
+	private boolean hasSlotInPeriod(final BitSet slots, final int periodStart,
+			final int periodEnd) {
+		final int next = slots.nextSetBit(periodStart);
+		return (next >= 0) && (next < periodEnd);
+	}
+
+	/**
+	 * This method removes all lectures of the given course from the schedule.
+	 * Since no two courses sharing a curriculum or the teacher are assigned to
+	 * the same period, the curricula and the teacher of the course can be
+	 * removed from the periods the course was assigned to.
+	 * 
+	 * @param course
+	 *            the course which will be removed from the schedule
+	 */
+	public void unassignCourse(final ICourse course) {
+
+		for (int slot = 0; slot < schedule.length; slot++) {
+
+			if (schedule[slot] == course) {
+				schedule[slot] = null;
+				final int period = getPeriodForSlot(slot);
+				curriculaInPeriod.get(period).removeAll(course.getCurricula());
+				teachersInPeriod.get(period).remove(course.getTeacher());
+			}
 		}
 
-		/*
-		 * changes to the schedule were done so the data for available slots is
-		 * stale now and requires recalculation
-		 */
-		calculateSlots = true;
+		currentCourses = null;
+	}
+
+	public ICourse getAssignedCourse(final int period, final int room) {
+		return schedule[period * instance.getNumberOfRooms() + room];
 	}
 
 	/**
 	 * This method returns the two dimensional array representing the coding for
 	 * the assignment of courses to periods and rooms. It does *not* guarantee
-	 * that the solution is viable in any way.
+	 * that the solution is viable in any way. The rooms of each period are
+	 * assigned so that the room capacity penalty is minimal.
 	 * 
 	 * @return the coding of the current schedule
 	 */
@@ -145,6 +245,13 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 				coding[i][j] = schedule[x];
 				x++;
 			}
+
+			/*
+			 * the courses of each period are moved to the rooms fitting their
+			 * number of students best
+			 */
+			RoomAssignmentUtil.assignRoomsByCapacity(coding[i], instance
+					.getInstanceTables());
 		}
 
 		return coding;
@@ -166,17 +273,21 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 	 * This method calculates for each course in the given set to which slots
 	 * the course can be potentially assigned to without violating hard
 	 * constraints. It also keeps track how many viable periods the set of slots
-	 * represent.
+	 * represent and puts all courses into the priority queue.
 	 * 
 	 * @param courses
 	 *            the set of courses for which the viable slots are calculated
 	 */
 	private void calculateSlots(final Set<ICourse> courses) {
 
-		reset(courses);
+		availableSlots.clear();
+		availablePeriodsCount.clear();
+		priorityQueue.clear();
 
 		for (final ICourse course : courses) {
 
+			final BitSet slots = new BitSet(schedule.length);
+			int periodCount = 0;
 			int slot = 0;
 
 			while (slot < schedule.length) {
@@ -189,23 +300,22 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 
 					while (slot < periodEnd) {
 						if (schedule[slot] == null) {
-							availableSlots.get(course).add(slot);
+							slots.set(slot);
 						}
 
 						slot++;
 					}
 
-					int periodCount = availablePeriodsCount.get(course);
 					periodCount++;
-					availablePeriodsCount.put(course, periodCount);
 				}
 			}
-		}
 
-		addMissingCourses(courses);
-		sortPriorityList();
+			availableSlots.put(course, slots);
+			availablePeriodsCount.put(course, periodCount);
+			priorityQueue.add(course.getUniqueNumber(), slots.cardinality());
+		}
 
-		calculateSlots = false;
+		currentCourses = courses;
 	}
 
 	/**
@@ -294,7 +404,8 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 	 */
 	private boolean violatesUnavailabilityConstraints(final ICourse course,
 			final int period) {
-		return instance.getUnavailabilityConstraints(course).contains(period);
+		return instance.getInstanceTables().isUnavailable(
+				course.getUniqueNumber(), period);
 	}
 
 	/**
@@ -324,77 +435,6 @@ public class SlowAssignmentAlgorithm implements GeneratorAlgorithm {
 		return true;
 	}
 
-	/**
-	 * This method complements the priority list by all courses for which no
-	 * valid slot could be found.
-	 * 
-	 * @param courses
-	 *            the (sub)set of unassigned courses
-	 */
-	private void addMissingCourses(final Set<ICourse> courses) {
-
-		for (final ICourse course : courses) {
-
-			if (!availablePeriodsCount.keySet().contains(course)) {
-				availablePeriodsCount.put(course, 0);
-			}
-		}
-	}
-
-	/**
-	 * This method sorts the priority list in accordance to the amount of
-	 * available slots. The course with the least amount of available slots is
-	 * stored in the first (i.e. 0) position.
-	 */
-	private void sortPriorityList() {
-		// TODO better performing sorting algorithm than Bubblesort
-
-		boolean changed = true;
-
-		while (changed) {
-
-			changed = false;
-
-			for (int i = 0; i < priorityList.size() - 1; i++) {
-
-				final int slotCount_1 = availableSlots.get(priorityList.get(i))
-						.size();
-
-				final int slotCount_2 = availableSlots.get(
-						priorityList.get(i + 1)).size();
-
-				if (slotCount_1 > slotCount_2) {
-					final ICourse course_1 = priorityList.get(i);
-					final ICourse course_2 = priorityList.get(i + 1);
-					priorityList.set(i, course_2);
-					priorityList.set(i + 1, course_1);
-
-					changed = true;
-				}
-			}
-		}
-	}
-
-	/**
-	 * This method resets the internal memory which is used for calculating
-	 * available slots and periods for the given set of courses.
-	 * 
-	 * @param courses
-	 *            the (sub)set of unassigned courses for which available slots
-	 *            and periods will be calculated
-	 */
-	private void reset(final Set<ICourse> courses) {
-		priorityList.clear();
-		priorityList.addAll(courses);
-		availableSlots.clear();
-		availablePeriodsCount.clear();
-
-		for (final ICourse course : courses) {
-			availableSlots.put(course, new ArrayList<Integer>());
-			availablePeriodsCount.put(course, 0);
-		}
-	}
-
 	@Override
 	public boolean isAssignable(final ICourse course) {
 		return availablePeriodsCount.get(course) >= course
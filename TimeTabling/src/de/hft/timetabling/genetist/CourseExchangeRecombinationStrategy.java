@@ -1,18 +1,16 @@
 package de.hft.timetabling.genetist;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
 import java.util.Set;
 
 import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.main.Main;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.ServiceLocator;
-import de.hft.timetabling.util.HardConstraintUtil;
-import de.hft.timetabling.util.PeriodUtil;
+import de.hft.timetabling.util.BitSetUtil;
 
 /**
  * This recombination strategy performs recombination by taking one half of all
@@ -44,6 +42,23 @@ import de.hft.timetabling.util.PeriodUtil;
 public final class CourseExchangeRecombinationStrategy extends
 		RecombinationStrategy {
 
+	/** Creates new instances of this strategy. */
+	public static final RecombinationStrategyFactory FACTORY = new RecombinationStrategyFactory() {
+
+		@Override
+		public RecombinationStrategy createStrategy() {
+			return new CourseExchangeRecombinationStrategy();
+		}
+
+		@Override
+		public String getStrategyName() {
+			return NAME;
+		}
+
+	};
+
+	private static final String NAME = "Course Exchange v8";
+
 	/** Value between 0.0 and 1.0. */
 	private static final double START_MUTATION_PROBABILITY = 0.05;
 
@@ -54,24 +69,54 @@ public final class CourseExchangeRecombinationStrategy extends
 
 	private static final int SOLUTION_TABLE_SIZE = 50;
 
+	/**
+	 * Probability of a Kempe chain interchange as part of a mutation if
+	 * enabled by {@link Main#kempeChainMutation}, see
+	 * {@link #mutateKempeChain(ISolution)}.
+	 */
+	private static final double KEMPE_CHAIN_PROBABILITY = 0.1;
+
+	/**
+	 * The mutation operators chosen by the bandit if the adaptive operator
+	 * selection is enabled, see {@link Main#adaptiveOperators}.
+	 */
+	private static final int NO_MUTATION = 0;
+
+	private static final int ROOM_STABILITY = 1;
+
+	private static final int COURSE_ISOLATION = 2;
+
+	private static final int KEMPE_CHAIN = 3;
+
+	private final OperatorBandit bandit = new OperatorBandit(4);
+
 	private double mutationProbability;
 
 	private int minEliminationAge;
 
 	/**
-	 * List of lectures that could not be assigned during the first step of the
-	 * algorithm.
+	 * Lectures that could not be assigned during the first step of the
+	 * algorithm, packed by {@link #pack(int, int, int)}. Only the first
+	 * <tt>numberOfNotAssignedLectures</tt> entries are valid. The buffer is
+	 * reused for all recombinations.
 	 */
-	private final List<Lecture> notAssignedLectures;
-
-	/** Set of courses that shall be provided by solution 1. */
-	private final Set<ICourse> courses1;
+	private long[] notAssignedLectures = new long[64];
 
-	/** Set of courses that shall be provided by solution 2. */
-	private final Set<ICourse> courses2;
+	private int numberOfNotAssignedLectures;
 
+	/**
+	 * The instance the course partition and the buffers have been set up for.
+	 */
 	private IProblemInstance instance;
 
+	private InstanceTables tables;
+
+	/** Bit set of the courses that shall be provided by solution 1. */
+	private long[] courses1;
+
+	/** Index of the free slots and assigned courses of the child. */
+	private FreeSlotIndex freeSlots;
+
 	private ICourse[][] solution1Coding;
 
 	private ICourse[][] solution2Coding;
@@ -79,35 +124,26 @@ public final class CourseExchangeRecombinationStrategy extends
 	/** The coding that is being build during the algorithm. */
 	private ICourse[][] childCoding;
 
-	public CourseExchangeRecombinationStrategy() {
-		courses1 = new HashSet<ICourse>();
-		courses2 = new HashSet<ICourse>();
-		notAssignedLectures = new LinkedList<Lecture>();
-	}
-
 	@Override
 	protected void reset() {
-		instance = null;
-		courses1.clear();
-		courses2.clear();
 		solution1Coding = null;
 		solution2Coding = null;
 		childCoding = null;
-		notAssignedLectures.clear();
+		numberOfNotAssignedLectures = 0;
 	}
 
 	@Override
 	public ISolution recombine(final ISolution solution1,
 			final ISolution solution2) {
-		instance = solution1.getProblemInstance();
+		if (solution1.getProblemInstance() != instance) {
+			setUp(solution1.getProblemInstance());
+		}
 		solution1Coding = solution1.getCoding();
 		solution2Coding = solution2.getCoding();
 
-		final int nrPeriods = instance.getNumberOfPeriods();
-		final int nrRooms = instance.getNumberOfRooms();
-		childCoding = new ICourse[nrPeriods][nrRooms];
-
-		determineCourseSets();
+		childCoding = new ICourse[tables.getNumberOfPeriods()][tables
+				.getNumberOfRooms()];
+		freeSlots.clear();
 
 		performRecombination();
 
@@ -121,71 +157,70 @@ public final class CourseExchangeRecombinationStrategy extends
 		return childSolution;
 	}
 
-	/** Determines the course sets that will be provided by each solution. */
-	private void determineCourseSets() {
-		final Set<ICourse> allCourses = instance.getCourses();
-		final int halfSize = allCourses.size() / 2;
+	/**
+	 * Prepares the strategy for recombining solutions of the given instance.
+	 * Determines the course sets that will be provided by each solution: the
+	 * first half of the courses is taken from solution 1, the rest from
+	 * solution 2.
+	 */
+	private void setUp(final IProblemInstance instance) {
+		this.instance = instance;
+		tables = instance.getInstanceTables();
+		final int nrCourses = tables.getNumberOfCourses();
+		courses1 = BitSetUtil.create(nrCourses);
+		final int halfSize = nrCourses / 2;
 		int i = 0;
-		for (final ICourse course : allCourses) {
+		for (final ICourse course : instance.getCourses()) {
 			if (i < halfSize) {
-				courses1.add(course);
-			} else {
-				courses2.add(course);
+				BitSetUtil.set(courses1, course.getUniqueNumber());
 			}
 			i++;
 		}
+		freeSlots = new FreeSlotIndex(tables);
 	}
 
 	/** Executes the first step of the recombination. */
 	private void performRecombination() {
-		for (int period = 0; period < instance.getNumberOfPeriods(); period++) {
-			for (int room = 0; room < instance.getNumberOfRooms(); room++) {
+		for (int period = 0; period < childCoding.length; period++) {
+			for (int room = 0; room < childCoding[period].length; room++) {
 
 				ICourse solution1Course = solution1Coding[period][room];
 				ICourse solution2Course = solution2Coding[period][room];
 
-				// 1) No lecture in this slot at all.
-				if ((solution1Course == null) && (solution2Course == null)) {
-					continue;
-				}
-
 				/*
 				 * If a course of a solution is not part of the courses assigned
 				 * to this solution then we are not interested in that course.
 				 */
-				if (solution1Course != null) {
-					if (!(courses1.contains(solution1Course))) {
-						solution1Course = null;
-					}
+				if ((solution1Course != null)
+						&& !BitSetUtil.get(courses1, solution1Course
+								.getUniqueNumber())) {
+					solution1Course = null;
 				}
-				if (solution2Course != null) {
-					if (!(courses2.contains(solution2Course))) {
-						solution2Course = null;
-					}
+				if ((solution2Course != null)
+						&& BitSetUtil.get(courses1, solution2Course
+								.getUniqueNumber())) {
+					solution2Course = null;
 				}
 
-				// 2) There are no relevant courses in this slot.
+				// 1) There are no relevant courses in this slot.
 				if ((solution1Course == null) && (solution2Course == null)) {
 					continue;
 				}
 
-				// 3) Relevant assignment only in solution 1.
-				if ((solution1Course != null) && (solution2Course == null)) {
+				// 2) Relevant assignment only in solution 1.
+				if (solution2Course == null) {
 					recombineOne(solution1Course, period, room);
 					continue;
 				}
 
-				// 4) Relevant assignment only in solution 2.
-				if ((solution1Course == null) && (solution2Course != null)) {
+				// 3) Relevant assignment only in solution 2.
+				if (solution1Course == null) {
 					recombineOne(solution2Course, period, room);
 					continue;
 				}
 
-				// 5) Relevant assignments in both solutions.
-				if ((solution1Course != null) && (solution2Course != null)) {
-					recombineTwo(solution1Course, solution2Course, period, room);
-					continue;
-				}
+				// 4) Relevant assignments in both solutions.
+				recombineTwo(solution1Course, solution2Course, period, room);
 			}
 		}
 	}
@@ -198,8 +233,7 @@ public final class CourseExchangeRecombinationStrategy extends
 			final int room) {
 		final boolean success = assign(course, period, room);
 		if (!(success)) {
-			final Lecture lecture = new Lecture(course, period, room);
-			notAssignedLectures.add(lecture);
+			addNotAssignedLecture(course, period, room);
 		}
 	}
 
@@ -211,102 +245,108 @@ public final class CourseExchangeRecombinationStrategy extends
 
 		ICourse courseToAssign = solution1Course;
 		ICourse courseNotAssigned = solution2Course;
-		final Random random = new Random();
-		if (random.nextBoolean()) {
+		if (getRandom().nextBoolean()) {
 			courseToAssign = solution2Course;
 			courseNotAssigned = solution1Course;
 		}
 
 		final boolean success = assign(courseToAssign, period, room);
 		if (success) {
-			notAssignedLectures
-					.add(new Lecture(courseNotAssigned, period, room));
+			addNotAssignedLecture(courseNotAssigned, period, room);
 		} else {
-			notAssignedLectures.add(new Lecture(courseToAssign, period, room));
+			addNotAssignedLecture(courseToAssign, period, room);
 			final boolean successOther = assign(courseNotAssigned, period, room);
 			if (!(successOther)) {
-				notAssignedLectures.add(new Lecture(courseNotAssigned, period,
-						room));
+				addNotAssignedLecture(courseNotAssigned, period, room);
 			}
 		}
 	}
 
+	private void addNotAssignedLecture(final ICourse course, final int period,
+			final int room) {
+		if (numberOfNotAssignedLectures == notAssignedLectures.length) {
+			notAssignedLectures = Arrays.copyOf(notAssignedLectures,
+					2 * notAssignedLectures.length);
+		}
+		notAssignedLectures[numberOfNotAssignedLectures++] = pack(course
+				.getUniqueNumber(), period, room);
+	}
+
+	/**
+	 * Packs the given course, period and room into one entry of the not
+	 * assigned lectures buffer.
+	 */
+	private static long pack(final int course, final int period,
+			final int room) {
+		return ((long) course << 32) | ((long) period << 16) | room;
+	}
+
+	private static int unpackCourse(final long lecture) {
+		return (int) (lecture >>> 32);
+	}
+
+	private static int unpackPeriod(final long lecture) {
+		return (int) ((lecture >>> 16) & 0xFFFF);
+	}
+
 	/**
 	 * Attempts to assign those lectures that could not be assigned during the
 	 * recombination process. If at least one lecture cannot be assigned,
 	 * <tt>false</tt> is returned.
 	 */
 	private boolean assignNotAssignedLectures() {
-		for (final Lecture lecture : notAssignedLectures) {
-			final ICourse course = lecture.getCourse();
-			final TimeTableSlot slot = lecture.getSlot();
+		for (int i = 0; i < numberOfNotAssignedLectures; i++) {
+			final long lecture = notAssignedLectures[i];
+			final ICourse course = tables.getCourse(unpackCourse(lecture));
+			final int period = unpackPeriod(lecture);
 
 			/*
 			 * First try to assign the lecture to another room in the same
 			 * period.
 			 */
-			if (assignToFreeValidSlotInPeriod(slot.getPeriod(), course)) {
+			if (assignToFreeValidSlotInPeriod(period, course)) {
 				continue;
 			}
 
-			final TimeTableSlot newSlot = findNearestFreeValidSlot(slot, course);
-			if (newSlot == null) {
+			final int newPeriod = findNearestFreeValidPeriod(period, course
+					.getUniqueNumber());
+			if (newPeriod < 0) {
 				return false;
 			}
-			safeAssign(course, newSlot);
+			assignToFreeValidSlotInPeriod(newPeriod, course);
 		}
 		return true;
 	}
 
-	private TimeTableSlot findNearestFreeValidSlot(
-			final TimeTableSlot baseSlot, final ICourse course) {
+	/**
+	 * Returns the nearest period in either direction in which the given
+	 * course can be assigned to some room or <tt>-1</tt> if there is none.
+	 */
+	private int findNearestFreeValidPeriod(final int basePeriod,
+			final int course) {
 
-		final TimeTableSlot nextFree = findNextFreeValidSlot(baseSlot, course,
+		final int nextFree = freeSlots.findNextValidPeriod(course, basePeriod,
 				true);
-		if (nextFree == null) {
-			return null;
+		if (nextFree < 0) {
+			return -1;
 		}
-		final TimeTableSlot previousFree = findNextFreeValidSlot(baseSlot,
-				course, false);
-		if (Math.abs(baseSlot.getPeriod() - nextFree.getPeriod()) > Math
-				.abs(baseSlot.getPeriod() - previousFree.getPeriod())) {
+		final int previousFree = freeSlots.findNextValidPeriod(course,
+				basePeriod, false);
+		if (Math.abs(basePeriod - nextFree) > Math.abs(basePeriod
+				- previousFree)) {
 			return previousFree;
 		}
 		return nextFree;
 	}
 
-	private TimeTableSlot findNextFreeValidSlot(final TimeTableSlot baseSlot,
-			final ICourse course, final boolean directionNext) {
-
-		final int startPeriod = baseSlot.getPeriod();
-		final int numberOfPeriods = instance.getNumberOfPeriods();
-		int nextPeriod = directionNext ? PeriodUtil.getNextPeriod(startPeriod,
-				numberOfPeriods) : PeriodUtil.getPreviousPeriod(startPeriod,
-				numberOfPeriods);
-		while (!(nextPeriod == startPeriod)) {
-			for (int room = 0; room < instance.getNumberOfRooms(); room++) {
-				if (isValidToAssign(course, nextPeriod, room)) {
-					return new TimeTableSlot(nextPeriod, room);
-				}
-			}
-			nextPeriod = directionNext ? PeriodUtil.getNextPeriod(nextPeriod,
-					numberOfPeriods) : PeriodUtil.getPreviousPeriod(nextPeriod,
-					numberOfPeriods);
-		}
-		return null;
-	}
-
 	/** Tries to assign the given course to some room in the given period. */
 	private boolean assignToFreeValidSlotInPeriod(final int period,
 			final ICourse course) {
-		boolean success = false;
-		for (int room = 0; room < childCoding[period].length; room++) {
-			success = assign(course, period, room);
-			if (success) {
-				break;
-			}
+		final int room = freeSlots.getFirstFreeRoom(period);
+		if (room < 0) {
+			return false;
 		}
-		return success;
+		return assign(course, period, room);
 	}
 
 	/**
@@ -318,23 +358,13 @@ public final class CourseExchangeRecombinationStrategy extends
 	private boolean assign(final ICourse course, final int period,
 			final int room) {
 		if (isValidToAssign(course, period, room)) {
-			safeAssign(course, new TimeTableSlot(period, room));
+			childCoding[period][room] = course;
+			freeSlots.assign(course.getUniqueNumber(), period, room);
 			return true;
 		}
 		return false;
 	}
 
-	/**
-	 * This method is based on the assumption that it is called only when it is
-	 * safe to assign the given course to the given slot.
-	 */
-	private void safeAssign(final ICourse course, final TimeTableSlot slot) {
-		if (course == null) {
-			throw new NullPointerException();
-		}
-		childCoding[slot.getPeriod()][slot.getRoom()] = course;
-	}
-
 	/**
 	 * Checks if it is possible to assign the given course to the given period
 	 * and room without violating any hard constraints or overwriting an
@@ -342,33 +372,74 @@ public final class CourseExchangeRecombinationStrategy extends
 	 */
 	private boolean isValidToAssign(final ICourse course, final int period,
 			final int room) {
-		if (childCoding[period][room] != null) {
-			return false;
-		}
-		final boolean teacherViolated = HardConstraintUtil
-				.existsTeacherInPeriod(childCoding, course.getTeacher(), period);
-		final boolean curriculaViolated = HardConstraintUtil
-				.existsCurriculaInPeriod(childCoding, course.getCurricula(),
-						period);
-		final boolean unavailabilityConstraintViolated = HardConstraintUtil
-				.existsUnavailabilityConstraint(course, period);
-		return !(teacherViolated || unavailabilityConstraintViolated || curriculaViolated);
+		return freeSlots.isFree(period, room)
+				&& freeSlots.isValidPeriod(course.getUniqueNumber(), period);
 	}
 
+	/**
+	 * Mutates the child with a mutation probability rising over time. With
+	 * the adaptive operator selection, the bandit chooses one operator per
+	 * child instead. The operator is rewarded by the penalty it removed per
+	 * nanosecond it took, measured before the local search.
+	 */
 	@Override
 	protected ISolution mutate(ISolution recombinedSolution) {
-		if (Math.random() < mutationProbability) {
-			recombinedSolution = MutationOperators
-					.mutateRoomStability(recombinedSolution);
-			final double randomValue = Math.random();
+		if (Main.adaptiveOperators) {
+			final int operator = bandit.select();
+			final int penaltyBefore = evaluate(recombinedSolution);
+			final long startNanos = System.nanoTime();
+			final ISolution mutatedSolution = applyOperator(operator,
+					recombinedSolution);
+			final long nanos = Math.max(1, System.nanoTime() - startNanos);
+			final int improvement = (mutatedSolution == null) ? 0
+					: penaltyBefore - evaluate(mutatedSolution);
+			bandit.reward(operator, Math.max(0, improvement) / (double) nanos);
+			return mutatedSolution;
+		}
+		if (getRandom().nextDouble() < mutationProbability) {
+			recombinedSolution = MutationOperators.mutateRoomStability(
+					recombinedSolution, getRandom());
+			final double randomValue = getRandom().nextDouble();
 			if (randomValue < 0.05) {
-				recombinedSolution = MutationOperators
-						.mutateCourseIsolation(recombinedSolution);
+				recombinedSolution = MutationOperators.mutateCourseIsolation(
+						recombinedSolution, getRandom());
+			} else if (Main.kempeChainMutation
+					&& (randomValue < 0.05 + KEMPE_CHAIN_PROBABILITY)) {
+				recombinedSolution = mutateKempeChain(recombinedSolution);
 			}
 		}
 		return recombinedSolution;
 	}
 
+	private ISolution applyOperator(final int operator,
+			final ISolution recombinedSolution) {
+		switch (operator) {
+		case ROOM_STABILITY:
+			return MutationOperators.mutateRoomStability(recombinedSolution,
+					getRandom());
+		case COURSE_ISOLATION:
+			return MutationOperators.mutateCourseIsolation(
+					recombinedSolution, getRandom());
+		case KEMPE_CHAIN:
+			return mutateKempeChain(recombinedSolution);
+		case NO_MUTATION:
+		default:
+			return recombinedSolution;
+		}
+	}
+
+	/**
+	 * Improves the child by hill climbing for {@link Main#localSearchSteps}
+	 * steps and by room reassignment.
+	 */
+	@Override
+	protected void improve(final ISolution solution) {
+		if (Main.localSearchSteps > 0) {
+			climb(solution, Main.localSearchSteps);
+		}
+		reassignRooms(solution);
+	}
+
 	@Override
 	protected void configure() {
 		final ISolutionTableService solutionTable = ServiceLocator
@@ -376,26 +447,23 @@ public final class CourseExchangeRecombinationStrategy extends
 		solutionTable.setMaximumSize(SOLUTION_TABLE_SIZE);
 	}
 
+	/**
+	 * The parameters are computed from the iteration alone, so iterations may
+	 * be skipped or repeated when the schedule follows the elapsed time.
+	 */
 	@Override
 	protected void newInterationStarted(final int iteration,
 			final int totalIterations) {
-		if (iteration == 1) {
-			mutationProbability = START_MUTATION_PROBABILITY;
-			minEliminationAge = START_MIN_ELIMINATION_AGE;
-		}
-
-		if (iteration % (totalIterations / 6) == 0) {
-			minEliminationAge--;
-		}
+		minEliminationAge = START_MIN_ELIMINATION_AGE
+				- (iteration / Math.max(1, totalIterations / 6));
 
 		/*
 		 * Slightly increasing the probability to mutate as the time goes on so
 		 * we explore new things. At some time we need to stop increasing the
 		 * probability however.
 		 */
-		if (mutationProbability < 0.42) {
-			mutationProbability += 0.0025;
-		}
+		mutationProbability = Math.min(0.42, START_MUTATION_PROBABILITY
+				+ (0.0025 * iteration));
 	}
 
 	@Override
@@ -411,7 +479,7 @@ public final class CourseExchangeRecombinationStrategy extends
 		 * a high recombination count. This way we want to avoid that the
 		 * solutions get too one-sided.
 		 */
-		if (Math.random() < 0.40) {
+		if (getRandom().nextDouble() < 0.40) {
 			final ISolution mostRecombinedSolution = getSolutionTable()
 					.getSolutionMostOftenRecombined();
 			/*
@@ -433,7 +501,7 @@ public final class CourseExchangeRecombinationStrategy extends
 
 	@Override
 	public String getName() {
-		return "Course Exchange v8";
+		return NAME;
 	}
 
 }
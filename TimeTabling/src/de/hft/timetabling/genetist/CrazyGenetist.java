@@ -3,8 +3,11 @@ package de.hft.timetabling.genetist;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import de.hft.timetabling.common.ISolution;
 import de.hft.timetabling.main.Main;
@@ -14,6 +17,8 @@ import de.hft.timetabling.services.ServiceLocator;
 
 /**
  * The CrazyGenetist is responsible for recombining and mutating solutions.
+ * Recombination and mutation are spread over all processors, each thread
+ * working with its own instance of the recombination strategy.
  * 
  * @author Steffen
  * @author Sotiris
@@ -21,24 +26,88 @@ import de.hft.timetabling.services.ServiceLocator;
  */
 public class CrazyGenetist implements ICrazyGenetistService {
 
+	private static final int NUMBER_OF_PROCESSORS = Runtime.getRuntime()
+			.availableProcessors();
+
+	private final ExecutorService exec;
+
+	/**
+	 * The strategy instance used for configuration and for the elimination
+	 * during the hand in. Recombination and mutation are done by the strategy
+	 * instances of the tasks.
+	 */
+	private final RecombinationStrategy strategy;
+
+	/** One task with its own strategy instance per thread. */
+	private final List<RecombinationTask> taskGroup = new ArrayList<RecombinationTask>();
+
 	public CrazyGenetist() {
-		RECOMBINATION_STRATEGY.configure();
+		this(NUMBER_OF_PROCESSORS);
+	}
+
+	/**
+	 * Creates a genetist spreading recombination and mutation over the given
+	 * number of threads.
+	 */
+	public CrazyGenetist(final int numberOfThreads) {
+		exec = Executors.newFixedThreadPool(numberOfThreads, ServiceLocator
+				.createBoundThreadFactory());
+		strategy = RECOMBINATION_STRATEGY_FACTORY.createStrategy();
+		strategy.configure();
+		for (int i = 0; i < numberOfThreads; i++) {
+			taskGroup.add(new RecombinationTask(RECOMBINATION_STRATEGY_FACTORY
+					.createStrategy()));
+		}
+	}
+
+	/**
+	 * Stops the threads of the genetist. It cannot be used anymore afterwards.
+	 */
+	public void shutdown() {
+		exec.shutdown();
 	}
 
 	@Override
 	public int getRecombinationPercentage() {
-		return RECOMBINATION_STRATEGY.getRecombinationPercentage();
+		return strategy.getRecombinationPercentage();
+	}
+
+	@Override
+	public String getRecombinationStrategyName() {
+		return strategy.getName();
 	}
 
 	/**
 	 * public Method to start recombination and mutation process. The solution
 	 * table will get from serviceLocator.getSolutionTableService(). The
 	 * Solutions that are recombined and mutated are chosen randomly.
+	 * <p>
+	 * Parent selection, recombination and mutation are done in parallel on all
+	 * processors, the parents are selected from the solutions in the table at
+	 * the start of the iteration. Afterwards the children are handed in to the
+	 * solution table one after the other. Unlike selecting the parents of each
+	 * child after the previous child has been handed in, parents may thus be
+	 * selected that are eliminated by the hand in of an earlier child of the
+	 * same iteration.
 	 */
 	@Override
 	public void recombineAndMutate(final int iteration,
 			final int totalIterations) {
-		RECOMBINATION_STRATEGY.newInterationStarted(iteration, totalIterations);
+		if (iteration == 1) {
+			/*
+			 * the streams are split on the calling thread in a fixed order so
+			 * that seeded runs are reproducible
+			 */
+			strategy.setRandom(Main.newRandomStream());
+			for (final RecombinationTask task : taskGroup) {
+				task.getStrategy().setRandom(Main.newRandomStream());
+				task.setRandom(Main.newRandomStream());
+			}
+		}
+		strategy.newInterationStarted(iteration, totalIterations);
+		for (final RecombinationTask task : taskGroup) {
+			task.getStrategy().newInterationStarted(iteration, totalIterations);
+		}
 		final ISolutionTableService solutionTable = ServiceLocator
 				.getInstance().getSolutionTableService();
 
@@ -46,107 +115,73 @@ public class CrazyGenetist implements ICrazyGenetistService {
 			return;
 		}
 
-		// The solutions ordered by rank (low to high, highest rank is best)
-		final List<ISolution> rankedSolutions = new ArrayList<ISolution>(
-				solutionTable.getSize(false));
-		for (int i = solutionTable.getSize(false) - 1; i >= 0; i--) {
-			rankedSolutions.add(solutionTable.getSolution(i));
-		}
+		// The solutions ordered from best to worst
+		final List<ISolution> rankedSolutions = solutionTable
+				.getRankedSolutions();
+		final ProportionalSelection selection = ProportionalSelection
+				.linearRanking(rankedSolutions.size());
 
 		final int nrRecombinations = (getRecombinationPercentage() * solutionTable
 				.getSize(false)) / 100;
-		for (int i = 0; i < nrRecombinations; i++) {
-
-			final int rankingSystemSlotSum = computeRankingSystemSlotSum(rankedSolutions);
-			ISolution firstParentSolution = null;
-			ISolution secondParentSolution = null;
-
-			while (((firstParentSolution == null)
-					|| (secondParentSolution == null) || firstParentSolution
-					.equals(secondParentSolution))
-					&& (rankedSolutions.size() > 2)) {
-
-				final Random random = new Random();
-				final int selectedSlot1 = random.nextInt(rankingSystemSlotSum) + 1;
-				final int rank1 = slotToRank(selectedSlot1, rankedSolutions
-						.size(), rankingSystemSlotSum);
-				firstParentSolution = rankedSolutions.get(rank1 - 1);
-				final int selectedSlot2 = random.nextInt(rankingSystemSlotSum) + 1;
-				final int rank2 = slotToRank(selectedSlot2, rankedSolutions
-						.size(), rankingSystemSlotSum);
-				secondParentSolution = rankedSolutions.get(rank2 - 1);
+		for (int i = 0; i < taskGroup.size(); i++) {
+			final int nrChildren = (nrRecombinations / taskGroup.size())
+					+ ((i < (nrRecombinations % taskGroup.size())) ? 1 : 0);
+			taskGroup.get(i).setUp(rankedSolutions, selection, nrChildren);
+		}
+
+		try {
+			final List<Future<List<Offspring>>> futureList = exec
+					.invokeAll(taskGroup);
+			final List<Offspring> offspring = new ArrayList<Offspring>(
+					nrRecombinations);
+			for (final Future<List<Offspring>> future : futureList) {
+				offspring.addAll(future.get());
 			}
+			handIn(offspring);
+		} catch (final InterruptedException e) {
+			e.printStackTrace();
+		} catch (final ExecutionException e) {
+			e.printStackTrace();
+		}
+	}
 
+	/**
+	 * Hands in the given children to the solution table in the order they
+	 * were created. For each child the strategy eliminates solutions to make
+	 * space. The children are handed in even if their parents have been
+	 * eliminated in the meantime. Stops as soon as not more than two of the
+	 * voted solutions are left.
+	 */
+	private void handIn(final List<Offspring> offspring) {
+		final ISolutionTableService solutionTable = ServiceLocator
+				.getInstance().getSolutionTableService();
+		for (final Offspring child : offspring) {
 			// Not enough solutions left due to elimination.
-			if ((firstParentSolution == null) || (secondParentSolution == null)) {
+			if (solutionTable.getSize(false) <= 2) {
 				break;
 			}
 
-			// Recombination
-			RECOMBINATION_STRATEGY.reset();
-			ISolution recombinedSolution = RECOMBINATION_STRATEGY.recombine(
-					firstParentSolution, secondParentSolution);
+			ISolution recombinedSolution = child.getRecombinedSolution();
 			if (recombinedSolution == null) {
 				Main.recombinationFailure++;
 				continue;
 			}
 			Main.recombinationSuccess++;
 
-			// Mutation
-			final ISolution mutatedSolution = RECOMBINATION_STRATEGY
-					.mutate(recombinedSolution);
-			if (mutatedSolution != null) {
-				recombinedSolution = mutatedSolution;
+			if (child.getMutatedSolution() != null) {
+				recombinedSolution = child.getMutatedSolution();
 				Main.mutationSuccess++;
 			} else {
 				Main.mutationFailure++;
 			}
 
-			// Hand in solution
-			firstParentSolution.increaseRecombinationCount();
-			secondParentSolution.increaseRecombinationCount();
+			child.getFirstParent().increaseRecombinationCount();
+			child.getSecondParent().increaseRecombinationCount();
 			final Set<ISolution> eliminatedSolutions = new HashSet<ISolution>();
-			RECOMBINATION_STRATEGY.eliminate(firstParentSolution,
-					secondParentSolution, eliminatedSolutions);
-			for (final ISolution eliminatedSolution : eliminatedSolutions) {
-				rankedSolutions.remove(eliminatedSolution);
-			}
+			strategy.eliminate(child.getFirstParent(), child.getSecondParent(),
+					eliminatedSolutions);
 			solutionTable.addSolution(recombinedSolution);
 		}
 	}
 
-	private int computeRankingSystemSlotSum(
-			final List<ISolution> rankedSolutions) {
-		int slotSum = 0;
-		for (int i = 1; i <= rankedSolutions.size(); i++) {
-			slotSum += i;
-		}
-		return slotSum;
-	}
-
-	/**
-	 * Returns the rank that the given slot is assigned to.
-	 * 
-	 * @param slot
-	 *            A rank consists of as many slots as the rank number is. For
-	 *            example, rank 100 has 100 slots.
-	 * @param nrSolutions
-	 *            The number of solutions in total.
-	 * @param slotSum
-	 *            The sum of all slots.
-	 */
-	private int slotToRank(final int slot, final int nrSolutions,
-			final int slotSum) {
-		int rank = 1;
-		int currentSlotSum = 1;
-		while (rank <= nrSolutions) {
-			if (slot <= currentSlotSum) {
-				break;
-			}
-			rank++;
-			currentSlotSum += rank + 1;
-		}
-		return rank;
-	}
-
 }
@@ -0,0 +1,223 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Arrays;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.util.BitSetUtil;
+
+/**
+ * Index of the free slots of a coding under construction. For each period the
+ * empty rooms and the assigned courses are stored as bit sets, for each room
+ * the periods in which it is empty. A summary bit set contains the periods
+ * with at least one empty room.
+ * <p>
+ * Combined with the feasible periods and the conflicts of a course as provided
+ * by {@link InstanceTables}, finding the nearest period a course can be moved
+ * to takes a few word operations per candidate period instead of scanning all
+ * rooms of each period.
+ */
+final class FreeSlotIndex {
+
+	private final InstanceTables tables;
+
+	/** Bit set of the empty rooms per period. */
+	private final long[][] freeRooms;
+
+	/** Bit set of the periods in which the room is empty, per room. */
+	private final long[][] freePeriodsOfRoom;
+
+	/** Bit set of the periods with at least one empty room. */
+	private final long[] periodsWithFreeRoom;
+
+	/** Bit set of the courses assigned to each period. */
+	private final long[][] periodCourses;
+
+	FreeSlotIndex(final InstanceTables tables) {
+		this.tables = tables;
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		final int numberOfRooms = tables.getNumberOfRooms();
+		freeRooms = new long[numberOfPeriods][BitSetUtil
+				.getNumberOfWords(numberOfRooms)];
+		freePeriodsOfRoom = new long[numberOfRooms][BitSetUtil
+				.getNumberOfWords(numberOfPeriods)];
+		periodsWithFreeRoom = BitSetUtil.create(numberOfPeriods);
+		periodCourses = new long[numberOfPeriods][BitSetUtil
+				.getNumberOfWords(tables.getNumberOfCourses())];
+		clear();
+	}
+
+	/** Resets the index to an empty coding. */
+	void clear() {
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		final int numberOfRooms = tables.getNumberOfRooms();
+		for (int period = 0; period < numberOfPeriods; period++) {
+			BitSetUtil.setAll(freeRooms[period], numberOfRooms);
+			Arrays.fill(periodCourses[period], 0L);
+		}
+		for (int room = 0; room < numberOfRooms; room++) {
+			BitSetUtil.setAll(freePeriodsOfRoom[room], numberOfPeriods);
+		}
+		BitSetUtil.setAll(periodsWithFreeRoom, numberOfPeriods);
+	}
+
+	/** Resets the index to the given coding. */
+	void build(final ICourse[][] coding) {
+		clear();
+		for (int period = 0; period < coding.length; period++) {
+			for (int room = 0; room < coding[period].length; room++) {
+				if (coding[period][room] != null) {
+					assign(coding[period][room].getUniqueNumber(), period, room);
+				}
+			}
+		}
+	}
+
+	/** Records that the given course has been assigned to the given slot. */
+	void assign(final int course, final int period, final int room) {
+		BitSetUtil.clear(freeRooms[period], room);
+		BitSetUtil.clear(freePeriodsOfRoom[room], period);
+		if (BitSetUtil.isEmpty(freeRooms[period])) {
+			BitSetUtil.clear(periodsWithFreeRoom, period);
+		}
+		BitSetUtil.set(periodCourses[period], course);
+	}
+
+	/**
+	 * Records that the given course has been removed from the given slot. The
+	 * course must not be assigned to another room of the period.
+	 */
+	void unassign(final int course, final int period, final int room) {
+		BitSetUtil.set(freeRooms[period], room);
+		BitSetUtil.set(freePeriodsOfRoom[room], period);
+		BitSetUtil.set(periodsWithFreeRoom, period);
+		BitSetUtil.clear(periodCourses[period], course);
+	}
+
+	boolean isFree(final int period, final int room) {
+		return BitSetUtil.get(freeRooms[period], room);
+	}
+
+	/**
+	 * Returns the lowest empty room of the given period or <tt>-1</tt> if all
+	 * rooms are occupied.
+	 */
+	int getFirstFreeRoom(final int period) {
+		return BitSetUtil.nextSetBit(freeRooms[period], 0);
+	}
+
+	/**
+	 * Returns whether the given course can be held in the given period without
+	 * violating any hard constraint, ignoring whether a room is free.
+	 */
+	boolean isValidPeriod(final int course, final int period) {
+		return !tables.isUnavailable(course, period)
+				&& isConflictFree(course, period);
+	}
+
+	/**
+	 * Returns the first period in the given direction, starting after the
+	 * given period and wrapping around, that has an empty room and in which
+	 * the given course can be held. Returns <tt>-1</tt> if there is none.
+	 */
+	int findNextValidPeriod(final int course, final int startPeriod,
+			final boolean directionNext) {
+		return findNext(periodsWithFreeRoom, course, startPeriod,
+				directionNext);
+	}
+
+	/**
+	 * Same as {@link #findNextValidPeriod(int, int, boolean)}, but only periods
+	 * in which the given room is empty are considered.
+	 */
+	int findNextValidPeriodOfRoom(final int course, final int startPeriod,
+			final int room, final boolean directionNext) {
+		return findNext(freePeriodsOfRoom[room], course, startPeriod,
+				directionNext);
+	}
+
+	private boolean isConflictFree(final int course, final int period) {
+		return !BitSetUtil.get(periodCourses[period], course)
+				&& !BitSetUtil.intersects(tables.getConflicts(course),
+						periodCourses[period]);
+	}
+
+	private int findNext(final long[] periods, final int course,
+			final int startPeriod, final boolean directionNext) {
+		final int numberOfPeriods = tables.getNumberOfPeriods();
+		if (directionNext) {
+			final int period = findForward(periods, course, startPeriod + 1,
+					numberOfPeriods);
+			return (period >= 0) ? period : findForward(periods, course, 0,
+					startPeriod);
+		}
+		final int period = findBackward(periods, course, 0, startPeriod);
+		return (period >= 0) ? period : findBackward(periods, course,
+				startPeriod + 1, numberOfPeriods);
+	}
+
+	/**
+	 * Returns the lowest valid period of the given candidates in
+	 * <tt>[from, to)</tt> or <tt>-1</tt>.
+	 */
+	private int findForward(final long[] periods, final int course,
+			final int from, final int to) {
+		if (from >= to) {
+			return -1;
+		}
+		final long[] feasible = tables.getFeasiblePeriods(course);
+		final int firstWord = from >>> 6;
+		final int lastWord = (to - 1) >>> 6;
+		for (int w = firstWord; w <= lastWord; w++) {
+			long word = periods[w] & feasible[w];
+			if (w == firstWord) {
+				word &= -1L << from;
+			}
+			if (w == lastWord) {
+				word &= -1L >>> (63 - ((to - 1) & 63));
+			}
+			while (word != 0) {
+				final int period = (w << 6) + Long.numberOfTrailingZeros(word);
+				if (isConflictFree(course, period)) {
+					return period;
+				}
+				// Drop the lowest set bit.
+				word &= word - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the highest valid period of the given candidates in
+	 * <tt>[from, to)</tt> or <tt>-1</tt>.
+	 */
+	private int findBackward(final long[] periods, final int course,
+			final int from, final int to) {
+		if (from >= to) {
+			return -1;
+		}
+		final long[] feasible = tables.getFeasiblePeriods(course);
+		final int firstWord = from >>> 6;
+		final int lastWord = (to - 1) >>> 6;
+		for (int w = lastWord; w >= firstWord; w--) {
+			long word = periods[w] & feasible[w];
+			if (w == firstWord) {
+				word &= -1L << from;
+			}
+			if (w == lastWord) {
+				word &= -1L >>> (63 - ((to - 1) & 63));
+			}
+			while (word != 0) {
+				final int bit = 63 - Long.numberOfLeadingZeros(word);
+				final int period = (w << 6) + bit;
+				if (isConflictFree(course, period)) {
+					return period;
+				}
+				word &= ~(1L << bit);
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,76 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.evaluator.IncrementalEvaluator;
+
+/**
+ * Bounded first-improvement hill climber for codings. Each step picks a random
+ * lecture and a random target slot. If the target slot is empty the lecture is
+ * moved there, otherwise the two lectures are swapped. Only hard constraint
+ * valid steps that strictly lower the penalty are kept. The penalty is updated
+ * incrementally by an {@link IncrementalEvaluator}.
+ * <p>
+ * The climber holds no state of its own besides its evaluator, which is
+ * reloaded with each coding. It is confined to one thread together with that
+ * evaluator.
+ */
+final class HillClimber {
+
+	private final IncrementalEvaluator evaluator;
+
+	HillClimber(final InstanceTables tables) {
+		evaluator = new IncrementalEvaluator(tables);
+	}
+
+	InstanceTables getInstanceTables() {
+		return evaluator.getInstanceTables();
+	}
+
+	/**
+	 * Improves the given coding in place and returns its penalty afterwards.
+	 * The coding must be hard constraint valid and contain all lectures.
+	 *
+	 * @param coding
+	 *            The coding to improve.
+	 * @param random
+	 *            The random stream of the calling thread.
+	 * @param maxSteps
+	 *            The number of steps to try.
+	 */
+	int climb(final ICourse[][] coding, final Random random,
+			final int maxSteps) {
+		evaluator.load(coding);
+		final int numberOfPeriods = coding.length;
+		final int numberOfRooms = getInstanceTables().getNumberOfRooms();
+		for (int step = 0; step < maxSteps; step++) {
+			final int period1 = random.nextInt(numberOfPeriods);
+			final int room1 = random.nextInt(numberOfRooms);
+			final int period2 = random.nextInt(numberOfPeriods);
+			final int room2 = random.nextInt(numberOfRooms);
+			final int penaltyBefore = evaluator.getPenalty();
+			if (evaluator.move(period1, room1, period2, room2)
+					&& (evaluator.getPenalty() >= penaltyBefore)) {
+				evaluator.move(period2, room2, period1, room1);
+			}
+		}
+		return evaluator.getPenalty();
+	}
+
+	/** Returns the penalty of the given coding without changing it. */
+	int evaluate(final ICourse[][] coding) {
+		evaluator.load(coding);
+		return evaluator.getPenalty();
+	}
+
+	/**
+	 * Returns the penalty of the coding most recently passed to climb or
+	 * evaluate.
+	 */
+	int getPenalty() {
+		return evaluator.getPenalty();
+	}
+
+}
@@ -0,0 +1,187 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Arrays;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.util.BitSetUtil;
+
+/**
+ * Kempe chain interchange between two periods. Starting from a single lecture
+ * of the first period, the chain collects all lectures of the second period
+ * conflicting with a lecture of the chain in the first period and vice versa,
+ * until no more lectures are added. Swapping the two parts of the chain
+ * between the periods keeps the conflict and the single lecture per course and
+ * period constraints satisfied by construction.
+ * <p>
+ * The chain is grown on bit sets of the courses per period and the conflict
+ * bit sets provided by {@link InstanceTables}, so each extension takes a few
+ * word operations per course of the chain.
+ * <p>
+ * The bit sets are scratch space overwritten by every swap, so a chain can
+ * serve any number of swaps, but only on one thread at a time.
+ */
+final class KempeChain {
+
+	private final InstanceTables tables;
+
+	/** Bit set of the courses assigned to the first and second period. */
+	private final long[] courses1;
+
+	private final long[] courses2;
+
+	/** Bit set of the courses of the chain in the first and second period. */
+	private final long[] chain1;
+
+	private final long[] chain2;
+
+	/** The lectures leaving the first and second period, by room. */
+	private final ICourse[] leaving1;
+
+	private final ICourse[] leaving2;
+
+	KempeChain(final InstanceTables tables) {
+		this.tables = tables;
+		final int numberOfCourses = tables.getNumberOfCourses();
+		courses1 = BitSetUtil.create(numberOfCourses);
+		courses2 = BitSetUtil.create(numberOfCourses);
+		chain1 = BitSetUtil.create(numberOfCourses);
+		chain2 = BitSetUtil.create(numberOfCourses);
+		leaving1 = new ICourse[tables.getNumberOfRooms()];
+		leaving2 = new ICourse[tables.getNumberOfRooms()];
+	}
+
+	InstanceTables getInstanceTables() {
+		return tables;
+	}
+
+	/**
+	 * Swaps the Kempe chain of the lecture in the given slot between the two
+	 * given periods, changing the rows of the two periods in place. The
+	 * lectures keep their rooms where possible and take the first empty room
+	 * otherwise. Returns <tt>false</tt> without changing the coding if a
+	 * lecture of the chain is unavailable in its target period or a period has
+	 * not enough rooms for the lectures entering it.
+	 * 
+	 * @param coding
+	 *            A hard constraint valid coding.
+	 * @param period1
+	 *            The period of the lecture to start from.
+	 * @param room1
+	 *            The room of the lecture to start from, must not be empty.
+	 * @param period2
+	 *            The period to swap with, must differ from the first period.
+	 */
+	boolean swap(final ICourse[][] coding, final int period1,
+			final int room1, final int period2) {
+		fill(courses1, coding[period1]);
+		fill(courses2, coding[period2]);
+		Arrays.fill(chain1, 0L);
+		Arrays.fill(chain2, 0L);
+		BitSetUtil.set(chain1, coding[period1][room1].getUniqueNumber());
+		while (extend(chain1, courses2, chain2)
+				| extend(chain2, courses1, chain1)) {
+			// Grow until both parts are closed under conflicts.
+		}
+
+		if (!isAvailable(chain1, period2) || !isAvailable(chain2, period1)) {
+			return false;
+		}
+		final int size1 = BitSetUtil.cardinality(chain1);
+		final int size2 = BitSetUtil.cardinality(chain2);
+		final int numberOfRooms = tables.getNumberOfRooms();
+		if ((BitSetUtil.cardinality(courses2) - size2 + size1 > numberOfRooms)
+				|| (BitSetUtil.cardinality(courses1) - size1 + size2 > numberOfRooms)) {
+			return false;
+		}
+
+		takeOut(coding[period1], chain1, leaving1);
+		takeOut(coding[period2], chain2, leaving2);
+		putIn(coding[period2], leaving1);
+		putIn(coding[period1], leaving2);
+		return true;
+	}
+
+	/**
+	 * Adds all candidates that are the same course as or conflict with a
+	 * course of the source to the target. Returns whether the target has grown.
+	 */
+	private boolean extend(final long[] source, final long[] candidates,
+			final long[] target) {
+		boolean grown = false;
+		for (int course = BitSetUtil.nextSetBit(source, 0); course >= 0; course = BitSetUtil
+				.nextSetBit(source, course + 1)) {
+			if (BitSetUtil.get(candidates, course)
+					&& !BitSetUtil.get(target, course)) {
+				BitSetUtil.set(target, course);
+				grown = true;
+			}
+			final long[] conflicts = tables.getConflicts(course);
+			for (int i = 0; i < target.length; i++) {
+				final long added = conflicts[i] & candidates[i] & ~target[i];
+				if (added != 0) {
+					target[i] |= added;
+					grown = true;
+				}
+			}
+		}
+		return grown;
+	}
+
+	private boolean isAvailable(final long[] chain, final int period) {
+		for (int course = BitSetUtil.nextSetBit(chain, 0); course >= 0; course = BitSetUtil
+				.nextSetBit(chain, course + 1)) {
+			if (tables.isUnavailable(course, period)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void fill(final long[] courses, final ICourse[] rooms) {
+		Arrays.fill(courses, 0L);
+		for (final ICourse course : rooms) {
+			if (course != null) {
+				BitSetUtil.set(courses, course.getUniqueNumber());
+			}
+		}
+	}
+
+	/** Moves the lectures of the chain from the given rooms to leaving. */
+	private static void takeOut(final ICourse[] rooms, final long[] chain,
+			final ICourse[] leaving) {
+		for (int room = 0; room < rooms.length; room++) {
+			if ((rooms[room] != null)
+					&& BitSetUtil.get(chain, rooms[room].getUniqueNumber())) {
+				leaving[room] = rooms[room];
+				rooms[room] = null;
+			} else {
+				leaving[room] = null;
+			}
+		}
+	}
+
+	/**
+	 * Puts the entering lectures into their own rooms if empty and into the
+	 * first empty rooms otherwise.
+	 */
+	private static void putIn(final ICourse[] rooms, final ICourse[] entering) {
+		for (int room = 0; room < rooms.length; room++) {
+			if ((entering[room] != null) && (rooms[room] == null)) {
+				rooms[room] = entering[room];
+				entering[room] = null;
+			}
+		}
+		int emptyRoom = 0;
+		for (int room = 0; room < rooms.length; room++) {
+			if (entering[room] != null) {
+				while (rooms[emptyRoom] != null) {
+					emptyRoom++;
+				}
+				rooms[emptyRoom] = entering[room];
+				entering[room] = null;
+			}
+		}
+	}
+
+}
@@ -9,8 +9,6 @@ import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.ServiceLocator;
-import de.hft.timetabling.util.HardConstraintUtil;
-import de.hft.timetabling.util.PeriodUtil;
 
 /**
  * This class offers various mutation operators that can be used by the
@@ -30,15 +28,17 @@ final class MutationOperators {
 	 * 
 	 * @param solution
 	 *            The solution to mutate.
+	 * @param random
+	 *            The random stream of the calling thread.
 	 */
-	public static ISolution mutateCourseIsolation(final ISolution solution) {
+	public static ISolution mutateCourseIsolation(final ISolution solution,
+			final Random random) {
 		ISolution mutatedSolution = null;
 		final ICourse[][] mutatedCoding = solution.getCoding().clone();
 		final IProblemInstance problemInstance = solution.getProblemInstance();
 		ICourse courseToSwitch = null;
 
 		// First, randomly find any lecture.
-		final Random random = new Random();
 		int randomlySelectedPeriod = 0;
 		int randomlySelectedRoom = 0;
 		while (courseToSwitch == null) {
@@ -53,15 +53,15 @@ final class MutationOperators {
 		 * Second, find the nearest empty valid time table slot with the same
 		 * room to switch to.
 		 */
-		final TimeTableSlot nearestFreeSlot = findNearestFreeValidTimeTableSlotSameRoom(
+		final int nearestFreePeriod = findNearestFreeValidPeriodSameRoom(
 				mutatedCoding, randomlySelectedPeriod, randomlySelectedRoom,
 				problemInstance);
-		if (nearestFreeSlot == null) {
+		if (nearestFreePeriod < 0) {
 			return null;
 		}
 
 		// Third, switch the course to the target period.
-		mutatedCoding[nearestFreeSlot.getPeriod()][randomlySelectedRoom] = courseToSwitch;
+		mutatedCoding[nearestFreePeriod][randomlySelectedRoom] = courseToSwitch;
 		mutatedCoding[randomlySelectedPeriod][randomlySelectedRoom] = null;
 		mutatedSolution = getSolutionTable().createNewSolution(mutatedCoding,
 				problemInstance);
@@ -69,59 +69,71 @@ final class MutationOperators {
 		return mutatedSolution;
 	}
 
-	private static TimeTableSlot findNearestFreeValidTimeTableSlotSameRoom(
+	/**
+	 * Returns the nearest period in which the given room is empty and to which
+	 * the course in the given slot can be moved or <tt>-1</tt> if there is
+	 * none.
+	 */
+	private static int findNearestFreeValidPeriodSameRoom(
 			final ICourse[][] coding, final int basePeriod, final int room,
 			final IProblemInstance instance) {
 
-		final TimeTableSlot nextFree = findNextFreeValidTimeTableSlotSameRoom(
-				coding, basePeriod, room, true, instance);
-		if (nextFree == null) {
-			return null;
+		final FreeSlotIndex freeSlots = new FreeSlotIndex(instance
+				.getInstanceTables());
+		freeSlots.build(coding);
+		final int course = coding[basePeriod][room].getUniqueNumber();
+
+		final int nextFree = freeSlots.findNextValidPeriodOfRoom(course,
+				basePeriod, room, true);
+		if (nextFree < 0) {
+			return -1;
 		}
-		final TimeTableSlot previousFree = findNextFreeValidTimeTableSlotSameRoom(
-				coding, basePeriod, room, false, instance);
-		if (Math.abs(basePeriod - nextFree.getPeriod()) > Math.abs(basePeriod
-				- previousFree.getPeriod())) {
+		final int previousFree = freeSlots.findNextValidPeriodOfRoom(course,
+				basePeriod, room, false);
+		if (Math.abs(basePeriod - nextFree) > Math.abs(basePeriod
+				- previousFree)) {
 			return previousFree;
 		}
 		return nextFree;
 	}
 
-	private static TimeTableSlot findNextFreeValidTimeTableSlotSameRoom(
-			final ICourse[][] coding, final int basePeriod, final int room,
-			final boolean next, final IProblemInstance instance) {
-
-		final int numberOfPeriods = instance.getNumberOfPeriods();
-		final ICourse course = coding[basePeriod][room];
-
-		int targetPeriod = next ? PeriodUtil.getNextPeriod(basePeriod,
-				numberOfPeriods) : PeriodUtil.getPreviousPeriod(basePeriod,
-				numberOfPeriods);
-		while (targetPeriod != basePeriod) {
-			final ICourse courseAtTarget = coding[targetPeriod][room];
-			if (courseAtTarget == null) {
-				final boolean unavailabilityConstraintViolated = HardConstraintUtil
-						.existsUnavailabilityConstraint(course, targetPeriod);
-				final boolean curriculumViolated = HardConstraintUtil
-						.existsCurriculaInPeriod(coding, course.getCurricula(),
-								targetPeriod);
-				final boolean teacherViolated = HardConstraintUtil
-						.existsTeacherInPeriod(coding, course.getTeacher(),
-								targetPeriod);
-				if (!(unavailabilityConstraintViolated || curriculumViolated || teacherViolated)) {
-					break;
-				}
-			}
-			targetPeriod = next ? PeriodUtil.getNextPeriod(targetPeriod,
-					numberOfPeriods) : PeriodUtil.getPreviousPeriod(
-					targetPeriod, numberOfPeriods);
-		}
-
-		if (targetPeriod == basePeriod) {
+	/**
+	 * Swaps the Kempe chain of a randomly selected lecture between its period
+	 * and another randomly selected period, see {@link KempeChain}. Returns the
+	 * mutated solution or <tt>null</tt> if the chain cannot be swapped because
+	 * of unavailabilities or missing rooms.
+	 * 
+	 * @param solution
+	 *            The solution to mutate, it is not changed.
+	 * @param random
+	 *            The random stream of the calling thread.
+	 * @param chain
+	 *            The Kempe chain of the calling thread for the problem
+	 *            instance of the solution.
+	 */
+	static ISolution mutateKempeChain(final ISolution solution,
+			final Random random, final KempeChain chain) {
+		final IProblemInstance problemInstance = solution.getProblemInstance();
+		final ICourse[][] coding = solution.getCoding();
+		final int numberOfPeriods = problemInstance.getNumberOfPeriods();
+
+		int period1 = 0;
+		int room1 = 0;
+		do {
+			period1 = random.nextInt(numberOfPeriods);
+			room1 = random.nextInt(problemInstance.getNumberOfRooms());
+		} while (coding[period1][room1] == null);
+		final int period2 = (period1 + 1 + random.nextInt(numberOfPeriods - 1))
+				% numberOfPeriods;
+
+		final ICourse[][] mutatedCoding = coding.clone();
+		mutatedCoding[period1] = coding[period1].clone();
+		mutatedCoding[period2] = coding[period2].clone();
+		if (!chain.swap(mutatedCoding, period1, room1, period2)) {
 			return null;
 		}
-
-		return new TimeTableSlot(targetPeriod, room);
+		return getSolutionTable().createNewSolution(mutatedCoding,
+				problemInstance);
 	}
 
 	private static ISolutionTableService getSolutionTable() {
@@ -133,23 +145,25 @@ final class MutationOperators {
 	 * 
 	 * @param solution
 	 *            that should be mutated.
+	 * @param random
+	 *            The random stream of the calling thread.
 	 * @return mutated solution
 	 */
-	public static ISolution mutateRoomStability(final ISolution solution) {
+	public static ISolution mutateRoomStability(final ISolution solution,
+			final Random random) {
 		final IProblemInstance pi = solution.getProblemInstance();
 		final ICourse[][] courses = solution.getCoding();
 		int roomY = 0, periodX = 0;
 		ICurriculum myCurriculum = null;
 
 		while (myCurriculum == null) {
-			roomY = (int) (pi.getRooms().size() * Math.random());
-			periodX = (int) (pi.getNumberOfPeriods() * Math.random());
+			roomY = random.nextInt(pi.getNumberOfRooms());
+			periodX = random.nextInt(pi.getNumberOfPeriods());
 			if (courses[periodX][roomY] != null) {
 				final Set<ICurriculum> cur = courses[periodX][roomY]
 						.getCurricula();
-				final int random = (int) (cur.size() * Math.random());
 				final ICurriculum curriculum = cur.toArray(new ICurriculum[cur
-						.size()])[random];
+						.size()])[random.nextInt(cur.size())];
 				myCurriculum = getCurriculumOutOfSet(cur, curriculum.getId());
 			}
 		}
@@ -1,7 +1,6 @@
 package de.hft.timetabling.genetist;
 
 import java.util.HashSet;
-import java.util.Random;
 import java.util.Set;
 
 import de.hft.timetabling.common.ICourse;
@@ -22,6 +21,23 @@ import de.hft.timetabling.util.HardConstraintUtil;
 public final class NeighborhoodRecombinationStrategy extends
 		RecombinationStrategy {
 
+	/** Creates new instances of this strategy. */
+	public static final RecombinationStrategyFactory FACTORY = new RecombinationStrategyFactory() {
+
+		@Override
+		public RecombinationStrategy createStrategy() {
+			return new NeighborhoodRecombinationStrategy();
+		}
+
+		@Override
+		public String getStrategyName() {
+			return NAME;
+		}
+
+	};
+
+	private static final String NAME = "Neighborhood v1";
+
 	/** Value between 0 and 100. */
 	private static final int RECOMBINATION_PERCENTAGE = 10;
 
@@ -30,8 +46,16 @@ public final class NeighborhoodRecombinationStrategy extends
 	@Override
 	public ISolution recombine(final ISolution solution1,
 			final ISolution solution2) {
+		/*
+		 * the parents may be read by other threads at the same time, so the
+		 * child is built on a copy of the first parent
+		 */
+		final ICourse[][] coding = solution1.getCoding().clone();
+		for (int period = 0; period < coding.length; period++) {
+			coding[period] = coding[period].clone();
+		}
 		final ISolution newSolution = getSolutionTable().createNewSolution(
-				solution1.getCoding(), solution1.getProblemInstance());
+				coding, solution1.getProblemInstance());
 
 		for (int i = 0; i < newSolution.getCoding().length; i++) {
 			for (int j = 0; j < newSolution.getCoding()[i].length; j++) {
@@ -125,8 +149,7 @@ public final class NeighborhoodRecombinationStrategy extends
 		if (set.size() == 0) {
 			return null;
 		}
-		final Random random = new Random();
-		final int n = random.nextInt(set.size());
+		final int n = getRandom().nextInt(set.size());
 		return set.toArray(new Lecture[set.size()])[n];
 	}
 
@@ -163,10 +186,10 @@ public final class NeighborhoodRecombinationStrategy extends
 
 	@Override
 	protected ISolution mutate(ISolution recombinedSolution) {
-		recombinedSolution = MutationOperators
-				.mutateRoomStability(recombinedSolution);
-		recombinedSolution = MutationOperators
-				.mutateCourseIsolation(recombinedSolution);
+		recombinedSolution = MutationOperators.mutateRoomStability(
+				recombinedSolution, getRandom());
+		recombinedSolution = MutationOperators.mutateCourseIsolation(
+				recombinedSolution, getRandom());
 		return recombinedSolution;
 	}
 
@@ -199,7 +222,7 @@ public final class NeighborhoodRecombinationStrategy extends
 
 	@Override
 	public String getName() {
-		return "Neighborhood v1";
+		return NAME;
 	}
 
 }
@@ -0,0 +1,44 @@
+package de.hft.timetabling.genetist;
+
+import de.hft.timetabling.common.ISolution;
+
+/**
+ * The result of one recombination performed by a {@link RecombinationTask}.
+ */
+final class Offspring {
+
+	private final ISolution firstParent;
+
+	private final ISolution secondParent;
+
+	/** <tt>null</tt> if the parents could not be recombined. */
+	private final ISolution recombinedSolution;
+
+	/** <tt>null</tt> if the recombined solution could not be mutated. */
+	private final ISolution mutatedSolution;
+
+	Offspring(final ISolution firstParent, final ISolution secondParent,
+			final ISolution recombinedSolution, final ISolution mutatedSolution) {
+		this.firstParent = firstParent;
+		this.secondParent = secondParent;
+		this.recombinedSolution = recombinedSolution;
+		this.mutatedSolution = mutatedSolution;
+	}
+
+	ISolution getFirstParent() {
+		return firstParent;
+	}
+
+	ISolution getSecondParent() {
+		return secondParent;
+	}
+
+	ISolution getRecombinedSolution() {
+		return recombinedSolution;
+	}
+
+	ISolution getMutatedSolution() {
+		return mutatedSolution;
+	}
+
+}
@@ -0,0 +1,90 @@
+package de.hft.timetabling.genetist;
+
+/**
+ * Multi-armed bandit choosing one of a number of operators (arms) by discounted
+ * upper confidence bounds. After each pull the operator is rewarded, e.g. by
+ * the improvement it achieved per nanosecond. Older rewards are discounted, so
+ * the bandit follows the operators that pay off in the current phase of the
+ * search.
+ * <p>
+ * The rewards are normalized by the highest reward seen so far, so they can
+ * be on any positive scale. An instance must not be shared between threads.
+ */
+final class OperatorBandit {
+
+	/** Factor by which all statistics decay after each reward. */
+	private static final double DISCOUNT = 0.99;
+
+	/** Weight of the confidence bound relative to the normalized rewards. */
+	private static final double EXPLORATION = 0.5;
+
+	/** Discounted number of pulls per arm. */
+	private final double[] pulls;
+
+	/** Discounted sum of the normalized rewards per arm. */
+	private final double[] rewards;
+
+	/** Number of times each arm has been selected, not discounted. */
+	private final long[] selections;
+
+	private double totalPulls;
+
+	private double maxReward;
+
+	OperatorBandit(final int numberOfArms) {
+		pulls = new double[numberOfArms];
+		rewards = new double[numberOfArms];
+		selections = new long[numberOfArms];
+	}
+
+	/**
+	 * Returns the arm to pull next. Arms that have never been rewarded are
+	 * tried first, afterwards the arm with the highest upper confidence bound
+	 * of its discounted mean reward is chosen.
+	 */
+	int select() {
+		int bestArm = 0;
+		double bestBound = Double.NEGATIVE_INFINITY;
+		for (int arm = 0; arm < pulls.length; arm++) {
+			if (pulls[arm] == 0) {
+				bestArm = arm;
+				break;
+			}
+			final double bound = (rewards[arm] / pulls[arm])
+					+ (EXPLORATION * Math.sqrt(2 * Math.log(totalPulls)
+							/ pulls[arm]));
+			if (bound > bestBound) {
+				bestBound = bound;
+				bestArm = arm;
+			}
+		}
+		selections[bestArm]++;
+		return bestArm;
+	}
+
+	/**
+	 * Rewards the given arm after it has been pulled.
+	 *
+	 * @param reward
+	 *            The reward, must not be negative.
+	 */
+	void reward(final int arm, final double reward) {
+		maxReward = Math.max(maxReward, reward);
+		totalPulls = 0;
+		for (int i = 0; i < pulls.length; i++) {
+			pulls[i] *= DISCOUNT;
+			rewards[i] *= DISCOUNT;
+		}
+		pulls[arm]++;
+		rewards[arm] += (maxReward > 0) ? (reward / maxReward) : 0;
+		for (final double armPulls : pulls) {
+			totalPulls += armPulls;
+		}
+	}
+
+	/** Returns how often the given arm has been selected in total. */
+	long getNumberOfSelections(final int arm) {
+		return selections[arm];
+	}
+
+}
@@ -0,0 +1,80 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Random;
+
+/**
+ * Selects indexes randomly with probabilities proportional to integer weights.
+ * The weights are stored in a Fenwick tree (binary indexed tree), so selecting
+ * an index takes logarithmic time.
+ * <p>
+ * Selecting does not modify the tree, so several threads may select
+ * concurrently.
+ */
+final class ProportionalSelection {
+
+	/** Fenwick tree of the weights, 1-based. */
+	private final int[] tree;
+
+	/** Highest power of two not greater than the number of indexes. */
+	private final int highestBit;
+
+	private int totalWeight;
+
+	/**
+	 * @param weights
+	 *            The weight per index, must not be negative. Indexes with
+	 *            weight <tt>0</tt> are never selected.
+	 */
+	ProportionalSelection(final int[] weights) {
+		tree = new int[weights.length + 1];
+		for (int i = 1; i <= weights.length; i++) {
+			final int weight = weights[i - 1];
+			tree[i] += weight;
+			final int parent = i + (i & -i);
+			if (parent <= weights.length) {
+				tree[parent] += tree[i];
+			}
+			totalWeight += weight;
+		}
+		highestBit = (weights.length == 0) ? 0 : Integer
+				.highestOneBit(weights.length);
+	}
+
+	/**
+	 * Creates the selection for linear ranking of a list ordered from best to
+	 * worst: index <tt>i</tt> gets weight <tt>numberOfIndexes - i</tt>, so the
+	 * first index is the most likely one.
+	 */
+	static ProportionalSelection linearRanking(final int numberOfIndexes) {
+		final int[] weights = new int[numberOfIndexes];
+		for (int i = 0; i < numberOfIndexes; i++) {
+			weights[i] = numberOfIndexes - i;
+		}
+		return new ProportionalSelection(weights);
+	}
+
+	/**
+	 * Returns a random index, each index with a probability proportional to
+	 * its weight. Returns <tt>-1</tt> if all weights are <tt>0</tt>.
+	 */
+	int select(final Random random) {
+		if (totalWeight == 0) {
+			return -1;
+		}
+		int remaining = random.nextInt(totalWeight);
+		int position = 0;
+		for (int bit = highestBit; bit > 0; bit >>= 1) {
+			final int next = position + bit;
+			if ((next < tree.length) && (tree[next] <= remaining)) {
+				position = next;
+				remaining -= tree[next];
+			}
+		}
+		return position;
+	}
+
+	int getTotalWeight() {
+		return totalWeight;
+	}
+
+}
@@ -1,10 +1,13 @@
 package de.hft.timetabling.genetist;
 
+import java.util.Random;
 import java.util.Set;
 
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.util.MinCostRoomAssignment;
 
 /**
  * Abstract base class that any recombination strategy that is written for the
@@ -18,6 +21,20 @@ import de.hft.timetabling.services.ServiceLocator;
  */
 public abstract class RecombinationStrategy {
 
+	private Random random = new Random();
+
+	/**
+	 * Created on first use by {@link #climb(ISolution, int)} or
+	 * {@link #evaluate(ISolution)}.
+	 */
+	private HillClimber hillClimber;
+
+	/** Created on first use by {@link #reassignRooms(ISolution)}. */
+	private MinCostRoomAssignment roomAssignment;
+
+	/** Created on first use by {@link #mutateKempeChain(ISolution)}. */
+	private KempeChain kempeChain;
+
 	/**
 	 * Recombines the given solutions in order create a new solution. Returns
 	 * the newly created solution or <tt>null</tt> if recombination was not
@@ -36,6 +53,22 @@ public abstract class RecombinationStrategy {
 	 */
 	protected abstract void reset();
 
+	/**
+	 * Returns the random stream to use for all random decisions of the
+	 * strategy.
+	 */
+	protected final Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * Sets the random stream to use for all random decisions of the strategy.
+	 * The stream must not be shared with other threads.
+	 */
+	final void setRandom(final Random random) {
+		this.random = random;
+	}
+
 	protected final ISolutionTableService getSolutionTable() {
 		return ServiceLocator.getInstance().getSolutionTableService();
 	}
@@ -52,6 +85,99 @@ public abstract class RecombinationStrategy {
 	 */
 	protected abstract ISolution mutate(ISolution recombinedSolution);
 
+	/**
+	 * Called after successful recombination and mutation, responsible for
+	 * improving the solution by local search. The solution may be changed in
+	 * place, it has not been handed in to the solution table yet.
+	 * <p>
+	 * The default implementation does nothing. Strategies may use
+	 * {@link #climb(ISolution, int)} and
+	 * {@link #reassignRooms(ISolution)} to implement this operation.
+	 * 
+	 * @param solution
+	 *            The solution created by recombination and mutation.
+	 */
+	protected void improve(final ISolution solution) {
+		// Nothing to do by default.
+	}
+
+	/**
+	 * Runs a bounded first-improvement hill climber on the given solution,
+	 * changing its coding in place. Returns the penalty of the solution
+	 * afterwards.
+	 * 
+	 * @param solution
+	 *            The solution to improve, must not be contained in the
+	 *            solution table.
+	 * @param maxSteps
+	 *            The number of moves and swaps to try.
+	 */
+	protected final int climb(final ISolution solution, final int maxSteps) {
+		return getHillClimber(solution).climb(solution.getCoding(), random,
+				maxSteps);
+	}
+
+	/**
+	 * Returns the penalty of the given solution without changing it. Unlike
+	 * {@link ISolution#getPenalty()} this also works for solutions that have
+	 * not been evaluated yet.
+	 * 
+	 * @param solution
+	 *            The solution to evaluate.
+	 */
+	protected final int evaluate(final ISolution solution) {
+		return getHillClimber(solution).evaluate(solution.getCoding());
+	}
+
+	private HillClimber getHillClimber(final ISolution solution) {
+		final InstanceTables tables = solution.getProblemInstance()
+				.getInstanceTables();
+		if ((hillClimber == null)
+				|| (hillClimber.getInstanceTables() != tables)) {
+			hillClimber = new HillClimber(tables);
+		}
+		return hillClimber;
+	}
+
+	/**
+	 * Reassigns the rooms within each period of the given solution so that the
+	 * room capacity and room stability penalties are minimal for its periods,
+	 * see {@link MinCostRoomAssignment}. Changes the coding in place and
+	 * returns by how much the penalty has decreased.
+	 * 
+	 * @param solution
+	 *            The solution to improve, must not be contained in the
+	 *            solution table.
+	 */
+	protected final int reassignRooms(final ISolution solution) {
+		final InstanceTables tables = solution.getProblemInstance()
+				.getInstanceTables();
+		if ((roomAssignment == null)
+				|| (roomAssignment.getInstanceTables() != tables)) {
+			roomAssignment = new MinCostRoomAssignment(tables);
+		}
+		return roomAssignment.optimize(solution.getCoding());
+	}
+
+	/**
+	 * Swaps the Kempe chain of a random lecture of the given solution to
+	 * another period, see {@link KempeChain}. Returns the mutated solution or
+	 * <tt>null</tt> if the chain cannot be swapped. The chain is kept for all
+	 * mutations of this strategy instance.
+	 * 
+	 * @param solution
+	 *            The solution to mutate, it is not changed.
+	 */
+	protected final ISolution mutateKempeChain(final ISolution solution) {
+		final InstanceTables tables = solution.getProblemInstance()
+				.getInstanceTables();
+		if ((kempeChain == null) || (kempeChain.getInstanceTables() != tables)) {
+			kempeChain = new KempeChain(tables);
+		}
+		return MutationOperators.mutateKempeChain(solution, random,
+				kempeChain);
+	}
+
 	/**
 	 * Called after successful recombination and mutation, right before the
 	 * recombined solution will be added to the solution table. This operation
@@ -0,0 +1,16 @@
+package de.hft.timetabling.genetist;
+
+/**
+ * Creates instances of a recombination strategy. Recombination strategies keep
+ * the state of the recombination in progress, so each thread performing
+ * recombination needs an instance of its own.
+ */
+public interface RecombinationStrategyFactory {
+
+	/** Returns a new instance of the recombination strategy. */
+	RecombinationStrategy createStrategy();
+
+	/** Returns the name of the recombination strategy that is created. */
+	String getStrategyName();
+
+}
@@ -0,0 +1,108 @@
+package de.hft.timetabling.genetist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import de.hft.timetabling.common.ISolution;
+
+/**
+ * Performs parent selection, recombination, mutation and local search for a
+ * number of children on one thread. Each task owns its recombination strategy
+ * instance and its random stream, while the ranked solutions are only read.
+ * The children are not handed in to the solution table by the task but
+ * returned to the {@link CrazyGenetist}.
+ */
+final class RecombinationTask implements Callable<List<Offspring>> {
+
+	private final RecombinationStrategy strategy;
+
+	private Random random = new Random();
+
+	/** The solutions ordered from best to worst. */
+	private List<ISolution> rankedSolutions;
+
+	/** Rank proportional selection over the ranked solutions. */
+	private ProportionalSelection selection;
+
+	private int numberOfChildren;
+
+	RecombinationTask(final RecombinationStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	RecombinationStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Sets the random stream used for parent selection. The stream must not
+	 * be shared with other threads.
+	 */
+	void setRandom(final Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Prepares the task for the next iteration.
+	 * 
+	 * @param rankedSolutions
+	 *            The solutions to select the parents from, ordered from best
+	 *            to worst.
+	 * @param selection
+	 *            The selection over the indexes of the ranked solutions.
+	 *            Neither the list nor the selection must be modified while
+	 *            the task is running.
+	 * @param numberOfChildren
+	 *            The number of recombinations to perform.
+	 */
+	void setUp(final List<ISolution> rankedSolutions,
+			final ProportionalSelection selection, final int numberOfChildren) {
+		this.rankedSolutions = rankedSolutions;
+		this.selection = selection;
+		this.numberOfChildren = numberOfChildren;
+	}
+
+	@Override
+	public List<Offspring> call() {
+		final List<Offspring> offspring = new ArrayList<Offspring>(
+				numberOfChildren);
+		for (int i = 0; i < numberOfChildren; i++) {
+			ISolution firstParentSolution = null;
+			ISolution secondParentSolution = null;
+
+			while ((firstParentSolution == null)
+					|| (secondParentSolution == null)
+					|| firstParentSolution.equals(secondParentSolution)) {
+
+				firstParentSolution = rankedSolutions.get(selection
+						.select(random));
+				secondParentSolution = rankedSolutions.get(selection
+						.select(random));
+			}
+
+			// Recombination
+			strategy.reset();
+			final ISolution recombinedSolution = strategy.recombine(
+					firstParentSolution, secondParentSolution);
+			if (recombinedSolution == null) {
+				offspring.add(new Offspring(firstParentSolution,
+						secondParentSolution, null, null));
+				continue;
+			}
+
+			// Mutation
+			final ISolution mutatedSolution = strategy
+					.mutate(recombinedSolution);
+
+			// Local search
+			strategy.improve((mutatedSolution == null) ? recombinedSolution
+					: mutatedSolution);
+			offspring.add(new Offspring(firstParentSolution,
+					secondParentSolution, recombinedSolution, mutatedSolution));
+		}
+		return offspring;
+	}
+
+}
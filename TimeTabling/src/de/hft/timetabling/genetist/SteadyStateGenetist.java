@@ -0,0 +1,249 @@
+package de.hft.timetabling.genetist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.evaluator.NewEvaluator;
+import de.hft.timetabling.evaluator.SolutionEvaluation;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.ICrazyGenetistService;
+import de.hft.timetabling.services.ISolutionTableService;
+import de.hft.timetabling.services.ServiceLocator;
+
+/**
+ * Steady-state variant of the {@link CrazyGenetist}. Instead of recombining a
+ * percentage of the table per iteration and handing all children in at once,
+ * each thread repeatedly selects two parents, creates, mutates, improves and
+ * evaluates a child and immediately inserts it into the solution table if it
+ * is better than the current worst solution, which is removed. The threads
+ * never wait for each other except for the short moment of insertion, so all
+ * processors are busy until the time budget is used up.
+ * <p>
+ * The parameter schedules of the recombination strategies are driven by the
+ * elapsed fraction of the time budget, mapped onto the iterations of the
+ * generational main loop. The solution table must be filled and evaluated
+ * before the run.
+ */
+public final class SteadyStateGenetist {
+
+	private final int numberOfThreads;
+
+	private long numberOfChildren;
+
+	/**
+	 * Incremented whenever a child is inserted, so the workers know when to
+	 * refresh their view of the ranked table. Guarded by the solution table.
+	 */
+	private long tableVersion;
+
+	/**
+	 * @param numberOfThreads
+	 *            The number of threads creating children in parallel.
+	 */
+	public SteadyStateGenetist(final int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Creates children until the given time has passed. The random streams of
+	 * the threads are split off on the calling thread, but the outcome depends
+	 * on the thread scheduling and the speed of the machine.
+	 *
+	 * @param budgetMillis
+	 *            The wall-clock time to spend in milliseconds.
+	 * @param totalIterations
+	 *            The number of iterations the parameter schedules of the
+	 *            recombination strategies are laid out for.
+	 */
+	public void run(final long budgetMillis, final int totalIterations) {
+		final ISolutionTableService solutionTable = ServiceLocator
+				.getInstance().getSolutionTableService();
+		numberOfChildren = 0;
+		tableVersion = 0;
+		final long start = System.nanoTime();
+		final long budgetNanos = budgetMillis * 1000000L;
+		final List<Worker> workers = new ArrayList<Worker>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			final RecombinationStrategy strategy = ICrazyGenetistService.RECOMBINATION_STRATEGY_FACTORY
+					.createStrategy();
+			strategy.setRandom(Main.newRandomStream());
+			workers.add(new Worker(solutionTable, strategy, Main
+					.newRandomStream(), start, budgetNanos, totalIterations));
+		}
+
+		final ExecutorService exec = Executors.newFixedThreadPool(
+				numberOfThreads, ServiceLocator.createBoundThreadFactory());
+		try {
+			for (final Future<Object> future : exec.invokeAll(workers)) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			e.printStackTrace();
+		} catch (final ExecutionException e) {
+			e.printStackTrace();
+		} finally {
+			exec.shutdown();
+		}
+	}
+
+	/** Returns the number of children created by the last run. */
+	public long getNumberOfChildren() {
+		return numberOfChildren;
+	}
+
+	/**
+	 * Inserts the given evaluated child into the solution table, replacing the
+	 * worst solution if the table is full. The best and worst solutions are
+	 * updated incrementally, the solutions do not age. All access to the
+	 * solution table is synchronized on the table itself.
+	 */
+	private void insert(final ISolutionTableService solutionTable,
+			final ISolution child, final SolutionEvaluation evaluation) {
+		synchronized (solutionTable) {
+			if (solutionTable.isFull()) {
+				if (!(solutionTable.compareWithWorstSolution(evaluation
+						.getTotalPenalty()))) {
+					Main.solutionTableInsertionFailure++;
+					return;
+				}
+				solutionTable.removeWorstSolution(0);
+			}
+			solutionTable.addVotedSolution(child, evaluation.getTotalPenalty(),
+					evaluation.getTotalFairness());
+			tableVersion++;
+		}
+	}
+
+	/** Creates children on one thread until the deadline. */
+	private final class Worker implements Callable<Object> {
+
+		private final ISolutionTableService solutionTable;
+
+		private final RecombinationStrategy strategy;
+
+		private final Random random;
+
+		private final NewEvaluator evaluator = new NewEvaluator();
+
+		private final long start;
+
+		private final long budgetNanos;
+
+		private final int totalIterations;
+
+		/** The iteration of the parameter schedule reached so far. */
+		private int iteration = 0;
+
+		/** The ranked table as of {@link #version}. */
+		private List<ISolution> rankedSolutions;
+
+		/** The table version {@link #rankedSolutions} has been taken at. */
+		private long version = -1;
+
+		/** Linear ranking over {@link #rankedSolutions}. */
+		private ProportionalSelection selection;
+
+		Worker(final ISolutionTableService solutionTable,
+				final RecombinationStrategy strategy, final Random random,
+				final long start, final long budgetNanos,
+				final int totalIterations) {
+			this.solutionTable = solutionTable;
+			this.strategy = strategy;
+			this.random = random;
+			this.start = start;
+			this.budgetNanos = budgetNanos;
+			this.totalIterations = totalIterations;
+		}
+
+		@Override
+		public Object call() {
+			long elapsed;
+			while ((elapsed = System.nanoTime() - start) < budgetNanos) {
+				advanceSchedule((double) elapsed / budgetNanos);
+
+				refreshSelection();
+				if (rankedSolutions.size() <= 2) {
+					break;
+				}
+				final ISolution firstParent = rankedSolutions.get(selection
+						.select(random));
+				ISolution secondParent = firstParent;
+				while (secondParent == firstParent) {
+					secondParent = rankedSolutions.get(selection.select(random));
+				}
+
+				strategy.reset();
+				ISolution child = strategy.recombine(firstParent, secondParent);
+				if (child == null) {
+					synchronized (solutionTable) {
+						Main.recombinationFailure++;
+					}
+					continue;
+				}
+				final ISolution mutatedSolution = strategy.mutate(child);
+				if (mutatedSolution != null) {
+					child = mutatedSolution;
+				}
+				strategy.improve(child);
+				final SolutionEvaluation evaluation = evaluator
+						.evaluateSolution(child);
+
+				synchronized (solutionTable) {
+					Main.recombinationSuccess++;
+					if (mutatedSolution != null) {
+						Main.mutationSuccess++;
+					} else {
+						Main.mutationFailure++;
+					}
+					firstParent.increaseRecombinationCount();
+					secondParent.increaseRecombinationCount();
+					numberOfChildren++;
+					insert(solutionTable, child, evaluation);
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Takes the ranked table again if a child has been inserted since the
+		 * last call. The linear ranking only depends on the size of the table,
+		 * so the selection is rebuilt only if the size has changed.
+		 */
+		private void refreshSelection() {
+			synchronized (solutionTable) {
+				if (version == tableVersion) {
+					return;
+				}
+				version = tableVersion;
+				final int previousSize = (rankedSolutions == null) ? -1
+						: rankedSolutions.size();
+				rankedSolutions = solutionTable.getRankedSolutions();
+				if (rankedSolutions.size() != previousSize) {
+					selection = ProportionalSelection
+							.linearRanking(rankedSolutions.size());
+				}
+			}
+		}
+
+		/**
+		 * Calls the parameter schedule of the strategy for each iteration of
+		 * the main loop that corresponds to the elapsed time.
+		 */
+		private void advanceSchedule(final double elapsedFraction) {
+			final int target = Math.min(totalIterations,
+					1 + (int) (elapsedFraction * totalIterations));
+			while (iteration < target) {
+				strategy.newInterationStarted(++iteration, totalIterations);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+package de.hft.timetabling.island;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.evaluator.MultiThreadedEvaluator;
+import de.hft.timetabling.generator.Generator;
+import de.hft.timetabling.genetist.CrazyGenetist;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.ISolutionTableService;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.solutiontable.SolutionTable;
+import de.hft.timetabling.util.CodingUtil;
+import de.hft.timetabling.util.TimeBudget;
+
+/**
+ * One population of the island model. An island has its own service locator
+ * with its own solution table, generator, genetist and evaluator, which is
+ * bound to the thread running the island and to the worker threads of its
+ * genetist and evaluator, so the services do not interfere with other islands
+ * or the global services.
+ * <p>
+ * Migrants arrive as codings in a lock-free inbox that is filled by the other
+ * islands and drained by the island itself at the start of each iteration.
+ */
+final class Island implements Callable<ICourse[][]> {
+
+	private final IProblemInstance instance;
+
+	private final int iterations;
+
+	/** The time budget or <tt>null</tt> if bounded by the iterations. */
+	private final TimeBudget budget;
+
+	private final int migrationInterval;
+
+	private final int numberOfMigrants;
+
+	private final ServiceLocator locator = ServiceLocator.createLocator();
+
+	private final CrazyGenetist genetist;
+
+	private final MultiThreadedEvaluator evaluator;
+
+	/** The codings sent to this island by other islands. */
+	private final Queue<ICourse[][]> inbox = new ConcurrentLinkedQueue<ICourse[][]>();
+
+	/** The islands this island sends its elites to. */
+	private final List<Island> neighbours = new ArrayList<Island>();
+
+	/**
+	 * Creates the island and its services. The random stream of the generator
+	 * is split off on the calling thread.
+	 *
+	 * @param budget
+	 *            The time budget or <tt>null</tt> to run the given number of
+	 *            iterations.
+	 * @param numberOfThreads
+	 *            The number of threads the genetist of this island may use.
+	 */
+	Island(final IProblemInstance instance, final int iterations,
+			final TimeBudget budget, final int migrationInterval,
+			final int numberOfMigrants, final int numberOfThreads) {
+		this.instance = instance;
+		this.iterations = iterations;
+		this.budget = budget;
+		this.migrationInterval = migrationInterval;
+		this.numberOfMigrants = numberOfMigrants;
+
+		/*
+		 * the genetist and the evaluator look up the solution table on creation
+		 * and bind their worker threads to the current locator
+		 */
+		ServiceLocator.bind(locator);
+		try {
+			locator.setSolutionTableService(new SolutionTable());
+			locator.setGeneratorService(new Generator(Main.newRandomStream()));
+			genetist = new CrazyGenetist(numberOfThreads);
+			locator.setCrazyGenetistService(genetist);
+			evaluator = new MultiThreadedEvaluator();
+		} finally {
+			ServiceLocator.bind(null);
+		}
+	}
+
+	void addNeighbour(final Island neighbour) {
+		neighbours.add(neighbour);
+	}
+
+	/**
+	 * Runs the main loop on this island and returns the coding of its best
+	 * solution.
+	 */
+	@Override
+	public ICourse[][] call() {
+		ServiceLocator.bind(locator);
+		try {
+			final ISolutionTableService solutionTable = locator
+					.getSolutionTableService();
+			for (int i = 1; (budget == null) ? (i <= iterations)
+					: ((i == 1) || !budget.isExpired()); i++) {
+				receiveMigrants(solutionTable);
+
+				locator.getGeneratorService().fillSolutionTable(instance);
+				evaluator.evaluateSolutions();
+				solutionTable.update();
+
+				genetist.recombineAndMutate((budget == null) ? i : budget
+						.getScheduleIteration(i, iterations), iterations);
+				evaluator.evaluateSolutions();
+				solutionTable.update();
+
+				if ((i % migrationInterval) == 0) {
+					sendMigrants(solutionTable);
+				}
+			}
+			return solutionTable.getBestPenaltySolution().getCoding();
+		} finally {
+			ServiceLocator.bind(null);
+			genetist.shutdown();
+			evaluator.shutdown();
+		}
+	}
+
+	/** Offers copies of the best solutions to all neighbours. */
+	private void sendMigrants(final ISolutionTableService solutionTable) {
+		final List<ISolution> rankedSolutions = solutionTable
+				.getRankedSolutions();
+		final int number = Math.min(numberOfMigrants, rankedSolutions.size());
+		for (final Island neighbour : neighbours) {
+			for (int i = 0; i < number; i++) {
+				neighbour.inbox.offer(CodingUtil.copy(rankedSolutions.get(i).getCoding()));
+			}
+		}
+	}
+
+	/**
+	 * Adds the waiting migrants to the solution table, replacing the worst
+	 * solutions if it is full. The migrants are voted in the same iteration.
+	 */
+	private void receiveMigrants(final ISolutionTableService solutionTable) {
+		int received = 0;
+		ICourse[][] coding;
+		while ((received < solutionTable.getMaximumSize())
+				&& ((coding = inbox.poll()) != null)) {
+			if (solutionTable.isFull()) {
+				solutionTable.removeWorstSolution(0);
+			}
+			solutionTable.addSolution(solutionTable.createNewSolution(coding,
+					instance));
+			received++;
+		}
+	}
+
+}
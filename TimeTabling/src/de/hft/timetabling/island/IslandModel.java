@@ -0,0 +1,117 @@
+package de.hft.timetabling.island;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.util.TimeBudget;
+
+/**
+ * Island model of the genetic algorithm. A number of independent populations
+ * (islands) evolve in parallel, each on its own thread with its own solution
+ * table, generator, genetist and evaluator. Every few iterations each island
+ * sends copies of its best solutions to its neighbours as defined by the
+ * {@link MigrationTopology}. The channels between the islands are lock-free
+ * queues, so the islands never wait for each other.
+ * <p>
+ * Since the islands run concurrently, runs with more than one island are not
+ * reproducible even if seeded. The statistic counters of the main class are
+ * shared by all islands and thus only approximate.
+ */
+public final class IslandModel {
+
+	/** The number of iterations between two migrations. */
+	public static final int MIGRATION_INTERVAL = 10;
+
+	/** The number of best solutions sent to each neighbour per migration. */
+	public static final int NUMBER_OF_MIGRANTS = 2;
+
+	private static final int NUMBER_OF_PROCESSORS = Runtime.getRuntime()
+			.availableProcessors();
+
+	private final List<Island> islands = new ArrayList<Island>();
+
+	/**
+	 * Creates the islands and connects them.
+	 *
+	 * @param instance
+	 *            The problem instance to solve.
+	 * @param numberOfIslands
+	 *            The number of islands.
+	 * @param topology
+	 *            The topology defining the migration routes.
+	 * @param iterations
+	 *            The number of iterations each island runs.
+	 */
+	public IslandModel(final IProblemInstance instance,
+			final int numberOfIslands, final MigrationTopology topology,
+			final int iterations) {
+		this(instance, numberOfIslands, topology, iterations, null);
+	}
+
+	/**
+	 * Creates the islands and connects them.
+	 *
+	 * @param instance
+	 *            The problem instance to solve.
+	 * @param numberOfIslands
+	 *            The number of islands.
+	 * @param topology
+	 *            The topology defining the migration routes.
+	 * @param iterations
+	 *            The number of iterations each island runs or, with a time
+	 *            budget, the number of iterations the parameter schedules are
+	 *            laid out for.
+	 * @param budget
+	 *            The time budget until which the islands run or <tt>null</tt>
+	 *            to run the given number of iterations.
+	 */
+	public IslandModel(final IProblemInstance instance,
+			final int numberOfIslands, final MigrationTopology topology,
+			final int iterations, final TimeBudget budget) {
+		if (numberOfIslands < 1) {
+			throw new IllegalArgumentException(
+					"At least one island is required.");
+		}
+		final int threadsPerIsland = Math.max(1, NUMBER_OF_PROCESSORS
+				/ numberOfIslands);
+		for (int i = 0; i < numberOfIslands; i++) {
+			islands.add(new Island(instance, iterations, budget,
+					MIGRATION_INTERVAL, NUMBER_OF_MIGRANTS, threadsPerIsland));
+		}
+		for (int i = 0; i < numberOfIslands; i++) {
+			for (final int neighbour : topology.getNeighbours(i,
+					numberOfIslands)) {
+				islands.get(i).addNeighbour(islands.get(neighbour));
+			}
+		}
+	}
+
+	/**
+	 * Runs all islands to the end and returns the codings of their best
+	 * solutions. An island model can only be run once.
+	 */
+	public List<ICourse[][]> run() {
+		final ExecutorService exec = Executors.newFixedThreadPool(islands
+				.size());
+		final List<ICourse[][]> bestCodings = new ArrayList<ICourse[][]>();
+		try {
+			for (final Future<ICourse[][]> future : exec.invokeAll(islands)) {
+				bestCodings.add(future.get());
+			}
+		} catch (final InterruptedException e) {
+			e.printStackTrace();
+		} catch (final ExecutionException e) {
+			e.printStackTrace();
+		} finally {
+			exec.shutdown();
+		}
+		return bestCodings;
+	}
+
+}
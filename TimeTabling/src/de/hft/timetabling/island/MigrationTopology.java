@@ -0,0 +1,47 @@
+package de.hft.timetabling.island;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines to which islands the elites of an island migrate.
+ */
+public enum MigrationTopology {
+
+	/** Each island sends its elites to the next island, the last to the first. */
+	RING {
+		@Override
+		List<Integer> getNeighbours(final int island, final int numberOfIslands) {
+			final List<Integer> neighbours = new ArrayList<Integer>();
+			if (numberOfIslands > 1) {
+				neighbours.add((island + 1) % numberOfIslands);
+			}
+			return neighbours;
+		}
+	},
+
+	/** Each island sends its elites to all other islands. */
+	FULLY_CONNECTED {
+		@Override
+		List<Integer> getNeighbours(final int island, final int numberOfIslands) {
+			final List<Integer> neighbours = new ArrayList<Integer>();
+			for (int i = 0; i < numberOfIslands; i++) {
+				if (i != island) {
+					neighbours.add(i);
+				}
+			}
+			return neighbours;
+		}
+	};
+
+	/**
+	 * Returns the indices of the islands the given island sends its elites to.
+	 *
+	 * @param island
+	 *            The index of the sending island.
+	 * @param numberOfIslands
+	 *            The total number of islands.
+	 */
+	abstract List<Integer> getNeighbours(int island, int numberOfIslands);
+
+}
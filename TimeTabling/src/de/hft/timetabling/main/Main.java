@@ -6,23 +6,39 @@ import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
+import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
 import de.hft.timetabling.evaluator.Evaluator;
 import de.hft.timetabling.evaluator.MultiThreadedEvaluator;
+import de.hft.timetabling.generator.BackgroundGenerator;
+import de.hft.timetabling.generator.CourseDifficultyMemory;
 import de.hft.timetabling.generator.Generator;
 import de.hft.timetabling.generator.MultiThreadedGenerator;
 import de.hft.timetabling.genetist.CrazyGenetist;
+import de.hft.timetabling.genetist.SteadyStateGenetist;
+import de.hft.timetabling.island.IslandModel;
+import de.hft.timetabling.island.MigrationTopology;
+import de.hft.timetabling.optimizer.RuinAndRecreateOptimizer;
+import de.hft.timetabling.optimizer.SimulatedAnnealingOptimizer;
+import de.hft.timetabling.optimizer.TabuSearchOptimizer;
 import de.hft.timetabling.reader.Reader;
-import de.hft.timetabling.services.ICrazyGenetistService;
+import de.hft.timetabling.services.IGeneratorService;
+import de.hft.timetabling.services.IOptimizerService;
 import de.hft.timetabling.services.IReaderService;
 import de.hft.timetabling.services.ISolutionTableService;
 import de.hft.timetabling.services.IValidatorService;
 import de.hft.timetabling.services.IWriterService;
 import de.hft.timetabling.services.ServiceLocator;
 import de.hft.timetabling.solutiontable.SolutionTable;
+import de.hft.timetabling.util.CpuBenchmark;
 import de.hft.timetabling.util.DateUtil;
+import de.hft.timetabling.util.SplittableRandom;
+import de.hft.timetabling.util.TimeBudget;
 import de.hft.timetabling.validator.Validator;
 import de.hft.timetabling.writer.Writer;
 
@@ -37,6 +53,122 @@ public final class Main {
 	private static final boolean NEW_EVALUATOR = true;
 	private static MultiThreadedEvaluator evaluator = null;
 
+	/**
+	 * The system property specifying the seed of a reproducible run, e.g.
+	 * <tt>-Dtimetabling.seed=42</tt>. With more than one execution, the seed is
+	 * increased by one for each execution.
+	 */
+	private static final String SEED_PROPERTY = "timetabling.seed";
+
+	/**
+	 * The system property specifying the wall-clock time in milliseconds spent
+	 * on improving the best solutions by the post-optimization chosen with
+	 * {@link #OPTIMIZER_PROPERTY} after the last iteration, e.g.
+	 * <tt>-Dtimetabling.postOptimization=10000</tt>. A value of zero (the
+	 * default) disables the post-optimization. Since it stops after a fixed
+	 * time, seeded runs are only reproducible up to the post-optimization.
+	 */
+	private static final String POST_OPTIMIZATION_PROPERTY = "timetabling.postOptimization";
+
+	private static final long DEFAULT_POST_OPTIMIZATION_MILLIS = 0;
+
+	/**
+	 * The system property choosing the post-optimization, either
+	 * <tt>annealing</tt> (the default), <tt>tabu</tt> or <tt>ruin</tt> (ruin
+	 * and recreate), e.g. <tt>-Dtimetabling.optimizer=tabu</tt>.
+	 */
+	private static final String OPTIMIZER_PROPERTY = "timetabling.optimizer";
+
+	/**
+	 * The system property specifying the number of islands of the island
+	 * model, e.g. <tt>-Dtimetabling.islands=4</tt>. With the default of one
+	 * island the main loop runs on the global solution table as usual.
+	 */
+	private static final String ISLANDS_PROPERTY = "timetabling.islands";
+
+	/**
+	 * The system property choosing the migration topology of the island model,
+	 * either <tt>ring</tt> (the default) or <tt>fully_connected</tt>, e.g.
+	 * <tt>-Dtimetabling.topology=fully_connected</tt>.
+	 */
+	private static final String TOPOLOGY_PROPERTY = "timetabling.topology";
+
+	/**
+	 * The system property specifying the wall-clock time in milliseconds of
+	 * the steady-state mode, e.g. <tt>-Dtimetabling.steadyState=60000</tt>. In
+	 * this mode the initial solution table is generated once and afterwards
+	 * the children are inserted one by one as soon as they are evaluated
+	 * instead of running the iterations of the main loop. The number of
+	 * iterations then only lays out the parameter schedules. A value of zero
+	 * (the default) disables the steady-state mode.
+	 */
+	private static final String STEADY_STATE_PROPERTY = "timetabling.steadyState";
+
+	/**
+	 * The system property enabling the adaptive operator selection, e.g.
+	 * <tt>-Dtimetabling.adaptiveOperators=true</tt>, see
+	 * {@link #adaptiveOperators}.
+	 */
+	private static final String ADAPTIVE_OPERATORS_PROPERTY = "timetabling.adaptiveOperators";
+
+	/**
+	 * The system property enabling the Kempe chain mutation with a fixed
+	 * probability, e.g. <tt>-Dtimetabling.kempeChain=true</tt>, see
+	 * {@link #kempeChainMutation}.
+	 */
+	private static final String KEMPE_CHAIN_PROPERTY = "timetabling.kempeChain";
+
+	/**
+	 * The system property specifying the number of hill climbing steps per
+	 * child, e.g. <tt>-Dtimetabling.localSearchSteps=5000</tt>, see
+	 * {@link #localSearchSteps}. A value of zero disables the local search.
+	 */
+	private static final String LOCAL_SEARCH_STEPS_PROPERTY = "timetabling.localSearchSteps";
+
+	private static final int DEFAULT_LOCAL_SEARCH_STEPS = 2000;
+
+	/**
+	 * The system property specifying the wall-clock time budget of each run
+	 * in milliseconds, e.g. <tt>-Dtimetabling.timeBudget=60000</tt>, or
+	 * <tt>calibrated</tt> to derive it from the {@link CpuBenchmark} of the
+	 * current machine. The main loop then runs until the deadline minus the
+	 * post-optimization time instead of for a number of iterations, and the
+	 * post-optimization ends on the deadline. The number of iterations only
+	 * lays out the parameter schedules, which follow the elapsed time.
+	 */
+	private static final String TIME_BUDGET_PROPERTY = "timetabling.timeBudget";
+
+	/**
+	 * The system property choosing the construction algorithm of all
+	 * generators, either <tt>dsatur</tt> (the default), <tt>fast</tt> or
+	 * <tt>slow</tt>, e.g. <tt>-Dtimetabling.generatorAlgorithm=fast</tt>, see
+	 * {@link #generatorAlgorithm}.
+	 */
+	private static final String GENERATOR_ALGORITHM_PROPERTY = "timetabling.generatorAlgorithm";
+
+	/**
+	 * The system property choosing how the solution table is filled, either
+	 * <tt>ondemand</tt> (the default) to generate the missing solutions at the
+	 * beginning of each iteration, <tt>speculative</tt> to launch additional
+	 * attempts and take the first ones to finish or <tt>background</tt> to
+	 * generate solutions continuously on background threads, e.g.
+	 * <tt>-Dtimetabling.generator=background</tt>. Seeded runs always generate
+	 * on demand, since which solutions become available first depends on the
+	 * thread scheduling in the other modes.
+	 */
+	private static final String GENERATOR_PROPERTY = "timetabling.generator";
+
+	/**
+	 * The system property specifying the time in milliseconds after which a
+	 * speculative fill is aborted, leaving the remaining slots empty, e.g.
+	 * <tt>-Dtimetabling.fillDeadline=5000</tt>. An empty solution table is
+	 * always filled completely. A value of zero waits until the solution table
+	 * is full.
+	 */
+	private static final String FILL_DEADLINE_PROPERTY = "timetabling.fillDeadline";
+
+	private static final long DEFAULT_FILL_DEADLINE_MILLIS = 10000;
+
 	public static int generatorSuccess = 0;
 
 	public static int generatorFailure = 0;
@@ -55,6 +187,9 @@ public final class Main {
 
 	public static long duration = 0;
 
+	/** The time spent by the crazy genetist in the current execution. */
+	public static long crazyGenetistMillis = 0;
+
 	/**
 	 * The number of iterations to perform until the best solution will be
 	 * printed.
@@ -67,6 +202,50 @@ public final class Main {
 
 	public static boolean outputAllSolutions = false;
 
+	/**
+	 * Whether the mutation operators are chosen per child by a multi-armed
+	 * bandit rewarded with the improvement per nanosecond instead of with
+	 * fixed probabilities. Since the rewards depend on the measured time,
+	 * seeded runs are not reproducible with the adaptive operator selection.
+	 */
+	public static boolean adaptiveOperators = false;
+
+	/**
+	 * Whether the fixed mutation schedule also swaps Kempe chains. The
+	 * adaptive operator selection always offers the Kempe chain mutation.
+	 */
+	public static boolean kempeChainMutation = false;
+
+	/**
+	 * The number of hill climbing steps per child of the course exchange. The
+	 * climb is bounded by steps only, since a time limit would make seeded
+	 * runs depend on the thread scheduling and garbage collection.
+	 */
+	public static int localSearchSteps = DEFAULT_LOCAL_SEARCH_STEPS;
+
+	/**
+	 * The wall-clock time budget of each run in milliseconds or <tt>0</tt> if
+	 * the runs are bounded by the number of iterations only.
+	 */
+	public static long timeBudgetMillis = 0;
+
+	/**
+	 * The construction algorithm of every generator created from now on, be it
+	 * the generator of the main loop, of its worker threads, of an island or
+	 * of the ruin and recreate optimizer.
+	 */
+	public static Generator.Algorithm generatorAlgorithm = Generator.Algorithm.DSATUR;
+
+	/**
+	 * The seed of the current execution. All random streams used by the
+	 * generator and the genetist are split off from this seed, see
+	 * {@link #newRandomStream()}.
+	 */
+	public static long seed = 0;
+
+	private static SplittableRandom randomStreams = new SplittableRandom(
+			System.nanoTime());
+
 	/**
 	 * Runs the program.
 	 * 
@@ -112,9 +291,32 @@ public final class Main {
 			}
 		}
 
-		Main.setUpServices();
+		/*
+		 * Runs are only reproducible if a seed is given and the solutions are
+		 * generated on demand, since the order in which background solutions
+		 * become available depends on the thread scheduling.
+		 */
+		final String seedProperty = System.getProperty(SEED_PROPERTY);
+		final boolean reproducible = (seedProperty != null);
+		final long baseSeed = reproducible ? Long.valueOf(seedProperty)
+				: System.nanoTime();
+
+		Main.adaptiveOperators = Boolean.getBoolean(ADAPTIVE_OPERATORS_PROPERTY);
+		Main.kempeChainMutation = Boolean.getBoolean(KEMPE_CHAIN_PROPERTY);
+		Main.localSearchSteps = Integer.getInteger(LOCAL_SEARCH_STEPS_PROPERTY,
+				DEFAULT_LOCAL_SEARCH_STEPS);
+		if (Main.localSearchSteps < 0) {
+			throw new IllegalArgumentException(
+					"The number of local search steps must not be negative.");
+		}
+		Main.timeBudgetMillis = Main.readTimeBudget();
+		Main.generatorAlgorithm = Generator.Algorithm.valueOf(System
+				.getProperty(GENERATOR_ALGORITHM_PROPERTY, "dsatur")
+				.toUpperCase());
+		Main.setUpServices(reproducible);
 
 		for (int i = 0; i < Main.nrExecutions; i++) {
+			Main.seed = baseSeed + i;
 			try {
 				if (args[0].equals("ALL")) {
 					Main.runAllInstances(Main.initialSolutionDirectory);
@@ -139,16 +341,46 @@ public final class Main {
 	 * At first, the individual sub systems must be initialized and registered
 	 * with the service locator.
 	 */
-	private static void setUpServices() {
+	private static void setUpServices(final boolean reproducible) {
 		final ServiceLocator serviceLocator = ServiceLocator.getInstance();
 		serviceLocator.setReaderService(new Reader());
 		serviceLocator.setSolutionTableService(new SolutionTable());
 		serviceLocator.setWriterService(new Writer());
-		serviceLocator.setGeneratorService(new MultiThreadedGenerator(
-				new Generator()));
+		final String generator = System.getProperty(GENERATOR_PROPERTY,
+				"ondemand");
+		if (!(generator.equals("ondemand") || generator.equals("speculative") || generator
+				.equals("background"))) {
+			throw new IllegalArgumentException("Unknown generator '"
+					+ generator + "'.");
+		}
+		if (reproducible || generator.equals("ondemand")) {
+			serviceLocator.setGeneratorService(new MultiThreadedGenerator(
+					new Generator()));
+		} else if (generator.equals("speculative")) {
+			serviceLocator.setGeneratorService(new MultiThreadedGenerator(
+					new Generator(), true, Long.getLong(FILL_DEADLINE_PROPERTY,
+							DEFAULT_FILL_DEADLINE_MILLIS)));
+		} else {
+			serviceLocator.setGeneratorService(new BackgroundGenerator(
+					new Generator(), Math.max(1, Runtime.getRuntime()
+							.availableProcessors() / 2)));
+		}
 		serviceLocator.setValidatorService(new Validator());
 		serviceLocator.setCrazyGenetistService(new CrazyGenetist());
 		serviceLocator.setEvaluatorService(new Evaluator());
+		final String optimizer = System.getProperty(OPTIMIZER_PROPERTY,
+				"annealing");
+		if (optimizer.equals("annealing")) {
+			serviceLocator
+					.setOptimizerService(new SimulatedAnnealingOptimizer());
+		} else if (optimizer.equals("tabu")) {
+			serviceLocator.setOptimizerService(new TabuSearchOptimizer());
+		} else if (optimizer.equals("ruin")) {
+			serviceLocator.setOptimizerService(new RuinAndRecreateOptimizer());
+		} else {
+			throw new IllegalArgumentException("Unknown optimizer '"
+					+ optimizer + "'.");
+		}
 	}
 
 	/**
@@ -160,9 +392,25 @@ public final class Main {
 
 		Main.resetStatistics();
 		Main.getSolutionTable().clear();
+		Main.resetRandomStreams();
+		System.out.println("Seed: " + Main.seed);
 
 		final long startTime = System.currentTimeMillis();
 
+		/*
+		 * The post-optimization gets its time at the end of the budget, but at
+		 * most half of the budget.
+		 */
+		final long postOptimizationMillis = Long.getLong(
+				POST_OPTIMIZATION_PROPERTY, DEFAULT_POST_OPTIMIZATION_MILLIS);
+		final TimeBudget totalBudget = (Main.timeBudgetMillis > 0) ? new TimeBudget(
+				Main.timeBudgetMillis)
+				: null;
+		final TimeBudget evolutionBudget = (totalBudget == null) ? null
+				: new TimeBudget(Main.timeBudgetMillis
+						- Math.max(0, Math.min(postOptimizationMillis,
+								Main.timeBudgetMillis / 2)));
+
 		final ServiceLocator locator = ServiceLocator.getInstance();
 		final IReaderService reader = locator.getReaderService();
 		final IProblemInstance instance = (initialSolutionDirectory.length() == 0) ? reader
@@ -170,7 +418,19 @@ public final class Main {
 				: reader.readInstanceUsingInitialSolutionDirectory(fileName,
 						initialSolutionDirectory);
 
-		for (int i = 0; i < Main.iterations; i++) {
+		final int numberOfIslands = Integer.getInteger(ISLANDS_PROPERTY, 1);
+		final long steadyStateMillis = Long.getLong(STEADY_STATE_PROPERTY, 0);
+		if (numberOfIslands > 1) {
+			Main.callIslandModel(instance, numberOfIslands, evolutionBudget);
+		} else if (steadyStateMillis > 0) {
+			Main.callSteadyStateGenetist(instance, steadyStateMillis,
+					evolutionBudget);
+		}
+
+		for (int i = 0; (numberOfIslands == 1)
+				&& (steadyStateMillis <= 0)
+				&& ((evolutionBudget == null) ? (i < Main.iterations)
+						: ((i == 0) || !evolutionBudget.isExpired())); i++) {
 			System.out.println("");
 			System.out.println("------ ITERATION " + (i + 1) + " ------");
 
@@ -180,7 +440,9 @@ public final class Main {
 
 			Main.updateSolutionTable();
 
-			Main.callCrazyGenetist(i + 1);
+			Main.callCrazyGenetist((evolutionBudget == null) ? (i + 1)
+					: evolutionBudget.getScheduleIteration(i + 1,
+							Main.iterations));
 
 			Main.callEvaluator();
 
@@ -192,7 +454,12 @@ public final class Main {
 			Main.shortSleep(sleepMilliSeconds);
 		}
 
-		Main.printStatistics();
+		if (postOptimizationMillis > 0) {
+			Main.callOptimizer((totalBudget == null) ? postOptimizationMillis
+					: totalBudget.getRemainingMillis());
+		}
+
+		Main.printStatistics(instance);
 
 		Main.checkBestSolutionForValidity();
 
@@ -202,6 +469,20 @@ public final class Main {
 		Main.outputSolutions();
 	}
 
+	/**
+	 * Returns a new random stream split off from the seed of the current
+	 * execution. Streams must not be shared between threads, so each thread or
+	 * task should request its own stream. For reproducible runs the streams
+	 * must be requested in a deterministic order.
+	 */
+	public static synchronized Random newRandomStream() {
+		return randomStreams.split();
+	}
+
+	private static synchronized void resetRandomStreams() {
+		randomStreams = new SplittableRandom(Main.seed);
+	}
+
 	private static void checkBestSolutionForValidity() {
 		final ServiceLocator locator = ServiceLocator.getInstance();
 		final ISolutionTableService solutionTable = locator
@@ -215,6 +496,7 @@ public final class Main {
 
 	private static void resetStatistics() {
 		Main.duration = 0;
+		Main.crazyGenetistMillis = 0;
 		Main.generatorSuccess = 0;
 		Main.generatorFailure = 0;
 		Main.recombinationSuccess = 0;
@@ -236,9 +518,129 @@ public final class Main {
 		ServiceLocator.getInstance().getCrazyGenetistService()
 				.recombineAndMutate(iteration, Main.iterations);
 		final long time = System.currentTimeMillis() - startMillis;
+		Main.crazyGenetistMillis += time;
 		System.out.println("CRAZY GENETIST: Finished after " + time + "ms.");
 	}
 
+	/**
+	 * Reads the time budget from the system properties, running the CPU
+	 * benchmark if it shall be calibrated. Returns <tt>0</tt> if no time budget
+	 * is given.
+	 */
+	private static long readTimeBudget() {
+		final String timeBudget = System.getProperty(TIME_BUDGET_PROPERTY);
+		if (timeBudget == null) {
+			return 0;
+		}
+		if (!(timeBudget.equals("calibrated"))) {
+			return Long.valueOf(timeBudget);
+		}
+		final long benchmarkNanos = CpuBenchmark.measureNanos();
+		final long budgetMillis = CpuBenchmark.getBudgetMillis(benchmarkNanos);
+		System.out.println("CALIBRATION: Benchmark took "
+				+ TimeUnit.NANOSECONDS.toMillis(benchmarkNanos)
+				+ "ms (reference "
+				+ TimeUnit.NANOSECONDS
+						.toMillis(CpuBenchmark.REFERENCE_BENCHMARK_NANOS)
+				+ "ms), time budget " + budgetMillis + "ms.");
+		return budgetMillis;
+	}
+
+	/**
+	 * Fills the solution table once and then runs the steady-state genetist
+	 * on all processors instead of the main loop. With a time budget the
+	 * genetist runs until its deadline instead of for the given time.
+	 */
+	private static void callSteadyStateGenetist(
+			final IProblemInstance instance, final long steadyStateMillis,
+			final TimeBudget budget) {
+		Main.callGenerator(instance);
+		Main.callEvaluator();
+		Main.updateSolutionTable();
+
+		final long budgetMillis = (budget == null) ? steadyStateMillis : budget
+				.getRemainingMillis();
+
+		final SteadyStateGenetist genetist = new SteadyStateGenetist(Runtime
+				.getRuntime().availableProcessors());
+		final long startMillis = System.currentTimeMillis();
+		genetist.run(budgetMillis, Main.iterations);
+		final long time = System.currentTimeMillis() - startMillis;
+		Main.crazyGenetistMillis += time;
+		System.out.println("STEADY STATE: " + genetist.getNumberOfChildren()
+				+ " children, "
+				+ (genetist.getNumberOfChildren() * 1000 / Math.max(1, time))
+				+ " children/s.");
+		System.out.println("STEADY STATE: Finished after " + time + "ms.");
+		Main.printBestSolution();
+		Main.printFairestSolution();
+	}
+
+	/**
+	 * Runs the island model instead of the main loop and puts the best
+	 * solution of each island into the global solution table.
+	 */
+	private static void callIslandModel(final IProblemInstance instance,
+			final int numberOfIslands, final TimeBudget budget) {
+		final MigrationTopology topology = MigrationTopology.valueOf(System
+				.getProperty(TOPOLOGY_PROPERTY, "ring").toUpperCase());
+		System.out.println("ISLAND MODEL: " + numberOfIslands + " islands, "
+				+ topology + " topology.");
+		final long startMillis = System.currentTimeMillis();
+		final List<ICourse[][]> bestCodings = new IslandModel(instance,
+				numberOfIslands, topology, Main.iterations, budget).run();
+		final long time = System.currentTimeMillis() - startMillis;
+		Main.crazyGenetistMillis += time;
+		System.out.println("ISLAND MODEL: Finished after " + time + "ms.");
+
+		final ISolutionTableService solutionTable = Main.getSolutionTable();
+		for (final ICourse[][] coding : bestCodings) {
+			if (solutionTable.isFull()) {
+				break;
+			}
+			solutionTable.addSolution(solutionTable.createNewSolution(coding,
+					instance));
+		}
+		Main.callEvaluator();
+		Main.updateSolutionTable();
+		Main.printBestSolution();
+		Main.printFairestSolution();
+	}
+
+	/**
+	 * Improves the best solutions of the solution table with the optimizer
+	 * service within the given time and evaluates the improved solution, if
+	 * any.
+	 */
+	private static void callOptimizer(final long budgetMillis) {
+		if (budgetMillis <= 0) {
+			return;
+		}
+
+		// the background producers would compete for the processors
+		final ServiceLocator locator = ServiceLocator.getInstance();
+		final IGeneratorService generator = locator.getGeneratorService();
+		if (generator instanceof BackgroundGenerator) {
+			((BackgroundGenerator) generator).shutdown();
+		}
+
+		final long startMillis = System.currentTimeMillis();
+		final int penaltyBefore = Main.getSolutionTable()
+				.getBestPenaltySolution().getPenalty();
+		final IOptimizerService optimizer = locator.getOptimizerService();
+		optimizer.optimizeSolutionTable(budgetMillis);
+		final long time = System.currentTimeMillis() - startMillis;
+		System.out.println("OPTIMIZER: " + optimizer.getOptimizerName()
+				+ ", penalty " + penaltyBefore + " -> "
+				+ optimizer.getBestPenalty() + ", "
+				+ (optimizer.getNumberOfIterations() * 1000 / Math.max(1, time))
+				+ " iterations/s.");
+		System.out.println("OPTIMIZER: Finished after " + time + "ms.");
+
+		Main.callEvaluator();
+		Main.updateSolutionTable();
+	}
+
 	private static void callEvaluator() {
 		final long startMillis = System.currentTimeMillis();
 		if (NEW_EVALUATOR) {
@@ -298,7 +700,7 @@ public final class Main {
 		return ServiceLocator.getInstance().getSolutionTableService();
 	}
 
-	private static void printStatistics() {
+	private static void printStatistics(final IProblemInstance instance) {
 		System.out.println();
 		System.out.println();
 
@@ -321,10 +723,26 @@ public final class Main {
 		System.out.println("-- Generator (Success / Failure): "
 				+ Main.generatorSuccess + " / " + Main.generatorFailure + " ("
 				+ Main.getGeneratorSuccessRatio() + " %)");
+		final CourseDifficultyMemory memory = CourseDifficultyMemory
+				.getMemory(instance);
+		System.out.println("-- Generator first pass (Success / Repaired): "
+				+ (memory.getNumberOfSessions() - memory
+						.getNumberOfFirstPassFailures()) + " / "
+				+ memory.getNumberOfFirstPassFailures());
+		System.out.print("-- Generator hardest courses:");
+		for (final ICourse course : memory.getHardestCourses(5)) {
+			System.out.print(" " + course.getId() + " ("
+					+ memory.getUnassignedCount(course) + ")");
+		}
+		System.out.println();
 
 		System.out.println("-- Recombination (Success / Failure): "
 				+ Main.recombinationSuccess + " / " + Main.recombinationFailure
 				+ " (" + Main.getRecombinationSuccessRatio() + " %)");
+		System.out.println("-- Recombination throughput: "
+				+ ((Main.recombinationSuccess + Main.recombinationFailure)
+						* 1000L / Math.max(1, Main.crazyGenetistMillis))
+				+ " children/s");
 
 		System.out.println("-- Mutation (Success / Failure): "
 				+ Main.mutationSuccess + " / " + Main.mutationFailure + " ("
@@ -447,7 +865,8 @@ public final class Main {
 						.getRecombinationPercentage() + "%");
 		writer.newLine();
 		writer.write("Strategy: "
-				+ ICrazyGenetistService.RECOMBINATION_STRATEGY.getName());
+				+ serviceLocator.getCrazyGenetistService()
+						.getRecombinationStrategyName());
 		writer.newLine();
 		writer.newLine();
 
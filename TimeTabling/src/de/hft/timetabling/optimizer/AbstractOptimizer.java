@@ -0,0 +1,144 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.IOptimizerService;
+import de.hft.timetabling.services.ISolutionTableService;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.util.CodingUtil;
+import de.hft.timetabling.util.MinCostRoomAssignment;
+
+/**
+ * Runs one independent search chain per processor for a given wall-clock time
+ * and keeps the best coding found by any chain. The chains start from the best
+ * solutions given, the first chain from the best one. Subclasses define the
+ * search by creating the chains. Finally, the rooms of the best coding are
+ * reassigned by a {@link MinCostRoomAssignment}.
+ * <p>
+ * Since the chains stop after a fixed time, the result is not reproducible
+ * even for seeded runs.
+ */
+public abstract class AbstractOptimizer implements IOptimizerService {
+
+	private static final int NUMBER_OF_PROCESSORS = Runtime.getRuntime()
+			.availableProcessors();
+
+	private int bestPenalty;
+
+	private long numberOfIterations;
+
+	@Override
+	public void optimizeSolutionTable(final long budgetMillis) {
+		final ISolutionTableService solutionTable = ServiceLocator
+				.getInstance().getSolutionTableService();
+		final List<ISolution> rankedSolutions = solutionTable
+				.getRankedSolutions();
+		if (rankedSolutions.isEmpty()) {
+			return;
+		}
+
+		// the best solution found so far may have left the table already
+		final ISolution bestSolution = solutionTable.getBestPenaltySolution();
+		final List<ISolution> startSolutions = new ArrayList<ISolution>(
+				rankedSolutions);
+		startSolutions.remove(bestSolution);
+		startSolutions.add(0, bestSolution);
+		final ICourse[][] coding = optimize(startSolutions, budgetMillis);
+		if (bestPenalty < bestSolution.getPenalty()) {
+			if (solutionTable.isFull()) {
+				solutionTable.removeWorstSolution(0);
+			}
+			solutionTable.addSolution(solutionTable.createNewSolution(coding,
+					bestSolution.getProblemInstance()));
+		}
+	}
+
+	/**
+	 * Improves the given solutions and returns the best coding found. The
+	 * given solutions are not changed.
+	 * 
+	 * @param rankedSolutions
+	 *            The solutions to start from, ordered from best to worst. Must
+	 *            contain at least one solution.
+	 * @param budgetMillis
+	 *            The wall-clock time to spend in milliseconds.
+	 */
+	public ICourse[][] optimize(final List<ISolution> rankedSolutions,
+			final long budgetMillis) {
+		final ISolution bestSolution = rankedSolutions.get(0);
+		final IProblemInstance instance = bestSolution.getProblemInstance();
+		final int numberOfChains = NUMBER_OF_PROCESSORS;
+		final int numberOfStarts = Math.min(numberOfChains, rankedSolutions
+				.size());
+
+		// The streams are split in a fixed order on the calling thread.
+		final List<OptimizerChain> chains = new ArrayList<OptimizerChain>(
+				numberOfChains);
+		for (int i = 0; i < numberOfChains; i++) {
+			chains.add(createChain(instance, rankedSolutions.get(
+					i % numberOfStarts).getCoding(), Main.newRandomStream(),
+					TimeUnit.MILLISECONDS.toNanos(budgetMillis)));
+		}
+
+		ICourse[][] bestCoding = CodingUtil.copy(bestSolution.getCoding());
+		bestPenalty = bestSolution.getPenalty();
+		numberOfIterations = 0;
+		final ExecutorService exec = Executors
+				.newFixedThreadPool(numberOfChains);
+		try {
+			final List<Future<ICourse[][]>> futureList = exec.invokeAll(chains);
+			for (int i = 0; i < chains.size(); i++) {
+				final ICourse[][] coding = futureList.get(i).get();
+				final OptimizerChain chain = chains.get(i);
+				numberOfIterations += chain.getNumberOfSteps();
+				if (chain.getBestPenalty() < bestPenalty) {
+					bestPenalty = chain.getBestPenalty();
+					bestCoding = coding;
+				}
+			}
+		} catch (final InterruptedException e) {
+			e.printStackTrace();
+		} catch (final ExecutionException e) {
+			e.printStackTrace();
+		} finally {
+			exec.shutdownNow();
+		}
+
+		bestPenalty -= new MinCostRoomAssignment(instance.getInstanceTables())
+				.optimize(bestCoding);
+		return bestCoding;
+	}
+
+	@Override
+	public int getBestPenalty() {
+		return bestPenalty;
+	}
+
+	@Override
+	public long getNumberOfIterations() {
+		return numberOfIterations;
+	}
+
+	/**
+	 * Creates a chain starting from a copy of the given coding.
+	 * 
+	 * @param random
+	 *            The random stream of the chain.
+	 * @param budgetNanos
+	 *            The time the chain may run in nanoseconds.
+	 */
+	abstract OptimizerChain createChain(IProblemInstance instance,
+			ICourse[][] startCoding, Random random, long budgetNanos);
+
+}
@@ -0,0 +1,101 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+
+/**
+ * A simulated annealing chain. Each step moves a random lecture to a random
+ * slot or swaps it with the lecture in that slot. Improving steps are always
+ * accepted, worsening steps with probability <tt>exp(-delta / temperature)</tt>.
+ * <p>
+ * The temperature falls geometrically with the elapsed fraction of the time
+ * budget, from a start temperature at which an average worsening step is
+ * accepted with probability {@link #START_ACCEPTANCE} down to a temperature at
+ * which a worsening by one is accepted with probability
+ * {@link #END_ACCEPTANCE}. The average worsening is sampled from the start
+ * coding before the chain starts.
+ */
+final class AnnealingChain extends OptimizerChain {
+
+	private static final double START_ACCEPTANCE = 0.5;
+
+	private static final double END_ACCEPTANCE = 0.001;
+
+	/** Number of random steps sampled to calibrate the start temperature. */
+	private static final int CALIBRATION_STEPS = 1000;
+
+	/** Steps between two updates of the temperature. */
+	private static final int TEMPERATURE_UPDATE_INTERVAL = 256;
+
+	private final int numberOfPeriods;
+
+	private final int numberOfRooms;
+
+	private double startTemperature;
+
+	private double temperature;
+
+	AnnealingChain(final InstanceTables tables, final ICourse[][] startCoding,
+			final Random random, final long budgetNanos) {
+		super(tables, startCoding, random, budgetNanos,
+				TEMPERATURE_UPDATE_INTERVAL);
+		numberOfPeriods = tables.getNumberOfPeriods();
+		numberOfRooms = tables.getNumberOfRooms();
+	}
+
+	/**
+	 * Sets the start temperature to the temperature at which the average
+	 * worsening step of the start coding is accepted with the start acceptance
+	 * probability. The sampled steps are undone.
+	 */
+	@Override
+	void initialize() {
+		long worsening = 0;
+		int numberOfWorseningSteps = 0;
+		for (int i = 0; i < CALIBRATION_STEPS; i++) {
+			final int period1 = random.nextInt(numberOfPeriods);
+			final int room1 = random.nextInt(numberOfRooms);
+			final int period2 = random.nextInt(numberOfPeriods);
+			final int room2 = random.nextInt(numberOfRooms);
+			final int penaltyBefore = evaluator.getPenalty();
+			if (evaluator.move(period1, room1, period2, room2)) {
+				final int delta = evaluator.getPenalty() - penaltyBefore;
+				if (delta > 0) {
+					worsening += delta;
+					numberOfWorseningSteps++;
+				}
+				evaluator.move(period2, room2, period1, room1);
+			}
+		}
+		final double averageWorsening = (numberOfWorseningSteps == 0) ? 1
+				: (double) worsening / numberOfWorseningSteps;
+		startTemperature = -averageWorsening / Math.log(START_ACCEPTANCE);
+		temperature = startTemperature;
+	}
+
+	@Override
+	void timeElapsed(final double fraction) {
+		final double endTemperature = -1 / Math.log(END_ACCEPTANCE);
+		temperature = startTemperature
+				* Math.pow(endTemperature / startTemperature, fraction);
+	}
+
+	@Override
+	void step() {
+		final int period1 = random.nextInt(numberOfPeriods);
+		final int room1 = random.nextInt(numberOfRooms);
+		final int period2 = random.nextInt(numberOfPeriods);
+		final int room2 = random.nextInt(numberOfRooms);
+		final int penaltyBefore = evaluator.getPenalty();
+		if (evaluator.move(period1, room1, period2, room2)) {
+			final int delta = evaluator.getPenalty() - penaltyBefore;
+			if ((delta > 0)
+					&& (random.nextDouble() >= Math.exp(-delta / temperature))) {
+				evaluator.move(period2, room2, period1, room1);
+			}
+		}
+	}
+
+}
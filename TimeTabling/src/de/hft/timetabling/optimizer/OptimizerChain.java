@@ -0,0 +1,102 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.evaluator.IncrementalEvaluator;
+import de.hft.timetabling.util.CodingUtil;
+
+/**
+ * A local search working on its own copy of a coding for a fixed time. The
+ * subclasses define a single step of the search, which changes the coding of
+ * the evaluator or loads another one. This class keeps track of the time and
+ * of the best coding found. The chain returns the best coding found.
+ */
+abstract class OptimizerChain implements Callable<ICourse[][]> {
+
+	final IncrementalEvaluator evaluator;
+
+	final Random random;
+
+	private final ICourse[][] startCoding;
+
+	private final long budgetNanos;
+
+	/** Steps between two checks of the time. */
+	private final int timeCheckInterval;
+
+	private ICourse[][] bestCoding;
+
+	private int bestPenalty;
+
+	private long numberOfSteps;
+
+	OptimizerChain(final InstanceTables tables, final ICourse[][] startCoding,
+			final Random random, final long budgetNanos,
+			final int timeCheckInterval) {
+		evaluator = new IncrementalEvaluator(tables);
+		this.startCoding = startCoding;
+		this.random = random;
+		this.budgetNanos = budgetNanos;
+		this.timeCheckInterval = timeCheckInterval;
+	}
+
+	/** Returns the penalty of the best coding found. */
+	final int getBestPenalty() {
+		return bestPenalty;
+	}
+
+	/** Returns the number of steps performed so far. */
+	final long getNumberOfSteps() {
+		return numberOfSteps;
+	}
+
+	@Override
+	public final ICourse[][] call() {
+		final long start = System.nanoTime();
+		evaluator.load(CodingUtil.copy(startCoding));
+		bestCoding = CodingUtil.copy(startCoding);
+		bestPenalty = evaluator.getPenalty();
+		initialize();
+
+		while (true) {
+			if ((numberOfSteps % timeCheckInterval) == 0) {
+				final long elapsed = System.nanoTime() - start;
+				if ((elapsed >= budgetNanos)
+						|| Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				timeElapsed((double) elapsed / budgetNanos);
+			}
+			step();
+			numberOfSteps++;
+			if (evaluator.getPenalty() < bestPenalty) {
+				bestPenalty = evaluator.getPenalty();
+				bestCoding = CodingUtil.copy(evaluator.getCoding());
+			}
+		}
+		return bestCoding;
+	}
+
+	/**
+	 * Called once before the first step, after the start coding has been
+	 * loaded into the evaluator. Does nothing by default.
+	 */
+	void initialize() {
+		// Nothing to do by default.
+	}
+
+	/**
+	 * Called whenever the time is checked with the elapsed fraction of the
+	 * time budget. Does nothing by default.
+	 */
+	void timeElapsed(final double fraction) {
+		// Nothing to do by default.
+	}
+
+	/** Performs a single step on the coding of the evaluator. */
+	abstract void step();
+
+}
@@ -0,0 +1,151 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.evaluator.IncrementalEvaluator;
+import de.hft.timetabling.generator.Generator;
+import de.hft.timetabling.generator.NoFeasibleSolutionFoundException;
+import de.hft.timetabling.util.CodingUtil;
+
+/**
+ * A ruin and recreate chain. Each step takes a block of courses out of the
+ * coding, either the courses of a random curriculum, of a random teacher, of a
+ * random period or a small random set of courses, and reinserts them with the
+ * construction and repair algorithm of the {@link Generator} seeded with the
+ * rest of the coding. The best of several attempts replaces the coding unless
+ * it is worse.
+ * <p>
+ * Since the generator assigns courses as a whole, each course of a block is
+ * taken out with all its lectures. A block of a whole day would contain almost
+ * all courses of the competition instances, so single periods are used
+ * instead.
+ */
+final class RuinAndRecreateChain extends OptimizerChain {
+
+	/** Number of attempts to recreate a ruined coding per step. */
+	private static final int NUMBER_OF_ATTEMPTS = 4;
+
+	/** Maximum number of courses in a random block. */
+	private static final int MAX_RANDOM_COURSES = 8;
+
+	/** Steps between two checks of the time. */
+	private static final int TIME_CHECK_INTERVAL = 1;
+
+	private final IProblemInstance instance;
+
+	private final InstanceTables tables;
+
+	private final Generator generator;
+
+	/** Scores the attempts without touching the coding of the chain. */
+	private final IncrementalEvaluator attemptEvaluator;
+
+	private final boolean[] ruined;
+
+	RuinAndRecreateChain(final IProblemInstance instance,
+			final ICourse[][] startCoding, final Random random,
+			final long budgetNanos) {
+		super(instance.getInstanceTables(), startCoding, random, budgetNanos,
+				TIME_CHECK_INTERVAL);
+		this.instance = instance;
+		tables = instance.getInstanceTables();
+		generator = new Generator(random);
+		attemptEvaluator = new IncrementalEvaluator(tables);
+		ruined = new boolean[tables.getNumberOfCourses()];
+	}
+
+	@Override
+	void step() {
+		final List<ICourse> block = selectBlock();
+		if (block.isEmpty()) {
+			return;
+		}
+		final ICourse[][] partialCoding = CodingUtil.copy(evaluator.getCoding());
+		for (final ICourse[] rooms : partialCoding) {
+			for (int room = 0; room < rooms.length; room++) {
+				if ((rooms[room] != null)
+						&& ruined[rooms[room].getUniqueNumber()]) {
+					rooms[room] = null;
+				}
+			}
+		}
+
+		ICourse[][] bestAttempt = null;
+		int bestAttemptPenalty = Integer.MAX_VALUE;
+		for (int i = 0; i < NUMBER_OF_ATTEMPTS; i++) {
+			final ICourse[][] attempt;
+			try {
+				attempt = generator.completeSchedule(instance, partialCoding,
+						block);
+			} catch (final NoFeasibleSolutionFoundException e) {
+				continue;
+			}
+			attemptEvaluator.load(attempt);
+			if (attemptEvaluator.getPenalty() < bestAttemptPenalty) {
+				bestAttempt = attempt;
+				bestAttemptPenalty = attemptEvaluator.getPenalty();
+			}
+		}
+		if ((bestAttempt != null)
+				&& (bestAttemptPenalty <= evaluator.getPenalty())) {
+			evaluator.load(bestAttempt);
+		}
+	}
+
+	/**
+	 * Marks the courses of a random block as ruined and returns them in
+	 * ascending order of their unique numbers.
+	 */
+	private List<ICourse> selectBlock() {
+		final int numberOfCourses = tables.getNumberOfCourses();
+		for (int course = 0; course < numberOfCourses; course++) {
+			ruined[course] = false;
+		}
+		switch (random.nextInt(4)) {
+		case 0:
+			final int curriculum = random.nextInt(tables
+					.getNumberOfCurricula());
+			for (int course = 0; course < numberOfCourses; course++) {
+				for (final int other : tables.getCurriculaOfCourse(course)) {
+					if (other == curriculum) {
+						ruined[course] = true;
+					}
+				}
+			}
+			break;
+		case 1:
+			final int teacher = random.nextInt(tables.getNumberOfTeachers());
+			for (int course = 0; course < numberOfCourses; course++) {
+				ruined[course] = (tables.getTeacherOfCourse(course) == teacher);
+			}
+			break;
+		case 2:
+			final int period = random.nextInt(tables.getNumberOfPeriods());
+			for (final ICourse course : evaluator.getCoding()[period]) {
+				if (course != null) {
+					ruined[course.getUniqueNumber()] = true;
+				}
+			}
+			break;
+		default:
+			final int size = 1 + random.nextInt(MAX_RANDOM_COURSES);
+			for (int i = 0; i < size; i++) {
+				ruined[random.nextInt(numberOfCourses)] = true;
+			}
+		}
+
+		final List<ICourse> block = new ArrayList<ICourse>();
+		for (int course = 0; course < numberOfCourses; course++) {
+			if (ruined[course]) {
+				block.add(tables.getCourse(course));
+			}
+		}
+		return block;
+	}
+
+}
@@ -0,0 +1,29 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+
+/**
+ * Improves the best solutions by taking blocks of courses out and reinserting
+ * them with the generator, see {@link RuinAndRecreateChain}.
+ */
+public final class RuinAndRecreateOptimizer extends AbstractOptimizer {
+
+	private static final String NAME = "Ruin and Recreate";
+
+	@Override
+	OptimizerChain createChain(final IProblemInstance instance,
+			final ICourse[][] startCoding, final Random random,
+			final long budgetNanos) {
+		return new RuinAndRecreateChain(instance, startCoding, random,
+				budgetNanos);
+	}
+
+	@Override
+	public String getOptimizerName() {
+		return NAME;
+	}
+
+}
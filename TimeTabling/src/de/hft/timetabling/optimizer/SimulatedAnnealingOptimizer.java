@@ -0,0 +1,29 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+
+/**
+ * Improves the best solutions by simulated annealing over lecture moves and
+ * swaps, see {@link AnnealingChain}.
+ */
+public final class SimulatedAnnealingOptimizer extends AbstractOptimizer {
+
+	private static final String NAME = "Simulated Annealing";
+
+	@Override
+	OptimizerChain createChain(final IProblemInstance instance,
+			final ICourse[][] startCoding, final Random random,
+			final long budgetNanos) {
+		return new AnnealingChain(instance.getInstanceTables(), startCoding, random,
+				budgetNanos);
+	}
+
+	@Override
+	public String getOptimizerName() {
+		return NAME;
+	}
+
+}
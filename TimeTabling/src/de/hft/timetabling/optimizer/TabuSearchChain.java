@@ -0,0 +1,115 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+
+/**
+ * A tabu search chain. Each step samples a candidate list of random moves of a
+ * lecture to a random slot, swapping it with the lecture in that slot if the
+ * slot is occupied, and performs the best candidate that is not tabu, even if
+ * it is worsening. Each candidate is scored incrementally by performing and
+ * undoing it.
+ * <p>
+ * When a lecture leaves a period, its course may not return to that period for
+ * a random tenure of steps. A tabu move is allowed anyway if it leads to a
+ * penalty below the best penalty found so far (aspiration). Moves between the
+ * rooms of a single period are never tabu.
+ */
+final class TabuSearchChain extends OptimizerChain {
+
+	/** Number of moves sampled per step. */
+	private static final int NUMBER_OF_CANDIDATES = 1000;
+
+	private static final int MIN_TENURE = 10;
+
+	private static final int TENURE_RANGE = 10;
+
+	/** Steps between two checks of the time. */
+	private static final int TIME_CHECK_INTERVAL = 1;
+
+	private final int numberOfPeriods;
+
+	private final int numberOfRooms;
+
+	/**
+	 * The step from which on a course may be moved to a period again, per
+	 * course and period.
+	 */
+	private final long[][] tabuUntil;
+
+	TabuSearchChain(final InstanceTables tables, final ICourse[][] startCoding,
+			final Random random, final long budgetNanos) {
+		super(tables, startCoding, random, budgetNanos, TIME_CHECK_INTERVAL);
+		numberOfPeriods = tables.getNumberOfPeriods();
+		numberOfRooms = tables.getNumberOfRooms();
+		tabuUntil = new long[tables.getNumberOfCourses()][numberOfPeriods];
+	}
+
+	@Override
+	void step() {
+		int bestCandidatePenalty = Integer.MAX_VALUE;
+		int bestPeriod1 = -1;
+		int bestRoom1 = -1;
+		int bestPeriod2 = -1;
+		int bestRoom2 = -1;
+		for (int i = 0; i < NUMBER_OF_CANDIDATES; i++) {
+			final int period1 = random.nextInt(numberOfPeriods);
+			final int room1 = random.nextInt(numberOfRooms);
+			final int period2 = random.nextInt(numberOfPeriods);
+			final int room2 = random.nextInt(numberOfRooms);
+			final boolean tabu = isTabu(period1, room1, period2, room2);
+			if (!evaluator.move(period1, room1, period2, room2)) {
+				continue;
+			}
+			final int penalty = evaluator.getPenalty();
+			evaluator.move(period2, room2, period1, room1);
+			if ((penalty < bestCandidatePenalty)
+					&& (!tabu || (penalty < getBestPenalty()))) {
+				bestCandidatePenalty = penalty;
+				bestPeriod1 = period1;
+				bestRoom1 = room1;
+				bestPeriod2 = period2;
+				bestRoom2 = room2;
+			}
+		}
+		if (bestPeriod1 < 0) {
+			return;
+		}
+
+		final ICourse[][] coding = evaluator.getCoding();
+		final ICourse first = coding[bestPeriod1][bestRoom1];
+		final ICourse second = coding[bestPeriod2][bestRoom2];
+		evaluator.move(bestPeriod1, bestRoom1, bestPeriod2, bestRoom2);
+		if (bestPeriod1 != bestPeriod2) {
+			makeTabu(first, bestPeriod1);
+			if (second != null) {
+				makeTabu(second, bestPeriod2);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the move would bring a course back to a period it has
+	 * recently left.
+	 */
+	private boolean isTabu(final int period1, final int room1,
+			final int period2, final int room2) {
+		if (period1 == period2) {
+			return false;
+		}
+		final ICourse[][] coding = evaluator.getCoding();
+		final ICourse first = coding[period1][room1];
+		final ICourse second = coding[period2][room2];
+		final long step = getNumberOfSteps();
+		return ((first != null) && (tabuUntil[first.getUniqueNumber()][period2] > step))
+				|| ((second != null) && (tabuUntil[second.getUniqueNumber()][period1] > step));
+	}
+
+	private void makeTabu(final ICourse course, final int period) {
+		tabuUntil[course.getUniqueNumber()][period] = getNumberOfSteps()
+				+ MIN_TENURE + random.nextInt(TENURE_RANGE);
+	}
+
+}
@@ -0,0 +1,29 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.IProblemInstance;
+
+/**
+ * Improves the best solutions by tabu search over lecture moves and swaps,
+ * see {@link TabuSearchChain}.
+ */
+public final class TabuSearchOptimizer extends AbstractOptimizer {
+
+	private static final String NAME = "Tabu Search";
+
+	@Override
+	OptimizerChain createChain(final IProblemInstance instance,
+			final ICourse[][] startCoding, final Random random,
+			final long budgetNanos) {
+		return new TabuSearchChain(instance.getInstanceTables(), startCoding, random,
+				budgetNanos);
+	}
+
+	@Override
+	public String getOptimizerName() {
+		return NAME;
+	}
+
+}
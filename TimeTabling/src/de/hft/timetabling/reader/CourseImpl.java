@@ -26,19 +26,23 @@ final class CourseImpl implements ICourse {
 
 	private final String teacher;
 
+	private final int uniqueNumber;
+
 	private final IProblemInstance problemInstance;
 
 	private final Set<ICurriculum> curricula;
 
 	CourseImpl(final String id, final int minWorkingDays,
 			final int numberOfLectures, final int numberOfStudents,
-			final String teacher, final IProblemInstance problemInstance) {
+			final String teacher, final int uniqueNumber,
+			final IProblemInstance problemInstance) {
 
 		this.id = id;
 		this.minWorkingDays = minWorkingDays;
 		this.numberOfLectures = numberOfLectures;
 		this.numberOfStudents = numberOfStudents;
 		this.teacher = teacher;
+		this.uniqueNumber = uniqueNumber;
 		this.problemInstance = problemInstance;
 		curricula = new LinkedHashSet<ICurriculum>();
 	}
@@ -73,6 +77,11 @@ final class CourseImpl implements ICourse {
 		return teacher;
 	}
 
+	@Override
+	public int getUniqueNumber() {
+		return uniqueNumber;
+	}
+
 	@Override
 	public synchronized Set<ICurriculum> getCurricula() {
 		if (curricula.isEmpty()) {
@@ -11,6 +11,7 @@ import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.IRoom;
+import de.hft.timetabling.common.InstanceTables;
 
 /**
  * Immutable implementation of the {@link IProblemInstance} interface.
@@ -51,6 +52,8 @@ final class ProblemInstanceImpl implements IProblemInstance {
 
 	private final Map<String, ICourse> coursesById;
 
+	private volatile InstanceTables instanceTables;
+
 	public ProblemInstanceImpl(final String fileName, final String name,
 			final int numberOfCourses, final int numberOfRooms,
 			final int numberOfDays, final int periodsPerDay,
@@ -137,6 +140,26 @@ final class ProblemInstanceImpl implements IProblemInstance {
 		unavailabilityConstraints.put(course, periodsForCourse);
 	}
 
+	/**
+	 * Computes the instance tables. Must be called once all information has
+	 * been added to this problem instance.
+	 */
+	void preprocess() {
+		instanceTables = new InstanceTables(this);
+	}
+
+	@Override
+	public InstanceTables getInstanceTables() {
+		if (instanceTables == null) {
+			synchronized (this) {
+				if (instanceTables == null) {
+					preprocess();
+				}
+			}
+		}
+		return instanceTables;
+	}
+
 	@Override
 	public Set<ICourse> getCourses() {
 		return Collections.unmodifiableSet(courses);
@@ -168,6 +191,10 @@ final class ProblemInstanceImpl implements IProblemInstance {
 
 	@Override
 	public IRoom getRoomByUniqueNumber(final int uniqueRoomNumber) {
+		if ((instanceTables != null) && (uniqueRoomNumber >= 0)
+				&& (uniqueRoomNumber < numberOfRooms)) {
+			return instanceTables.getRoom(uniqueRoomNumber);
+		}
 		for (final IRoom room : rooms) {
 			if (room.getUniqueNumber() == uniqueRoomNumber) {
 				return room;
@@ -32,6 +32,9 @@ public final class Reader implements IReaderService {
 	/** The current unique number that is assigned to a room. */
 	private int currentUniqueRoomNumber;
 
+	/** The current unique number that is assigned to a course. */
+	private int currentUniqueCourseNumber;
+
 	@Override
 	public IProblemInstance readInstance(final String fileName)
 			throws IOException {
@@ -41,6 +44,7 @@ public final class Reader implements IReaderService {
 		final ProblemInstanceImpl instance = parseGeneralInformation(lines,
 				fileName);
 		parseContents(lines, instance);
+		instance.preprocess();
 		System.out.print(" ... success.\n");
 		return instance;
 	}
@@ -132,6 +136,7 @@ public final class Reader implements IReaderService {
 
 	private void reset() {
 		currentUniqueRoomNumber = 0;
+		currentUniqueCourseNumber = 0;
 	}
 
 	/**
@@ -294,8 +299,10 @@ public final class Reader implements IReaderService {
 		final int minWorkingDays = Integer.valueOf(tokenizer.nextToken());
 		final int numberOfStudents = Integer.valueOf(tokenizer.nextToken());
 		final ICourse course = new CourseImpl(id, minWorkingDays,
-				numberOfLectures, numberOfStudents, teacher, instance);
+				numberOfLectures, numberOfStudents, teacher,
+				currentUniqueCourseNumber, instance);
 		instance.addCourse(course);
+		currentUniqueCourseNumber++;
 	}
 
 	@Override
@@ -1,7 +1,7 @@
 package de.hft.timetabling.services;
 
 import de.hft.timetabling.genetist.CourseExchangeRecombinationStrategy;
-import de.hft.timetabling.genetist.RecombinationStrategy;
+import de.hft.timetabling.genetist.RecombinationStrategyFactory;
 
 /**
  * Interface of the genetist.
@@ -17,8 +17,14 @@ public interface ICrazyGenetistService {
 	 */
 	int getRecombinationPercentage();
 
-	/** The strategy to use for recombination. */
-	RecombinationStrategy RECOMBINATION_STRATEGY = new CourseExchangeRecombinationStrategy();
+	/**
+	 * Creates the instances of the strategy to use for recombination. Each
+	 * thread performing recombination gets an instance of its own.
+	 */
+	RecombinationStrategyFactory RECOMBINATION_STRATEGY_FACTORY = CourseExchangeRecombinationStrategy.FACTORY;
+
+	/** Returns the name of the strategy used for recombination. */
+	String getRecombinationStrategyName();
 
 	/**
 	 * Method to start one iteration of recombination.
@@ -0,0 +1,32 @@
+package de.hft.timetabling.services;
+
+/**
+ * An optimizer improves the best solutions of the solution table by local
+ * search for a given wall-clock time, e.g. after the last iteration of the
+ * genetic algorithm.
+ */
+public interface IOptimizerService {
+
+	/**
+	 * Improves the best solutions of the solution table for the given time. If
+	 * a solution better than the best solution of the table is found, it is
+	 * added to the solution table in place of the worst solution. The added
+	 * solution has not been voted yet.
+	 * 
+	 * @param budgetMillis
+	 *            The wall-clock time to spend in milliseconds.
+	 */
+	void optimizeSolutionTable(long budgetMillis);
+
+	/** Returns the penalty of the best solution found by the last run. */
+	int getBestPenalty();
+
+	/**
+	 * Returns the number of iterations performed by the last run, summed up
+	 * over all threads.
+	 */
+	long getNumberOfIterations();
+
+	String getOptimizerName();
+
+}
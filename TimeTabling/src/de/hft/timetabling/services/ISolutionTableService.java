@@ -101,6 +101,19 @@ public interface ISolutionTableService {
 
 	void voteForSolution(int index, int penalty, int fairness);
 
+	/**
+	 * Adds the given solution that has already been evaluated directly to the
+	 * voted solutions. Unlike voting for a not voted solution, the best and
+	 * worst solutions are updated right away, so no call to {@link #update()}
+	 * is needed and the ages of the solutions stay the same. Returns whether
+	 * the solution has been added, which is not the case if a solution with
+	 * the same penalty and fairness is already contained.
+	 * 
+	 * @throws RuntimeException
+	 *             If the solution table is full.
+	 */
+	boolean addVotedSolution(ISolution solution, int penalty, int fairness);
+
 	/**
 	 * Returns a list containing all solutions that have not been voted yet.
 	 */
@@ -158,10 +171,19 @@ public interface ISolutionTableService {
 	boolean remove(ISolution solution);
 
 	/**
-	 * Returns the solution at the given index.
+	 * Returns the solution at the given index. Index <tt>0</tt> is the best
+	 * voted solution.
 	 */
 	ISolution getSolution(int index);
 
+	/**
+	 * Returns an unmodifiable list of all voted solutions ordered from best to
+	 * worst. The list is built once after each modification of the solution
+	 * table, so indexed access is possible in constant time. The list is a
+	 * snapshot that does not change when the solution table is modified later.
+	 */
+	List<ISolution> getRankedSolutions();
+
 	/**
 	 * compare parameter value with penalty of worst solution (last())
 	 * 
@@ -1,5 +1,8 @@
 package de.hft.timetabling.services;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 /**
  * The service locator is a singleton granting access to the various sub systems
  * (called services) of the overall system. By doing so, it reduces the coupling
@@ -13,8 +16,63 @@ public final class ServiceLocator {
 
 	private static final ServiceLocator instance = new ServiceLocator();
 
+	/** The service locators bound to individual threads, see {@link #bind}. */
+	private static final ThreadLocal<ServiceLocator> boundInstance = new ThreadLocal<ServiceLocator>();
+
+	/**
+	 * Returns the service locator bound to the current thread or the global
+	 * service locator if none is bound.
+	 */
 	public static ServiceLocator getInstance() {
-		return instance;
+		final ServiceLocator bound = boundInstance.get();
+		return (bound == null) ? instance : bound;
+	}
+
+	/**
+	 * Creates a new service locator without any services. It is used by
+	 * threads running their own set of services after binding it, e.g. the
+	 * islands of the island model.
+	 */
+	public static ServiceLocator createLocator() {
+		return new ServiceLocator();
+	}
+
+	/**
+	 * Binds the given service locator to the current thread, so that
+	 * {@link #getInstance()} returns it on this thread. Passing <tt>null</tt>
+	 * restores the global service locator. Threads started later do not
+	 * inherit the binding unless they are created by a thread factory of
+	 * {@link #createBoundThreadFactory()}.
+	 */
+	public static void bind(final ServiceLocator locator) {
+		if (locator == null) {
+			boundInstance.remove();
+		} else {
+			boundInstance.set(locator);
+		}
+	}
+
+	/**
+	 * Returns a thread factory whose threads are bound to the service locator
+	 * of the calling thread. Services running tasks on a thread pool create
+	 * the pool with it, so the tasks use the same services as the thread that
+	 * created the service.
+	 */
+	public static ThreadFactory createBoundThreadFactory() {
+		final ServiceLocator locator = getInstance();
+		final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				return threadFactory.newThread(new Runnable() {
+					@Override
+					public void run() {
+						bind(locator);
+						runnable.run();
+					}
+				});
+			}
+		};
 	}
 
 	private ISolutionTableService solutionTableService;
@@ -31,6 +89,8 @@ public final class ServiceLocator {
 
 	private IEvaluatorService evaluatorService;
 
+	private IOptimizerService optimizerService;
+
 	private ServiceLocator() {
 		// Singleton constructor.
 	}
@@ -84,6 +144,13 @@ public final class ServiceLocator {
 		return evaluatorService;
 	}
 
+	public IOptimizerService getOptimizerService() {
+		if (optimizerService == null) {
+			throw new RuntimeException("Optimizer service not available.");
+		}
+		return optimizerService;
+	}
+
 	public void setSolutionTableService(
 			final ISolutionTableService solutionTableService) {
 		this.solutionTableService = solutionTableService;
@@ -114,6 +181,10 @@ public final class ServiceLocator {
 		this.evaluatorService = evaluatorService;
 	}
 
+	public void setOptimizerService(final IOptimizerService optimizerService) {
+		this.optimizerService = optimizerService;
+	}
+
 	@Override
 	public String toString() {
 		return "Service Locator";
@@ -1,6 +1,7 @@
 package de.hft.timetabling.solutiontable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -36,6 +37,12 @@ public final class SolutionTable implements ISolutionTableService {
 
 	private int maximumSize;
 
+	/**
+	 * The voted solutions ordered from best to worst or <tt>null</tt> if the
+	 * solution table has been modified since the list was built.
+	 */
+	private List<ISolution> rankedSolutions;
+
 	/**
 	 * When voting, a solution moves from the not voted list to the real
 	 * solution table. To assure that further indexes of calls to
@@ -132,6 +139,7 @@ public final class SolutionTable implements ISolutionTableService {
 		notVotedTable.remove(index);
 		((SolutionImpl) solution).setPenalty(penalty);
 		((SolutionImpl) solution).setFairness(fairness);
+		rankedSolutions = null;
 		final boolean added = solutionTable.add(new WeightedSolution(solution,
 				penalty, fairness));
 		if (added) {
@@ -142,6 +150,30 @@ public final class SolutionTable implements ISolutionTableService {
 		currentNotVotedCount--;
 	}
 
+	@Override
+	public boolean addVotedSolution(final ISolution solution,
+			final int penalty, final int fairness) {
+		if (getSize(true) == maximumSize) {
+			throw new RuntimeException(
+					"Insertion of solution failed because the solution table is full.");
+		}
+		((SolutionImpl) solution).setPenalty(penalty);
+		((SolutionImpl) solution).setFairness(fairness);
+		final WeightedSolution weightedSolution = new WeightedSolution(
+				solution, penalty, fairness);
+		if (!(solutionTable.add(weightedSolution))) {
+			Main.solutionTableInsertionFailure++;
+			return false;
+		}
+		Main.solutionTableInsertionSuccess++;
+		rankedSolutions = null;
+		offerBestPenaltySolution(weightedSolution);
+		offerBestFairnessSolution(weightedSolution);
+		offerWorstPenaltySolution(weightedSolution);
+		offerWorstFairnessSolution(weightedSolution);
+		return true;
+	}
+
 	@Override
 	public int getSize(final boolean includeNotVotedSolutions) {
 		if (includeNotVotedSolutions) {
@@ -152,6 +184,7 @@ public final class SolutionTable implements ISolutionTableService {
 
 	@Override
 	public ISolution removeWorstSolution(final int minAge) {
+		rankedSolutions = null;
 		final Set<WeightedSolution> removed = new TreeSet<WeightedSolution>();
 		ISolution removedSolution = null;
 		boolean removalOk = false;
@@ -179,6 +212,7 @@ public final class SolutionTable implements ISolutionTableService {
 
 	@Override
 	public boolean remove(final ISolution solution) {
+		rankedSolutions = null;
 		for (final WeightedSolution weightedSolution : solutionTable) {
 			if (weightedSolution.getSolution().equals(solution)) {
 				return solutionTable.remove(weightedSolution);
@@ -220,9 +254,20 @@ public final class SolutionTable implements ISolutionTableService {
 
 	@Override
 	public ISolution getSolution(final int index) {
-		final WeightedSolution[] array = solutionTable
-				.toArray(new WeightedSolution[getSize(false)]);
-		return array[index].getSolution();
+		return getRankedSolutions().get(index);
+	}
+
+	@Override
+	public List<ISolution> getRankedSolutions() {
+		if (rankedSolutions == null) {
+			final List<ISolution> solutions = new ArrayList<ISolution>(
+					solutionTable.size());
+			for (final WeightedSolution weightedSolution : solutionTable) {
+				solutions.add(weightedSolution.getSolution());
+			}
+			rankedSolutions = Collections.unmodifiableList(solutions);
+		}
+		return rankedSolutions;
 	}
 
 	@Override
@@ -257,33 +302,49 @@ public final class SolutionTable implements ISolutionTableService {
 		if (bestFairnessInTable == null) {
 			throw new RuntimeException();
 		}
+		offerBestFairnessSolution(bestFairnessInTable);
+	}
 
+	/**
+	 * Makes the given solution the best fairness solution if it is fairer
+	 * than the current one or equally fair with fewer penalty points.
+	 */
+	private void offerBestFairnessSolution(
+			final WeightedSolution candidate) {
 		if (bestFairnessSolution == null) {
-			bestFairnessSolution = bestFairnessInTable;
+			bestFairnessSolution = candidate;
 		}
 		// case when fairness is same, e.g. fairness = 0
-		else if (bestFairnessSolution.getFairness() == bestFairnessInTable
+		else if (bestFairnessSolution.getFairness() == candidate
 				.getFairness()) {
-			if (bestFairnessInTable.getPenalty() < bestFairnessSolution
+			if (candidate.getPenalty() < bestFairnessSolution
 					.getPenalty()) {
-				bestFairnessSolution = bestFairnessInTable;
+				bestFairnessSolution = candidate;
 			}
 		} else {
-			if (bestFairnessInTable.getFairness() < bestFairnessSolution
+			if (candidate.getFairness() < bestFairnessSolution
 					.getFairness()) {
-				bestFairnessSolution = bestFairnessInTable;
+				bestFairnessSolution = candidate;
 			}
 		}
 	}
 
 	private void updateBestPenaltySolution() {
-		final WeightedSolution bestPenaltyInTable = solutionTable.first();
+		offerBestPenaltySolution(solutionTable.first());
+	}
+
+	/**
+	 * Makes the given solution the best penalty solution if it has fewer
+	 * penalty points than the current one.
+	 */
+	private void offerBestPenaltySolution(
+			final WeightedSolution candidate) {
 		if (bestPenaltySolution == null) {
-			bestPenaltySolution = bestPenaltyInTable;
+			bestPenaltySolution = candidate;
 		} else {
-			if (bestPenaltyInTable.getPenalty() < bestPenaltySolution
+			if (candidate.getPenalty() < bestPenaltySolution
 					.getPenalty()) {
-				bestPenaltySolution = bestPenaltyInTable;
+				bestPenaltySolution = candidate;
 			}
 		}
 	}
@@ -304,33 +365,49 @@ public final class SolutionTable implements ISolutionTableService {
 		if (worstFairnessInTable == null) {
 			throw new RuntimeException();
 		}
+		offerWorstFairnessSolution(worstFairnessInTable);
+	}
 
+	/**
+	 * Makes the given solution the worst fairness solution if it is less
+	 * fair than the current one or equally fair with more penalty points.
+	 */
+	private void offerWorstFairnessSolution(
+			final WeightedSolution candidate) {
 		if (worstFairnessSolution == null) {
-			worstFairnessSolution = worstFairnessInTable;
+			worstFairnessSolution = candidate;
 		}
 		// case when fairness is same, e.g. fairness = 0
-		else if (worstFairnessSolution.getFairness() == worstFairnessInTable
+		else if (worstFairnessSolution.getFairness() == candidate
 				.getFairness()) {
-			if (worstFairnessInTable.getPenalty() > worstFairnessSolution
+			if (candidate.getPenalty() > worstFairnessSolution
 					.getPenalty()) {
-				worstFairnessSolution = worstFairnessInTable;
+				worstFairnessSolution = candidate;
 			}
 		} else {
-			if (worstFairnessInTable.getFairness() > worstFairnessSolution
+			if (candidate.getFairness() > worstFairnessSolution
 					.getFairness()) {
-				worstFairnessSolution = worstFairnessInTable;
+				worstFairnessSolution = candidate;
 			}
 		}
 	}
 
 	private void updateWorstPenaltySolution() {
-		final WeightedSolution worstPenaltyInTable = solutionTable.last();
+		offerWorstPenaltySolution(solutionTable.last());
+	}
+
+	/**
+	 * Makes the given solution the worst penalty solution if it has more
+	 * penalty points than the current one.
+	 */
+	private void offerWorstPenaltySolution(
+			final WeightedSolution candidate) {
 		if (worstPenaltySolution == null) {
-			worstPenaltySolution = worstPenaltyInTable;
+			worstPenaltySolution = candidate;
 		} else {
-			if (worstPenaltyInTable.getPenalty() > worstPenaltySolution
+			if (candidate.getPenalty() > worstPenaltySolution
 					.getPenalty()) {
-				worstPenaltySolution = worstPenaltyInTable;
+				worstPenaltySolution = candidate;
 			}
 		}
 	}
@@ -351,6 +428,7 @@ public final class SolutionTable implements ISolutionTableService {
 	@Override
 	public void clear() {
 		solutionTable.clear();
+		rankedSolutions = null;
 		notVotedTable.clear();
 		bestPenaltySolution = null;
 		bestFairnessSolution = null;
@@ -0,0 +1,213 @@
+package de.hft.timetabling.util;
+
+/**
+ * Provides utility methods to work with bit sets that are stored as plain
+ * <tt>long</tt> arrays. Compared to {@link java.util.BitSet} these bit sets can
+ * be copied, cleared and stored in tables without any object overhead, which
+ * makes them suitable for the inner loops of the construction and search
+ * algorithms.
+ * <p>
+ * Bit <tt>i</tt> is stored in word <tt>i / 64</tt> at position
+ * <tt>i % 64</tt>.
+ */
+public final class BitSetUtil {
+
+	/**
+	 * Returns how many <tt>long</tt> words are required to store a bit set
+	 * with the given number of bits.
+	 *
+	 * @param numberOfBits
+	 *            The number of bits the bit set must be able to hold.
+	 */
+	public static int getNumberOfWords(final int numberOfBits) {
+		return (numberOfBits + 63) >>> 6;
+	}
+
+	/**
+	 * Creates a new, empty bit set able to hold the given number of bits.
+	 *
+	 * @param numberOfBits
+	 *            The number of bits the bit set must be able to hold.
+	 */
+	public static long[] create(final int numberOfBits) {
+		return new long[getNumberOfWords(numberOfBits)];
+	}
+
+	/**
+	 * Returns whether the given bit is set.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 * @param index
+	 *            The index of the bit to check.
+	 */
+	public static boolean get(final long[] bits, final int index) {
+		return (bits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Sets the given bit.
+	 *
+	 * @param bits
+	 *            The bit set to modify.
+	 * @param index
+	 *            The index of the bit to set.
+	 */
+	public static void set(final long[] bits, final int index) {
+		bits[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 * Clears the given bit.
+	 *
+	 * @param bits
+	 *            The bit set to modify.
+	 * @param index
+	 *            The index of the bit to clear.
+	 */
+	public static void clear(final long[] bits, final int index) {
+		bits[index >>> 6] &= ~(1L << index);
+	}
+
+	/**
+	 * Sets the bits <tt>0</tt> (inclusive) to <tt>numberOfBits</tt>
+	 * (exclusive).
+	 *
+	 * @param bits
+	 *            The bit set to modify.
+	 * @param numberOfBits
+	 *            The number of leading bits to set.
+	 */
+	public static void setAll(final long[] bits, final int numberOfBits) {
+		final int fullWords = numberOfBits >>> 6;
+		for (int i = 0; i < fullWords; i++) {
+			bits[i] = -1L;
+		}
+		if ((numberOfBits & 63) != 0) {
+			bits[fullWords] = (1L << numberOfBits) - 1;
+		}
+	}
+
+	/**
+	 * Returns how many bits are set in the given bit set.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 */
+	public static int cardinality(final long[] bits) {
+		int count = 0;
+		for (final long word : bits) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns whether no bit is set in the given bit set.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 */
+	public static boolean isEmpty(final long[] bits) {
+		for (final long word : bits) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether the two given bit sets have at least one bit in common.
+	 *
+	 * @param bits1
+	 *            The first bit set.
+	 * @param bits2
+	 *            The second bit set, must have the same length as the first.
+	 */
+	public static boolean intersects(final long[] bits1, final long[] bits2) {
+		for (int i = 0; i < bits1.length; i++) {
+			if ((bits1[i] & bits2[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the index of the first set bit that is equal to or higher than
+	 * the given start index or <tt>-1</tt> if there is no such bit.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 * @param fromIndex
+	 *            The index to start searching from (inclusive).
+	 */
+	public static int nextSetBit(final long[] bits, final int fromIndex) {
+		int wordIndex = fromIndex >>> 6;
+		if (wordIndex >= bits.length) {
+			return -1;
+		}
+		long word = bits[wordIndex] & (-1L << fromIndex);
+		while (true) {
+			if (word != 0) {
+				return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+			}
+			wordIndex++;
+			if (wordIndex == bits.length) {
+				return -1;
+			}
+			word = bits[wordIndex];
+		}
+	}
+
+	/**
+	 * Returns the index of the <tt>n</tt>-th (zero-based) set bit of the given
+	 * bit set or <tt>-1</tt> if less than <tt>n + 1</tt> bits are set. This
+	 * allows to select a uniformly distributed random element from a bit set
+	 * by drawing <tt>n</tt> from <tt>[0, cardinality)</tt>.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 * @param n
+	 *            The zero-based rank of the set bit to search for.
+	 */
+	public static int selectSetBit(final long[] bits, int n) {
+		for (int wordIndex = 0; wordIndex < bits.length; wordIndex++) {
+			long word = bits[wordIndex];
+			final int count = Long.bitCount(word);
+			if (n >= count) {
+				n -= count;
+				continue;
+			}
+			while (n > 0) {
+				// Drop the lowest set bit.
+				word &= word - 1;
+				n--;
+			}
+			return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the indices of all set bits in ascending order.
+	 *
+	 * @param bits
+	 *            The bit set to inspect.
+	 */
+	public static int[] toArray(final long[] bits) {
+		final int[] result = new int[cardinality(bits)];
+		int i = 0;
+		for (int index = nextSetBit(bits, 0); index >= 0; index = nextSetBit(
+				bits, index + 1)) {
+			result[i++] = index;
+		}
+		return result;
+	}
+
+	private BitSetUtil() {
+		// Utility class not to be instantiated.
+	}
+
+}
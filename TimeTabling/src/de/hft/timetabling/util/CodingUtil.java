@@ -0,0 +1,30 @@
+package de.hft.timetabling.util;
+
+import de.hft.timetabling.common.ICourse;
+
+/**
+ * Provides utility methods to work with codings, the period x room arrays of
+ * courses describing a schedule.
+ */
+public final class CodingUtil {
+
+	/**
+	 * Returns a deep copy of the given coding. The rows are copied, the courses
+	 * are shared, so the copy can be changed without affecting the original.
+	 *
+	 * @param coding
+	 *            The coding to copy.
+	 */
+	public static ICourse[][] copy(final ICourse[][] coding) {
+		final ICourse[][] copy = new ICourse[coding.length][];
+		for (int period = 0; period < coding.length; period++) {
+			copy[period] = coding[period].clone();
+		}
+		return copy;
+	}
+
+	private CodingUtil() {
+		// Utility class not to be instantiated.
+	}
+
+}
@@ -0,0 +1,80 @@
+package de.hft.timetabling.util;
+
+/**
+ * Derives the time budget of a run on the current machine, in the spirit of
+ * the benchmark program of the International Timetabling Competition 2007. A
+ * fixed single-threaded workload of integer arithmetic, floating point
+ * arithmetic and random memory accesses is timed, and the budget is scaled by
+ * how long the workload takes compared to the reference machine. A machine
+ * half as fast as the reference machine thus gets twice the time.
+ */
+public final class CpuBenchmark {
+
+	/** The time budget granted on the reference machine in milliseconds. */
+	public static final long REFERENCE_BUDGET_MILLIS = 300000;
+
+	/**
+	 * The time the workload takes on the reference machine in nanoseconds. The
+	 * reference machine is a single core of an Intel Xeon server processor
+	 * running OpenJDK 17, on which {@link #measureNanos()} returned between 178
+	 * and 192 ms over several runs.
+	 */
+	public static final long REFERENCE_BENCHMARK_NANOS = 180000000L;
+
+	/** The workload is timed several times to exclude the compilation. */
+	private static final int NUMBER_OF_RUNS = 5;
+
+	private static final int NUMBER_OF_ROUNDS = 24;
+
+	/** The size of the memory the workload accesses, 4 MB. */
+	private static final int ARRAY_SIZE = 1 << 20;
+
+	/** Prevents the workload from being optimized away. */
+	private static volatile long checksum;
+
+	private CpuBenchmark() {
+		// Utility class.
+	}
+
+	/**
+	 * Runs the workload and returns the shortest of the measured times in
+	 * nanoseconds.
+	 */
+	public static long measureNanos() {
+		long bestNanos = Long.MAX_VALUE;
+		for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+			final long start = System.nanoTime();
+			checksum += runWorkload();
+			bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+		}
+		return Math.max(1, bestNanos);
+	}
+
+	/**
+	 * Returns the time budget on this machine for the given measured time of
+	 * the workload in nanoseconds. The ratio is taken before rounding, so
+	 * short measurements do not lose precision.
+	 */
+	public static long getBudgetMillis(final long benchmarkNanos) {
+		return Math.round((double) REFERENCE_BUDGET_MILLIS * benchmarkNanos
+				/ REFERENCE_BENCHMARK_NANOS);
+	}
+
+	private static long runWorkload() {
+		final int[] data = new int[ARRAY_SIZE];
+		long x = 88172645463325252L;
+		double y = 0;
+		for (int round = 0; round < NUMBER_OF_ROUNDS; round++) {
+			for (int i = 0; i < ARRAY_SIZE; i++) {
+				x ^= x << 13;
+				x ^= x >>> 7;
+				x ^= x << 17;
+				final int index = (int) (x & (ARRAY_SIZE - 1));
+				data[index] += i;
+				y += Math.sqrt(data[index] & 0xffff) * 0.5;
+			}
+		}
+		return x + data[ARRAY_SIZE - 1] + (long) y;
+	}
+
+}
@@ -80,7 +80,8 @@ public final class HardConstraintUtil {
 			final int period) {
 
 		final IProblemInstance instance = course.getProblemInstance();
-		return instance.getUnavailabilityConstraints(course).contains(period);
+		return instance.getInstanceTables().isUnavailable(
+				course.getUniqueNumber(), period);
 	}
 
 }
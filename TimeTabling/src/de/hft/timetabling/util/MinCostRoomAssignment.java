@@ -0,0 +1,217 @@
+package de.hft.timetabling.util;
+
+import java.util.Arrays;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+
+/**
+ * Reassigns the rooms of the lectures within their periods so that the room
+ * capacity and room stability penalties are minimal for the given periods.
+ * <p>
+ * With the rooms of all other periods fixed, a lecture of a course in a given
+ * room costs the students exceeding the capacity of the room plus one if the
+ * course is not held in that room in any other period, since it adds a room to
+ * the course. As a course has at most one lecture per period, the sum of these
+ * costs is the exact change of both penalties, so a minimum cost assignment of
+ * the lectures of the period to its rooms, computed by the Hungarian method,
+ * is optimal for the period. The periods are reassigned one after another
+ * until no period improves anymore. Changing the rooms within a period cannot
+ * violate any hard constraint.
+ * <p>
+ * The cost matrix and the work arrays of the Hungarian method are allocated
+ * once per problem instance and overwritten by every call, which is why a
+ * thread must not use an instance that another thread may be optimizing with.
+ */
+public final class MinCostRoomAssignment {
+
+	private final InstanceTables tables;
+
+	/** Number of lectures per course and room. */
+	private final int[][] roomCounts;
+
+	/** The lectures of the current period. */
+	private final ICourse[] lectures;
+
+	/** Cost per lecture of the current period and room, one-based. */
+	private final int[][] costs;
+
+	/** Potentials of the lectures and rooms, one-based. */
+	private final int[] lecturePotentials;
+
+	private final int[] roomPotentials;
+
+	/** The lecture assigned to each room, one-based, zero for none. */
+	private final int[] assignedLectures;
+
+	/** The previous room on the shortest augmenting path, one-based. */
+	private final int[] previousRooms;
+
+	private final int[] minimumSlack;
+
+	private final boolean[] visited;
+
+	public MinCostRoomAssignment(final InstanceTables tables) {
+		this.tables = tables;
+		final int numberOfRooms = tables.getNumberOfRooms();
+		roomCounts = new int[tables.getNumberOfCourses()][numberOfRooms];
+		lectures = new ICourse[numberOfRooms];
+		costs = new int[numberOfRooms + 1][numberOfRooms + 1];
+		lecturePotentials = new int[numberOfRooms + 1];
+		roomPotentials = new int[numberOfRooms + 1];
+		assignedLectures = new int[numberOfRooms + 1];
+		previousRooms = new int[numberOfRooms + 1];
+		minimumSlack = new int[numberOfRooms + 1];
+		visited = new boolean[numberOfRooms + 1];
+	}
+
+	public InstanceTables getInstanceTables() {
+		return tables;
+	}
+
+	/**
+	 * Reassigns the rooms of all periods of the given coding in place until no
+	 * period improves anymore. Returns by how much the total penalty has
+	 * decreased.
+	 */
+	public int optimize(final ICourse[][] coding) {
+		for (final int[] counts : roomCounts) {
+			Arrays.fill(counts, 0);
+		}
+		for (final ICourse[] rooms : coding) {
+			for (int room = 0; room < rooms.length; room++) {
+				if (rooms[room] != null) {
+					roomCounts[rooms[room].getUniqueNumber()][room]++;
+				}
+			}
+		}
+
+		int decrease = 0;
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			for (final ICourse[] rooms : coding) {
+				final int periodDecrease = optimizePeriod(rooms);
+				if (periodDecrease > 0) {
+					decrease += periodDecrease;
+					improved = true;
+				}
+			}
+		}
+		return decrease;
+	}
+
+	/**
+	 * Reassigns the rooms of a single period if that lowers the penalty and
+	 * returns the decrease.
+	 */
+	private int optimizePeriod(final ICourse[] rooms) {
+		final int numberOfRooms = rooms.length;
+		int numberOfLectures = 0;
+		int currentCost = 0;
+		for (int room = 0; room < numberOfRooms; room++) {
+			if (rooms[room] != null) {
+				roomCounts[rooms[room].getUniqueNumber()][room]--;
+			}
+		}
+		for (int room = 0; room < numberOfRooms; room++) {
+			if (rooms[room] != null) {
+				lectures[numberOfLectures++] = rooms[room];
+				currentCost += getCost(rooms[room].getUniqueNumber(), room);
+			}
+		}
+		for (int i = 0; i < numberOfLectures; i++) {
+			final int course = lectures[i].getUniqueNumber();
+			for (int room = 0; room < numberOfRooms; room++) {
+				costs[i + 1][room + 1] = getCost(course, room);
+			}
+		}
+
+		final int minimumCost = solveAssignment(numberOfLectures,
+				numberOfRooms);
+		if (minimumCost < currentCost) {
+			Arrays.fill(rooms, null);
+			for (int room = 1; room <= numberOfRooms; room++) {
+				if (assignedLectures[room] > 0) {
+					rooms[room - 1] = lectures[assignedLectures[room] - 1];
+				}
+			}
+		}
+		for (int room = 0; room < numberOfRooms; room++) {
+			if (rooms[room] != null) {
+				roomCounts[rooms[room].getUniqueNumber()][room]++;
+			}
+		}
+		return Math.max(0, currentCost - minimumCost);
+	}
+
+	/**
+	 * Returns the cost of a lecture of the given course in the given room with
+	 * the current period taken out of the room counts.
+	 */
+	private int getCost(final int course, final int room) {
+		final int overflow = Math.max(0, tables.getNumberOfStudents(course)
+				- tables.getRoomCapacity(room));
+		return (roomCounts[course][room] == 0) ? overflow + 1 : overflow;
+	}
+
+	/**
+	 * Assigns each lecture to a distinct room at minimum total cost by the
+	 * Hungarian method with potentials, adding one lecture at a time along a
+	 * shortest augmenting path. Takes time proportional to the number of
+	 * lectures squared times the number of rooms. Returns the minimum cost,
+	 * the assignment is left in {@link #assignedLectures}.
+	 */
+	private int solveAssignment(final int numberOfLectures,
+			final int numberOfRooms) {
+		Arrays.fill(lecturePotentials, 0);
+		Arrays.fill(roomPotentials, 0);
+		Arrays.fill(assignedLectures, 0);
+		for (int lecture = 1; lecture <= numberOfLectures; lecture++) {
+			assignedLectures[0] = lecture;
+			int room = 0;
+			Arrays.fill(minimumSlack, Integer.MAX_VALUE);
+			Arrays.fill(visited, false);
+			do {
+				visited[room] = true;
+				final int current = assignedLectures[room];
+				int delta = Integer.MAX_VALUE;
+				int nextRoom = 0;
+				for (int other = 1; other <= numberOfRooms; other++) {
+					if (visited[other]) {
+						continue;
+					}
+					final int slack = costs[current][other]
+							- lecturePotentials[current]
+							- roomPotentials[other];
+					if (slack < minimumSlack[other]) {
+						minimumSlack[other] = slack;
+						previousRooms[other] = room;
+					}
+					if (minimumSlack[other] < delta) {
+						delta = minimumSlack[other];
+						nextRoom = other;
+					}
+				}
+				for (int other = 0; other <= numberOfRooms; other++) {
+					if (visited[other]) {
+						lecturePotentials[assignedLectures[other]] += delta;
+						roomPotentials[other] -= delta;
+					} else {
+						minimumSlack[other] -= delta;
+					}
+				}
+				room = nextRoom;
+			} while (assignedLectures[room] != 0);
+
+			// Augment along the path back to the virtual room 0.
+			do {
+				final int previous = previousRooms[room];
+				assignedLectures[room] = assignedLectures[previous];
+				room = previous;
+			} while (room != 0);
+		}
+		return -roomPotentials[0];
+	}
+
+}
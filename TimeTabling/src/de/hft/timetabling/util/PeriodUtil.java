@@ -50,13 +50,7 @@ public final class PeriodUtil {
 	 */
 	public static int getDayFromPeriodOnly(final int period,
 			final int periodsPerDay) {
-		int day = 0;
-		for (int i = 1; i <= period; i++) {
-			if (i % periodsPerDay == 0) {
-				day++;
-			}
-		}
-		return day;
+		return period / periodsPerDay;
 	}
 
 	/**
@@ -0,0 +1,60 @@
+package de.hft.timetabling.util;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+
+/**
+ * Provides methods to assign the courses of a period to rooms with respect to
+ * the room capacity soft constraint.
+ */
+public final class RoomAssignmentUtil {
+
+	/**
+	 * Rearranges the courses of one period so that the course with the most
+	 * students gets the biggest room, the course with the second most students
+	 * the second biggest room and so on. The courses are only moved between
+	 * the rooms of the period, so no hard constraint can be violated.
+	 * <p>
+	 * Since the penalty of a course only depends on how many of its students
+	 * exceed the capacity of its room, this assignment minimizes the room
+	 * capacity penalty of the period, i.e. it is a minimum cost matching of
+	 * the courses to the rooms.
+	 * 
+	 * @param coursesOfPeriod
+	 *            The courses of the period indexed by the unique number of
+	 *            their room, <tt>null</tt> for free rooms. The array is
+	 *            modified in place.
+	 * @param tables
+	 *            The tables of the problem instance.
+	 */
+	public static void assignRoomsByCapacity(final ICourse[] coursesOfPeriod,
+			final InstanceTables tables) {
+		final ICourse[] courses = new ICourse[coursesOfPeriod.length];
+		int numberOfCourses = 0;
+		for (final ICourse course : coursesOfPeriod) {
+			if (course == null) {
+				continue;
+			}
+			// Insertion sort by descending number of students.
+			int i = numberOfCourses++;
+			while ((i > 0)
+					&& (courses[i - 1].getNumberOfStudents() < course
+							.getNumberOfStudents())) {
+				courses[i] = courses[i - 1];
+				i--;
+			}
+			courses[i] = course;
+		}
+
+		final int[] roomsByCapacity = tables.getRoomsByCapacity();
+		final int numberOfRooms = coursesOfPeriod.length;
+		for (int i = 0; i < numberOfRooms; i++) {
+			coursesOfPeriod[roomsByCapacity[numberOfRooms - 1 - i]] = courses[i];
+		}
+	}
+
+	private RoomAssignmentUtil() {
+		// Utility class not to be instantiated.
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.hft.timetabling.util;
+
+import java.util.Random;
+
+/**
+ * Random number generator based on the SplitMix64 algorithm that can be split
+ * into statistically independent streams, modelled after
+ * <tt>java.util.SplittableRandom</tt> of later Java versions. Since it extends
+ * {@link Random} it can be passed to all methods expecting a random number
+ * generator, e.g. {@link java.util.Collections#shuffle(java.util.List, Random)}.
+ * <p>
+ * A run uses a single seed from which a stream per thread or task is split
+ * off. Given the same seed and the same order of splits, all streams produce
+ * the same numbers, which makes runs reproducible. Unlike {@link Random}
+ * instances of this class are not thread-safe, so there is no shared state
+ * threads could contend on. Each stream must only be used by one thread.
+ */
+public final class SplittableRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long state;
+
+	private final long gamma;
+
+	/**
+	 * Creates a new stream with the given seed.
+	 *
+	 * @param seed
+	 *            The seed determining all numbers of the stream and of all
+	 *            streams split off from it.
+	 */
+	public SplittableRandom(final long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	private SplittableRandom(final long state, final long gamma) {
+		this.state = state;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Returns a new stream split off from this one. Splitting advances this
+	 * stream, so the streams returned by consecutive calls differ from each
+	 * other.
+	 */
+	public SplittableRandom split() {
+		return new SplittableRandom(nextLong(), mixGamma(nextState()));
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return mix32(nextState()) >>> (32 - bits);
+	}
+
+	@Override
+	public int nextInt() {
+		return mix32(nextState());
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextState());
+	}
+
+	private long nextState() {
+		return state += gamma;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	/**
+	 * Returns an odd gamma value with enough bit transitions for a new stream.
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		final int transitions = Long.bitCount(z ^ (z >>> 1));
+		return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+}
@@ -0,0 +1,80 @@
+package de.hft.timetabling.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A wall-clock time budget starting at its creation. Besides telling whether
+ * the deadline has passed, it maps the elapsed fraction of the budget onto the
+ * iterations of the main loop, so the parameter schedules laid out for a
+ * number of iterations follow the elapsed time instead.
+ * <p>
+ * The time is taken from {@link System#nanoTime()}, so changes of the system
+ * clock during a run do not move the deadline.
+ */
+public final class TimeBudget {
+
+	private final long startNanos;
+
+	private final long budgetNanos;
+
+	private final long budgetMillis;
+
+	/**
+	 * @param budgetMillis
+	 *            The wall-clock time available from now on in milliseconds.
+	 */
+	public TimeBudget(final long budgetMillis) {
+		this.budgetMillis = budgetMillis;
+		budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+		startNanos = System.nanoTime();
+	}
+
+	public long getBudgetMillis() {
+		return budgetMillis;
+	}
+
+	/** Returns whether the deadline has been reached. */
+	public boolean isExpired() {
+		return getElapsedNanos() >= budgetNanos;
+	}
+
+	/** Returns the time left until the deadline, at least <tt>0</tt>. */
+	public long getRemainingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(Math.max(0, budgetNanos
+				- getElapsedNanos()));
+	}
+
+	/** Returns the elapsed fraction of the budget between 0.0 and 1.0. */
+	public double getElapsedFraction() {
+		if (budgetNanos <= 0) {
+			return 1.0;
+		}
+		return Math.min(1.0, (double) getElapsedNanos() / budgetNanos);
+	}
+
+	private long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Returns the iteration to pass to the parameter schedules. The first
+	 * iteration of a run is always <tt>1</tt>, so the schedules can recognize
+	 * the start of a run. All later iterations are mapped from the elapsed
+	 * fraction onto <tt>2</tt> to <tt>totalIterations</tt>, so iterations are
+	 * skipped or repeated depending on how long they take.
+	 *
+	 * @param iteration
+	 *            The number of the current iteration, starting at <tt>1</tt>.
+	 * @param totalIterations
+	 *            The number of iterations the schedules are laid out for.
+	 */
+	public int getScheduleIteration(final int iteration,
+			final int totalIterations) {
+		if (iteration == 1) {
+			return 1;
+		}
+		final int scheduleIteration = 1 + (int) (getElapsedFraction() * totalIterations);
+		return Math.min(totalIterations, Math.max(2, scheduleIteration));
+	}
+
+}
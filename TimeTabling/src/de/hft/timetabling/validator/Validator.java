@@ -9,6 +9,7 @@ import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
 import de.hft.timetabling.services.IValidatorService;
 
 /**
@@ -155,13 +156,14 @@ public final class Validator implements IValidatorService {
 	 */
 	private boolean noUnavailabilityViolations(final ICourse[][] coding,
 			final IProblemInstance inst) {
+		final InstanceTables tables = inst.getInstanceTables();
 		for (int period = 0; period < coding.length; period++) {
 
 			for (int room = 0; room < coding[period].length; room++) {
 				final ICourse course = coding[period][room];
 
 				if ((course != null)
-						&& inst.getUnavailabilityConstraints(course).contains(
+						&& tables.isUnavailable(course.getUniqueNumber(),
 								period)) {
 					System.out.println("CHECK:---noUnavailabilityViolations"
 							+ course.getId() + ")");
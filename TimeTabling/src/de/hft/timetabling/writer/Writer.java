@@ -11,6 +11,7 @@ import de.hft.timetabling.common.ICurriculum;
 import de.hft.timetabling.common.IProblemInstance;
 import de.hft.timetabling.common.IRoom;
 import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.common.InstanceTables;
 import de.hft.timetabling.main.Main;
 import de.hft.timetabling.services.ICrazyGenetistService;
 import de.hft.timetabling.services.ISolutionTableService;
@@ -59,6 +60,7 @@ public final class Writer implements IWriterService {
 
 		final IProblemInstance problemInstance = solution.getProblemInstance();
 		final ICourse[][] coding = solution.getCoding();
+		final InstanceTables tables = problemInstance.getInstanceTables();
 		final int numberOfPeriods = problemInstance.getNumberOfPeriods();
 		final int numberOfRooms = problemInstance.getNumberOfRooms();
 		for (int period = 0; period < numberOfPeriods; period++) {
@@ -71,11 +73,9 @@ public final class Writer implements IWriterService {
 					continue;
 				}
 
-				final IRoom room = problemInstance
-						.getRoomByUniqueNumber(roomNumber);
+				final IRoom room = tables.getRoom(roomNumber);
 				final int periodsPerDay = problemInstance.getPeriodsPerDay();
-				final int day = PeriodUtil.getDayFromPeriodOnly(period,
-						periodsPerDay);
+				final int day = tables.getDay(period);
 				final int convertedPeriod = PeriodUtil.convertToDayPeriod(
 						period, periodsPerDay);
 
@@ -146,7 +146,7 @@ public final class Writer implements IWriterService {
 							if (course.getCurricula().contains(curriculum)) {
 								courseString = course.getId();
 								final IRoom roomObj = problemInstance
-										.getRoomByUniqueNumber(room);
+										.getInstanceTables().getRoom(room);
 								roomString = "<br /><em>- " + roomObj.getId()
 										+ " [" + course.getNumberOfStudents()
 										+ " / " + roomObj.getCapacity()
@@ -195,7 +195,8 @@ public final class Writer implements IWriterService {
 		writeln(bufferedWriter, "<tr><td>Duration:</td><td>"
 				+ DateUtil.toTimeString(Main.duration) + "</td></tr>");
 		writeln(bufferedWriter, "<tr><td>Recombination Strategy:</td><td>"
-				+ ICrazyGenetistService.RECOMBINATION_STRATEGY.getName()
+				+ ICrazyGenetistService.RECOMBINATION_STRATEGY_FACTORY
+						.getStrategyName()
 				+ "</td></tr>");
 		final String directory = (Main.initialSolutionDirectory.length() == 0) ? "None"
 				: Main.initialSolutionDirectory;
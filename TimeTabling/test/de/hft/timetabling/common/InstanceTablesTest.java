@@ -0,0 +1,87 @@
+package de.hft.timetabling.common;
+
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.util.BitSetUtil;
+
+public class InstanceTablesTest extends AbstractServicesTest {
+
+	private InstanceTables tables;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tables = instance.getInstanceTables();
+	}
+
+	public void testGetInstanceTables() {
+		assertSame(tables, instance.getInstanceTables());
+	}
+
+	public void testDimensions() {
+		assertEquals(20, tables.getNumberOfPeriods());
+		assertEquals(2, tables.getNumberOfRooms());
+		assertEquals(4, tables.getNumberOfCourses());
+		assertEquals(2, tables.getNumberOfCurricula());
+		assertEquals(4, tables.getNumberOfTeachers());
+		assertEquals(16, tables.getTotalNumberOfLectures());
+	}
+
+	public void testGetCourse() {
+		for (final ICourse course : instance.getCourses()) {
+			assertSame(course, tables.getCourse(course.getUniqueNumber()));
+		}
+		assertEquals("SceCosC", tables.getCourse(0).getId());
+		assertEquals("Geotec", tables.getCourse(3).getId());
+	}
+
+	public void testGetDay() {
+		assertEquals(0, tables.getDay(0));
+		assertEquals(0, tables.getDay(3));
+		assertEquals(1, tables.getDay(4));
+		assertEquals(4, tables.getDay(19));
+	}
+
+	public void testGetRoomsByCapacity() {
+		final int[] rooms = tables.getRoomsByCapacity();
+		assertEquals(2, rooms.length);
+		assertEquals(32, tables.getRoomCapacity(rooms[0]));
+		assertEquals(50, tables.getRoomCapacity(rooms[1]));
+	}
+
+	public void testGetCurriculumSize() {
+		assertEquals(3, tables.getCurriculumSize(0));
+		assertEquals(2, tables.getCurriculumSize(1));
+		assertEquals(11, tables.getCurriculumLectures(0));
+		assertEquals(10, tables.getCurriculumLectures(1));
+	}
+
+	public void testGetLecturesPerTeacher() {
+		assertEquals(5, tables.getLecturesPerTeacher(tables
+				.getTeacherOfCourse(2)));
+		assertEquals("Rosa", tables.getTeacher(tables.getTeacherOfCourse(2)));
+	}
+
+	public void testFeasiblePeriods() {
+		assertEquals(20, tables.getNumberOfFeasiblePeriods(0));
+		assertEquals(16, tables.getNumberOfFeasiblePeriods(1));
+		assertEquals(16, tables.getNumberOfFeasiblePeriods(2));
+		assertTrue(tables.isUnavailable(2, 8));
+		assertTrue(tables.isUnavailable(2, 15));
+		assertFalse(tables.isUnavailable(2, 10));
+		assertFalse(BitSetUtil.get(tables.getFeasiblePeriods(1), 16));
+		assertTrue(BitSetUtil.get(tables.getFeasiblePeriods(1), 15));
+	}
+
+	public void testConflicts() {
+		assertTrue(tables.isConflicting(0, 1));
+		assertTrue(tables.isConflicting(1, 2));
+		assertTrue(tables.isConflicting(2, 3));
+		assertFalse(tables.isConflicting(0, 3));
+		assertFalse(tables.isConflicting(0, 0));
+		final int[] conflicting = tables.getConflictingCourses(2);
+		assertEquals(3, conflicting.length);
+		assertEquals(0, conflicting[0]);
+		assertEquals(3, conflicting[2]);
+	}
+
+}
@@ -0,0 +1,54 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.solutiontable.SolutionTable;
+
+public class BackgroundGeneratorTest extends AbstractServicesTest {
+
+	private SolutionTable solutionTable;
+
+	private BackgroundGenerator generator;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		solutionTable = new SolutionTable();
+		ServiceLocator.getInstance().setSolutionTableService(solutionTable);
+		generator = new BackgroundGenerator(new Generator(new Random(0)), 2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		generator.shutdown();
+		super.tearDown();
+	}
+
+	public void testFillEmptySolutionTable() {
+		generator.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+		assertEquals(0, solutionTable.getNumberOfEmptySlots());
+	}
+
+	public void testFillAfterShutdown() {
+		generator.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+
+		generator.shutdown();
+		solutionTable.clear();
+		generator.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+	}
+
+	public void testInvalidNumberOfProducers() {
+		try {
+			new BackgroundGenerator(new Generator(new Random(0)), 0);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
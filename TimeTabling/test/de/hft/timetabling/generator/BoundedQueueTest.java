@@ -0,0 +1,46 @@
+package de.hft.timetabling.generator;
+
+import junit.framework.TestCase;
+
+public class BoundedQueueTest extends TestCase {
+
+	private BoundedQueue<String> queue;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		queue = new BoundedQueue<String>(2);
+	}
+
+	public void testConstructor() {
+		try {
+			new BoundedQueue<String>(0);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// Expected exception.
+		}
+	}
+
+	public void testOfferPoll() {
+		assertNull(queue.poll());
+		assertTrue(queue.offer("a"));
+		assertTrue(queue.offer("b"));
+		assertTrue(queue.isFull());
+		assertFalse(queue.offer("c"));
+		assertEquals("a", queue.poll());
+		assertFalse(queue.isFull());
+		assertTrue(queue.offer("c"));
+		assertEquals("b", queue.poll());
+		assertEquals("c", queue.poll());
+		assertNull(queue.poll());
+	}
+
+	public void testClear() {
+		queue.offer("a");
+		queue.offer("b");
+		queue.clear();
+		assertNull(queue.poll());
+		assertFalse(queue.isFull());
+	}
+
+}
@@ -0,0 +1,70 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BucketQueueTest extends TestCase {
+
+	private BucketQueue queue;
+
+	private Random random;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		queue = new BucketQueue(5, 10);
+		random = new Random(42);
+	}
+
+	public void testPollMin() {
+		queue.add(0, 7);
+		queue.add(1, 3);
+		queue.add(2, 10);
+		assertEquals(3, queue.size());
+		assertEquals(1, queue.pollMin(random));
+		assertEquals(0, queue.pollMin(random));
+		assertEquals(2, queue.pollMin(random));
+		assertTrue(queue.isEmpty());
+		assertEquals(-1, queue.pollMin(random));
+	}
+
+	public void testUpdateKey() {
+		queue.add(0, 7);
+		queue.add(1, 3);
+		queue.updateKey(0, 1);
+		assertEquals(1, queue.getKey(0));
+		assertEquals(0, queue.pollMin(random));
+		queue.updateKey(0, 0);
+		assertFalse(queue.contains(0));
+		assertEquals(1, queue.pollMin(random));
+	}
+
+	public void testRemove() {
+		queue.add(0, 2);
+		queue.add(1, 2);
+		queue.add(2, 2);
+		queue.remove(1);
+		assertFalse(queue.contains(1));
+		assertEquals(2, queue.size());
+		final int first = queue.pollMin(random);
+		final int second = queue.pollMin(random);
+		assertEquals(2, first + second);
+		assertTrue(first != second);
+	}
+
+	public void testRandomTieBreaking() {
+		final int[] counts = new int[3];
+		for (int i = 0; i < 300; i++) {
+			queue.clear();
+			queue.add(0, 1);
+			queue.add(1, 1);
+			queue.add(2, 1);
+			counts[queue.pollMin(random)]++;
+		}
+		for (final int count : counts) {
+			assertTrue(count > 50);
+		}
+	}
+
+}
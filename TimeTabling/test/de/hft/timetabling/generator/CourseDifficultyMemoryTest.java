@@ -0,0 +1,52 @@
+package de.hft.timetabling.generator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.services.AbstractServicesTest;
+
+public class CourseDifficultyMemoryTest extends AbstractServicesTest {
+
+	private CourseDifficultyMemory memory;
+
+	private ICourse course0;
+
+	private ICourse course1;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		memory = CourseDifficultyMemory.getMemory(instance);
+		final InstanceTables tables = instance.getInstanceTables();
+		course0 = tables.getCourse(0);
+		course1 = tables.getCourse(1);
+	}
+
+	public void testGetMemory() {
+		assertSame(memory, CourseDifficultyMemory.getMemory(instance));
+	}
+
+	public void testRecordSession() {
+		memory.recordSession(Collections.<ICourse> emptySet());
+		assertEquals(1, memory.getNumberOfSessions());
+		assertEquals(0, memory.getNumberOfFirstPassFailures());
+		assertTrue(memory.getHardestCourses(4).isEmpty());
+
+		memory.recordSession(new HashSet<ICourse>(Arrays.asList(course0,
+				course1)));
+		memory.recordSession(new HashSet<ICourse>(Arrays.asList(course1)));
+		assertEquals(3, memory.getNumberOfSessions());
+		assertEquals(2, memory.getNumberOfFirstPassFailures());
+		assertEquals(1, memory.getUnassignedCount(course0));
+		assertEquals(2, memory.getUnassignedCount(course1));
+
+		final List<ICourse> hardest = memory.getHardestCourses(4);
+		assertEquals(Arrays.asList(course1, course0), hardest);
+		assertEquals(Arrays.asList(course1), memory.getHardestCourses(1));
+	}
+
+}
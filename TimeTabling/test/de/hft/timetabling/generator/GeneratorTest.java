@@ -0,0 +1,41 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class GeneratorTest extends AbstractServicesTest {
+
+	public void testGenerateFeasibleSolution() throws Exception {
+		final Validator validator = new Validator();
+		for (final Generator.Algorithm algorithm : Generator.Algorithm
+				.values()) {
+			final Generator generator = new Generator(new Random(42));
+			generator.setAlgorithm(algorithm);
+			for (int i = 0; i < 5; i++) {
+				final ICourse[][] coding = generator
+						.generateFeasibleSolution(instance);
+				assertTrue(algorithm.toString(), validator.isValidSolution(
+						instance, coding));
+			}
+		}
+	}
+
+	public void testAlgorithmOfRun() {
+		assertEquals(Generator.Algorithm.DSATUR, new Generator(new Random(0))
+				.getAlgorithm());
+		try {
+			Main.generatorAlgorithm = Generator.Algorithm.FAST;
+			assertEquals(Generator.Algorithm.FAST, new Generator(
+					new Random(0)).getAlgorithm());
+			assertEquals(Generator.Algorithm.FAST, new Generator()
+					.getAlgorithm());
+		} finally {
+			Main.generatorAlgorithm = Generator.Algorithm.DSATUR;
+		}
+	}
+
+}
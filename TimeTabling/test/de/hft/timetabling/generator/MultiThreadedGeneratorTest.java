@@ -0,0 +1,47 @@
+package de.hft.timetabling.generator;
+
+import java.util.Random;
+
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.solutiontable.SolutionTable;
+
+public class MultiThreadedGeneratorTest extends AbstractServicesTest {
+
+	private SolutionTable solutionTable;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		solutionTable = new SolutionTable();
+		ServiceLocator.getInstance().setSolutionTableService(solutionTable);
+	}
+
+	public void testFillOnDemand() {
+		new MultiThreadedGenerator(new Generator(new Random(0)))
+				.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+	}
+
+	public void testFillSpeculatively() {
+		new MultiThreadedGenerator(new Generator(new Random(0)), true, 0)
+				.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+	}
+
+	public void testDeadlineIgnoredForEmptySolutionTable() {
+		new MultiThreadedGenerator(new Generator(new Random(0)), true, 1)
+				.fillSolutionTable(instance);
+		assertTrue(solutionTable.isFull());
+	}
+
+	public void testNegativeFillDeadline() {
+		try {
+			new MultiThreadedGenerator(new Generator(new Random(0)), true, -1);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package de.hft.timetabling.generator;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class SlowAssignmentAlgorithmTest extends AbstractServicesTest {
+
+	public void testGenerateFeasibleSolution() throws Exception {
+		final Validator validator = new Validator();
+		try {
+			Main.generatorAlgorithm = Generator.Algorithm.SLOW;
+			for (int i = 0; i < 10; i++) {
+				final Generator generator = new Generator(new Random(i));
+				assertEquals(Generator.Algorithm.SLOW, generator.getAlgorithm());
+				assertTrue(validator.isValidSolution(instance, generator
+						.generateFeasibleSolution(instance)));
+			}
+		} finally {
+			Main.generatorAlgorithm = Generator.Algorithm.DSATUR;
+		}
+	}
+
+	/**
+	 * The available periods kept up to date by the assignments must match the
+	 * ones a new session calculates from scratch for the same schedule.
+	 */
+	public void testIncrementalSlotUpdates() {
+		for (int i = 0; i < 10; i++) {
+			final SlowAssignmentAlgorithm session = new SlowAssignmentAlgorithm(
+					instance, new Random(i));
+			final Set<ICourse> courses = new LinkedHashSet<ICourse>(instance
+					.getCourses());
+			while (!courses.isEmpty()) {
+				final ICourse course = session.getMostCriticalEvent(courses);
+				courses.remove(course);
+				if (session.isAssignable(course)) {
+					session.assignRandomViableSlots(course);
+				}
+				if (courses.isEmpty()) {
+					break;
+				}
+
+				final SlowAssignmentAlgorithm recalculated = recalculate(session
+						.getCoding());
+				recalculated.getMostCriticalEvent(new LinkedHashSet<ICourse>(
+						courses));
+				for (final ICourse other : courses) {
+					assertEquals(recalculated.getAvailablePeriodsCount(other),
+							session.getAvailablePeriodsCount(other));
+				}
+			}
+		}
+	}
+
+	private SlowAssignmentAlgorithm recalculate(final ICourse[][] coding) {
+		final SlowAssignmentAlgorithm session = new SlowAssignmentAlgorithm(
+				instance, new Random(0));
+		for (int period = 0; period < coding.length; period++) {
+			for (int room = 0; room < coding[period].length; room++) {
+				if (coding[period][room] != null) {
+					session.assignLecture(coding[period][room], period, room);
+				}
+			}
+		}
+		return session;
+	}
+
+}
@@ -0,0 +1,74 @@
+package de.hft.timetabling.genetist;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.services.AbstractServicesTest;
+
+public class FreeSlotIndexTest extends AbstractServicesTest {
+
+	private FreeSlotIndex freeSlots;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		freeSlots = new FreeSlotIndex(instance.getInstanceTables());
+	}
+
+	private int getCourse(final String id) {
+		for (final ICourse course : instance.getCourses()) {
+			if (course.getId().equals(id)) {
+				return course.getUniqueNumber();
+			}
+		}
+		throw new IllegalArgumentException(id);
+	}
+
+	public void testUnavailablePeriodsAreSkipped() {
+		final int tecCos = getCourse("TecCos");
+		assertFalse(freeSlots.isValidPeriod(tecCos, 8));
+		assertEquals(10, freeSlots.findNextValidPeriod(tecCos, 7, true));
+		assertEquals(7, freeSlots.findNextValidPeriod(tecCos, 10, false));
+	}
+
+	public void testSearchWrapsAround() {
+		final int tecCos = getCourse("TecCos");
+		assertEquals(0, freeSlots.findNextValidPeriod(tecCos, 19, true));
+		assertEquals(19, freeSlots.findNextValidPeriod(tecCos, 0, false));
+	}
+
+	public void testConflictsAndOccupiedRooms() {
+		final int sceCosC = getCourse("SceCosC");
+		final int tecCos = getCourse("TecCos");
+		final int geotec = getCourse("Geotec");
+
+		freeSlots.assign(sceCosC, 10, 0);
+		assertFalse(freeSlots.isFree(10, 0));
+		assertEquals(1, freeSlots.getFirstFreeRoom(10));
+		assertFalse(freeSlots.isValidPeriod(tecCos, 10));
+		assertFalse(freeSlots.isValidPeriod(sceCosC, 10));
+		assertEquals(11, freeSlots.findNextValidPeriod(tecCos, 7, true));
+		assertEquals(10, freeSlots.findNextValidPeriod(geotec, 9, true));
+		assertEquals(11, freeSlots.findNextValidPeriodOfRoom(geotec, 9, 0,
+				true));
+
+		freeSlots.assign(geotec, 10, 1);
+		assertEquals(-1, freeSlots.getFirstFreeRoom(10));
+		assertEquals(11, freeSlots.findNextValidPeriod(geotec, 9, true));
+
+		freeSlots.unassign(sceCosC, 10, 0);
+		assertEquals(10, freeSlots.findNextValidPeriod(sceCosC, 9, true));
+		assertFalse(freeSlots.isValidPeriod(tecCos, 10));
+	}
+
+	public void testBuild() {
+		final ICourse[][] coding = new ICourse[instance.getNumberOfPeriods()][instance
+				.getNumberOfRooms()];
+		final int geotec = getCourse("Geotec");
+		coding[3][1] = instance.getInstanceTables().getCourse(geotec);
+		freeSlots.build(coding);
+		assertFalse(freeSlots.isFree(3, 1));
+		assertTrue(freeSlots.isFree(3, 0));
+		assertEquals(4, freeSlots.findNextValidPeriod(geotec, 2, true));
+		assertEquals(2, freeSlots.findNextValidPeriod(geotec, 4, false));
+	}
+
+}
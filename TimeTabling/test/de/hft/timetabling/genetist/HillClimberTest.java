@@ -0,0 +1,28 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class HillClimberTest extends AbstractServicesTest {
+
+	public void testPenaltyMatchesEvaluator() throws Exception {
+		final HillClimber hillClimber = new HillClimber(instance
+				.getInstanceTables());
+		final Random random = new Random(42);
+		for (int i = 0; i < 10; i++) {
+			final ICourse[][] coding = generateFeasibleSolution(i);
+			final int initialPenalty = evaluate(coding);
+			assertEquals(initialPenalty, hillClimber.climb(coding, random, 0));
+
+			final int penalty = hillClimber.climb(coding, random, 1000);
+			assertEquals(evaluate(coding), penalty);
+			assertEquals(penalty, hillClimber.getPenalty());
+			assertTrue(penalty <= initialPenalty);
+			assertTrue(new Validator().isValidSolution(instance, coding));
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Random;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class KempeChainTest extends AbstractServicesTest {
+
+	private KempeChain chain;
+
+	private ICourse[][] coding;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		chain = new KempeChain(instance.getInstanceTables());
+		coding = new ICourse[instance.getNumberOfPeriods()][instance
+				.getNumberOfRooms()];
+	}
+
+	private ICourse getCourse(final String id) {
+		for (final ICourse course : instance.getCourses()) {
+			if (course.getId().equals(id)) {
+				return course;
+			}
+		}
+		throw new IllegalArgumentException(id);
+	}
+
+	public void testChainFollowsConflicts() {
+		final ICourse sceCosC = getCourse("SceCosC");
+		final ICourse tecCos = getCourse("TecCos");
+		final ICourse geotec = getCourse("Geotec");
+		coding[0][0] = sceCosC;
+		coding[0][1] = geotec;
+		coding[1][1] = tecCos;
+
+		/*
+		 * TecCos conflicts with SceCosC and thereby pulls Geotec into the
+		 * chain, which conflicts with TecCos as well.
+		 */
+		assertTrue(chain.swap(coding, 0, 0, 1));
+		assertSame(tecCos, coding[0][1]);
+		assertNull(coding[0][0]);
+		assertSame(sceCosC, coding[1][0]);
+		assertSame(geotec, coding[1][1]);
+	}
+
+	public void testLecturesTakeEmptyRoomIfOwnRoomIsOccupied() {
+		final ICourse sceCosC = getCourse("SceCosC");
+		final ICourse geotec = getCourse("Geotec");
+		coding[0][0] = sceCosC;
+		coding[1][0] = geotec;
+
+		assertTrue(chain.swap(coding, 0, 0, 1));
+		assertNull(coding[0][0]);
+		assertSame(geotec, coding[1][0]);
+		assertSame(sceCosC, coding[1][1]);
+	}
+
+	public void testUnavailablePeriodIsRejected() {
+		final ICourse tecCos = getCourse("TecCos");
+		coding[0][0] = tecCos;
+
+		assertFalse(chain.swap(coding, 0, 0, 8));
+		assertSame(tecCos, coding[0][0]);
+		assertNull(coding[8][0]);
+	}
+
+	public void testSwapKeepsSolutionsValid() throws Exception {
+		final Random random = new Random(42);
+		final Validator validator = new Validator();
+		for (int i = 0; i < 10; i++) {
+			coding = generateFeasibleSolution(i);
+			for (int j = 0; j < 100; j++) {
+				final int period1 = random.nextInt(coding.length);
+				final int room1 = random.nextInt(coding[period1].length);
+				final int period2 = random.nextInt(coding.length);
+				if ((coding[period1][room1] != null) && (period1 != period2)) {
+					chain.swap(coding, period1, room1, period2);
+					assertTrue(validator.isValidSolution(instance, coding));
+				}
+			}
+		}
+	}
+
+}
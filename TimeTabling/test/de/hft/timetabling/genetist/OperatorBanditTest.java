@@ -0,0 +1,40 @@
+package de.hft.timetabling.genetist;
+
+import junit.framework.TestCase;
+
+public class OperatorBanditTest extends TestCase {
+
+	public void testTriesAllArmsFirst() {
+		final OperatorBandit bandit = new OperatorBandit(3);
+		for (int arm = 0; arm < 3; arm++) {
+			assertEquals(arm, bandit.select());
+			bandit.reward(arm, 0);
+		}
+	}
+
+	public void testPrefersRewardingArm() {
+		final OperatorBandit bandit = new OperatorBandit(3);
+		for (int i = 0; i < 1000; i++) {
+			final int arm = bandit.select();
+			bandit.reward(arm, (arm == 1) ? 1e-6 : 0);
+		}
+		assertTrue(bandit.getNumberOfSelections(1) > 500);
+		assertTrue(bandit.getNumberOfSelections(0) > 0);
+		assertTrue(bandit.getNumberOfSelections(2) > 0);
+	}
+
+	public void testFollowsChangingRewards() {
+		final OperatorBandit bandit = new OperatorBandit(2);
+		for (int i = 0; i < 1000; i++) {
+			final int arm = bandit.select();
+			bandit.reward(arm, (arm == 0) ? 1 : 0);
+		}
+		final long selectionsBefore = bandit.getNumberOfSelections(1);
+		for (int i = 0; i < 1000; i++) {
+			final int arm = bandit.select();
+			bandit.reward(arm, (arm == 1) ? 1 : 0);
+		}
+		assertTrue(bandit.getNumberOfSelections(1) - selectionsBefore > 500);
+	}
+
+}
@@ -0,0 +1,40 @@
+package de.hft.timetabling.genetist;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class ProportionalSelectionTest extends TestCase {
+
+	public void testSelectionIsProportionalToWeights() {
+		final ProportionalSelection selection = new ProportionalSelection(
+				new int[] { 1, 0, 3, 6 });
+		assertEquals(10, selection.getTotalWeight());
+
+		final Random random = new Random(42);
+		final int[] counts = new int[4];
+		for (int i = 0; i < 10000; i++) {
+			counts[selection.select(random)]++;
+		}
+		assertEquals(0, counts[1]);
+		assertTrue(Math.abs(counts[0] - 1000) < 200);
+		assertTrue(Math.abs(counts[2] - 3000) < 300);
+		assertTrue(Math.abs(counts[3] - 6000) < 300);
+	}
+
+	public void testLinearRankingPrefersFirstIndex() {
+		final ProportionalSelection selection = ProportionalSelection
+				.linearRanking(5);
+		assertEquals(15, selection.getTotalWeight());
+
+		final Random random = new Random(42);
+		final int[] counts = new int[5];
+		for (int i = 0; i < 15000; i++) {
+			counts[selection.select(random)]++;
+		}
+		for (int i = 1; i < 5; i++) {
+			assertTrue(counts[i - 1] > counts[i]);
+		}
+	}
+
+}
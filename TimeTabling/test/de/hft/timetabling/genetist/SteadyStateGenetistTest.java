@@ -0,0 +1,45 @@
+package de.hft.timetabling.genetist;
+
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.solutiontable.SolutionTable;
+import de.hft.timetabling.validator.Validator;
+
+public class SteadyStateGenetistTest extends AbstractServicesTest {
+
+	private SolutionTable solutionTable;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		final ServiceLocator locator = ServiceLocator.createLocator();
+		solutionTable = new SolutionTable();
+		solutionTable.setMaximumSize(10);
+		locator.setSolutionTableService(solutionTable);
+		ServiceLocator.bind(locator);
+		addGeneratedSolutions(solutionTable, solutionTable.getMaximumSize());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ServiceLocator.bind(null);
+		super.tearDown();
+	}
+
+	public void testRun() {
+		final int initialPenalty = solutionTable.getBestPenaltySolution()
+				.getPenalty();
+		final SteadyStateGenetist genetist = new SteadyStateGenetist(2);
+		genetist.run(300, 100);
+
+		assertTrue(genetist.getNumberOfChildren() > 0);
+		assertTrue(solutionTable.getNotVotedSolutions().isEmpty());
+		assertTrue(solutionTable.getSize(false) > 2);
+		final ISolution best = solutionTable.getBestPenaltySolution();
+		assertTrue(best.getPenalty() <= initialPenalty);
+		assertEquals(best.getPenalty(), evaluate(best.getCoding()));
+		assertTrue(new Validator().isValidSolution(instance, best.getCoding()));
+	}
+
+}
@@ -0,0 +1,41 @@
+package de.hft.timetabling.island;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.main.Main;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class IslandModelTest extends AbstractServicesTest {
+
+	public void testRingTopology() {
+		assertEquals(Arrays.asList(1), MigrationTopology.RING.getNeighbours(0,
+				3));
+		assertEquals(Arrays.asList(0), MigrationTopology.RING.getNeighbours(2,
+				3));
+		assertTrue(MigrationTopology.RING.getNeighbours(0, 1).isEmpty());
+	}
+
+	public void testFullyConnectedTopology() {
+		assertEquals(Arrays.asList(0, 2), MigrationTopology.FULLY_CONNECTED
+				.getNeighbours(1, 3));
+		assertTrue(MigrationTopology.FULLY_CONNECTED.getNeighbours(0, 1)
+				.isEmpty());
+	}
+
+	public void testRun() {
+		Main.recombinationSuccess = 0;
+		final List<ICourse[][]> bestCodings = new IslandModel(instance, 2,
+				MigrationTopology.RING, IslandModel.MIGRATION_INTERVAL + 2)
+				.run();
+		assertEquals(2, bestCodings.size());
+		// the islands must have recombined on the threads of their genetists
+		assertTrue(Main.recombinationSuccess > 0);
+		for (final ICourse[][] coding : bestCodings) {
+			assertTrue(new Validator().isValidSolution(instance, coding));
+		}
+	}
+
+}
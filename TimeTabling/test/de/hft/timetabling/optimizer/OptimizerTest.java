@@ -0,0 +1,68 @@
+package de.hft.timetabling.optimizer;
+
+import java.util.List;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.services.ServiceLocator;
+import de.hft.timetabling.solutiontable.SolutionTable;
+import de.hft.timetabling.validator.Validator;
+
+public class OptimizerTest extends AbstractServicesTest {
+
+	private SolutionTable solutionTable;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		solutionTable = new SolutionTable();
+		addGeneratedSolutions(solutionTable, 3);
+	}
+
+	private void assertOptimizes(final AbstractOptimizer optimizer) {
+		final List<ISolution> solutions = solutionTable.getRankedSolutions();
+		final ICourse[][] bestCoding = solutions.get(0).getCoding();
+		final int initialPenalty = solutions.get(0).getPenalty();
+
+		final ICourse[][] coding = optimizer.optimize(solutions, 200);
+		assertTrue(optimizer.getNumberOfIterations() > 0);
+		assertTrue(optimizer.getBestPenalty() <= initialPenalty);
+		assertEquals(optimizer.getBestPenalty(), evaluate(coding));
+		assertTrue(new Validator().isValidSolution(instance, coding));
+
+		// the given solutions are not changed
+		assertSame(bestCoding, solutions.get(0).getCoding());
+		assertEquals(initialPenalty, evaluate(bestCoding));
+	}
+
+	public void testSimulatedAnnealing() {
+		assertOptimizes(new SimulatedAnnealingOptimizer());
+	}
+
+	public void testTabuSearch() {
+		assertOptimizes(new TabuSearchOptimizer());
+	}
+
+	public void testRuinAndRecreate() {
+		assertOptimizes(new RuinAndRecreateOptimizer());
+	}
+
+	public void testOptimizeSolutionTable() {
+		ServiceLocator.getInstance().setSolutionTableService(solutionTable);
+		final int initialPenalty = solutionTable.getBestPenaltySolution()
+				.getPenalty();
+		final TabuSearchOptimizer optimizer = new TabuSearchOptimizer();
+		optimizer.optimizeSolutionTable(200);
+		if (optimizer.getBestPenalty() < initialPenalty) {
+			final List<ISolution> added = solutionTable.getNotVotedSolutions();
+			assertEquals(1, added.size());
+			assertEquals(optimizer.getBestPenalty(), evaluate(added.get(0)
+					.getCoding()));
+		} else {
+			assertEquals(0, solutionTable.getSize(false)
+					- solutionTable.getSize(true));
+		}
+	}
+
+}
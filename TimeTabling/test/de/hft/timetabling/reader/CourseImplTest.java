@@ -20,13 +20,15 @@ public class CourseImplTest extends AbstractReaderTest {
 
 	private static final String TEACHER = "Teacher1";
 
+	private static final int UNIQUE_NUMBER = 0;
+
 	private ICourse course;
 
 	@Override
 	protected void setUp() throws Exception {
 		super.setUp();
 		course = new CourseImpl(ID, MIN_WORKING_DAYS, NUMBER_OF_LECTURES,
-				NUMBER_OF_STUDENTS, TEACHER, instance);
+				NUMBER_OF_STUDENTS, TEACHER, UNIQUE_NUMBER, instance);
 	}
 
 	public void testGetProblemInstance() {
@@ -53,6 +55,10 @@ public class CourseImplTest extends AbstractReaderTest {
 		assertEquals(TEACHER, course.getTeacher());
 	}
 
+	public void testGetUniqueNumber() {
+		assertEquals(UNIQUE_NUMBER, course.getUniqueNumber());
+	}
+
 	public void testGetCurricula() {
 		final CurriculumImpl curriculum1 = new CurriculumImpl("cur1", 2,
 				instance);
@@ -62,7 +68,7 @@ public class CourseImplTest extends AbstractReaderTest {
 				instance);
 
 		final ICourse otherCourse = new CourseImpl("cOther", 1, 1, 1,
-				"Teacher2", instance);
+				"Teacher2", 1, instance);
 		instance.addCourse(otherCourse);
 		assertEquals(0, otherCourse.getCurricula().size());
 
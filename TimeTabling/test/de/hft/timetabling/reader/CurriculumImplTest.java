@@ -36,9 +36,9 @@ public class CurriculumImplTest extends AbstractReaderTest {
 	public void testGetCourses() {
 		assertEquals(0, curriculum.getCourses().size());
 
-		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1",
+		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1", 0,
 				instance);
-		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1",
+		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1", 1,
 				instance);
 		instance.addCourse(course1);
 		instance.addCourse(course2);
@@ -59,9 +59,9 @@ public class CurriculumImplTest extends AbstractReaderTest {
 	}
 
 	public void testContainsCourse() {
-		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1",
+		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1", 0,
 				instance);
-		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1",
+		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1", 1,
 				instance);
 		instance.addCourse(course1);
 		instance.addCourse(course2);
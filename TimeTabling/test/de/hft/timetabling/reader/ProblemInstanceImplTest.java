@@ -47,9 +47,9 @@ public class ProblemInstanceImplTest extends AbstractReaderTest {
 	public void testGetCourses() {
 		assertEquals(0, instance.getCourses().size());
 
-		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1",
+		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1", 0,
 				instance);
-		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1",
+		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1", 1,
 				instance);
 		instance.addCourse(course1);
 		instance.addCourse(course2);
@@ -107,9 +107,9 @@ public class ProblemInstanceImplTest extends AbstractReaderTest {
 	}
 
 	public void testGetUnavailabilityConstraints() {
-		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1",
+		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1", 0,
 				instance);
-		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1",
+		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1", 1,
 				instance);
 		instance.addCourse(course1);
 		instance.addCourse(course2);
@@ -140,9 +140,9 @@ public class ProblemInstanceImplTest extends AbstractReaderTest {
 	}
 
 	public void testGetCourseById() {
-		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1",
+		final ICourse course1 = new CourseImpl("c1", 1, 2, 20, "Teacher1", 0,
 				instance);
-		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1",
+		final ICourse course2 = new CourseImpl("c2", 1, 1, 15, "Teacher1", 1,
 				instance);
 		instance.addCourse(course1);
 		instance.addCourse(course2);
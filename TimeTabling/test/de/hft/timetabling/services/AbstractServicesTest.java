@@ -1,8 +1,17 @@
 package de.hft.timetabling.services;
 
+import java.util.List;
+import java.util.Random;
+
 import junit.framework.TestCase;
+import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.IProblemInstance;
+import de.hft.timetabling.common.ISolution;
+import de.hft.timetabling.evaluator.NewEvaluator;
+import de.hft.timetabling.generator.Generator;
+import de.hft.timetabling.generator.NoFeasibleSolutionFoundException;
 import de.hft.timetabling.reader.Reader;
+import de.hft.timetabling.solutiontable.SolutionTable;
 
 /**
  * @author Alexander Weickmann
@@ -17,4 +26,39 @@ public abstract class AbstractServicesTest extends TestCase {
 		instance = new Reader().readInstance("test/input/test.ctt");
 	}
 
+	/** Returns the total penalty of the given coding of the test instance. */
+	protected int evaluate(final ICourse[][] coding) {
+		return new NewEvaluator().evaluateSolution(
+				new SolutionTable().createNewSolution(coding, instance))
+				.getTotalPenalty();
+	}
+
+	/**
+	 * Returns a feasible coding of the test instance generated with the given
+	 * seed, so every test sees the same codings.
+	 */
+	protected ICourse[][] generateFeasibleSolution(final long seed)
+			throws NoFeasibleSolutionFoundException {
+		return new Generator(new Random(seed))
+				.generateFeasibleSolution(instance);
+	}
+
+	/**
+	 * Adds the given number of generated solutions to the given solution
+	 * table, votes them with their penalty and updates the table.
+	 */
+	protected void addGeneratedSolutions(final SolutionTable solutionTable,
+			final int number) throws NoFeasibleSolutionFoundException {
+		for (int i = 0; i < number; i++) {
+			solutionTable.addSolution(solutionTable.createNewSolution(
+					generateFeasibleSolution(i), instance));
+		}
+		final List<ISolution> notVoted = solutionTable.getNotVotedSolutions();
+		for (int i = 0; i < notVoted.size(); i++) {
+			solutionTable.voteForSolution(i, evaluate(notVoted.get(i)
+					.getCoding()), 0);
+		}
+		solutionTable.update();
+	}
+
 }
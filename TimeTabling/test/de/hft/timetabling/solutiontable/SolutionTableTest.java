@@ -1,5 +1,7 @@
 package de.hft.timetabling.solutiontable;
 
+import java.util.List;
+
 import de.hft.timetabling.common.ICourse;
 import de.hft.timetabling.common.ISolution;
 import de.hft.timetabling.services.AbstractServicesTest;
@@ -61,6 +63,57 @@ public class SolutionTableTest extends AbstractServicesTest {
 		assertEquals(newSolution, solution);
 	}
 
+	public void testGetRankedSolutions() {
+		final ISolution worse = solutionTable.createNewSolution(
+				new ICourse[instance.getNumberOfPeriods()][instance
+						.getNumberOfRooms()], instance);
+		final ISolution better = solutionTable.createNewSolution(
+				new ICourse[instance.getNumberOfPeriods()][instance
+						.getNumberOfRooms()], instance);
+		solutionTable.addSolution(worse);
+		solutionTable.addSolution(better);
+		solutionTable.voteForSolution(0, 200, 0);
+		solutionTable.voteForSolution(1, 100, 0);
+
+		final List<ISolution> rankedSolutions = solutionTable
+				.getRankedSolutions();
+		assertEquals(2, rankedSolutions.size());
+		assertEquals(better, rankedSolutions.get(0));
+		assertEquals(worse, rankedSolutions.get(1));
+		assertEquals(better, solutionTable.getSolution(0));
+
+		solutionTable.remove(better);
+		assertEquals(2, rankedSolutions.size());
+		assertEquals(1, solutionTable.getRankedSolutions().size());
+		assertEquals(worse, solutionTable.getSolution(0));
+	}
+
+	public void testAddVotedSolution() {
+		final ISolution worse = solutionTable.createNewSolution(
+				new ICourse[instance.getNumberOfPeriods()][instance
+						.getNumberOfRooms()], instance);
+		final ISolution better = solutionTable.createNewSolution(
+				new ICourse[instance.getNumberOfPeriods()][instance
+						.getNumberOfRooms()], instance);
+		assertTrue(solutionTable.addVotedSolution(worse, 200, 3));
+		assertTrue(solutionTable.addVotedSolution(better, 100, 1));
+
+		// best and worst are known without update()
+		assertEquals(better, solutionTable.getBestPenaltySolution());
+		assertEquals(better, solutionTable.getBestFairnessSolution());
+		assertEquals(worse, solutionTable.getWorstPenaltySolution());
+		assertEquals(worse, solutionTable.getWorstFairnessSolution());
+		assertEquals(100, better.getPenalty());
+		assertEquals(0, better.getAge());
+		assertEquals(better, solutionTable.getSolution(0));
+
+		final ISolution duplicate = solutionTable.createNewSolution(
+				new ICourse[instance.getNumberOfPeriods()][instance
+						.getNumberOfRooms()], instance);
+		assertFalse(solutionTable.addVotedSolution(duplicate, 100, 1));
+		assertEquals(2, solutionTable.getSize(true));
+	}
+
 	public void testToString() {
 		assertEquals("Solution Table (" + 0 + " entries)", solutionTable
 				.toString());
@@ -0,0 +1,61 @@
+package de.hft.timetabling.util;
+
+import junit.framework.TestCase;
+
+public class BitSetUtilTest extends TestCase {
+
+	public void testSetAll() {
+		final long[] bits = BitSetUtil.create(70);
+		assertEquals(2, bits.length);
+		BitSetUtil.setAll(bits, 70);
+		assertEquals(70, BitSetUtil.cardinality(bits));
+		assertTrue(BitSetUtil.get(bits, 69));
+	}
+
+	public void testSetAndClear() {
+		final long[] bits = BitSetUtil.create(100);
+		assertTrue(BitSetUtil.isEmpty(bits));
+		BitSetUtil.set(bits, 3);
+		BitSetUtil.set(bits, 64);
+		assertTrue(BitSetUtil.get(bits, 3));
+		assertTrue(BitSetUtil.get(bits, 64));
+		assertFalse(BitSetUtil.get(bits, 4));
+		BitSetUtil.clear(bits, 3);
+		assertFalse(BitSetUtil.get(bits, 3));
+		assertEquals(1, BitSetUtil.cardinality(bits));
+	}
+
+	public void testNextSetBit() {
+		final long[] bits = BitSetUtil.create(130);
+		BitSetUtil.set(bits, 5);
+		BitSetUtil.set(bits, 127);
+		assertEquals(5, BitSetUtil.nextSetBit(bits, 0));
+		assertEquals(5, BitSetUtil.nextSetBit(bits, 5));
+		assertEquals(127, BitSetUtil.nextSetBit(bits, 6));
+		assertEquals(-1, BitSetUtil.nextSetBit(bits, 128));
+	}
+
+	public void testSelectSetBit() {
+		final long[] bits = BitSetUtil.create(130);
+		BitSetUtil.set(bits, 2);
+		BitSetUtil.set(bits, 63);
+		BitSetUtil.set(bits, 64);
+		BitSetUtil.set(bits, 129);
+		assertEquals(2, BitSetUtil.selectSetBit(bits, 0));
+		assertEquals(63, BitSetUtil.selectSetBit(bits, 1));
+		assertEquals(64, BitSetUtil.selectSetBit(bits, 2));
+		assertEquals(129, BitSetUtil.selectSetBit(bits, 3));
+		assertEquals(-1, BitSetUtil.selectSetBit(bits, 4));
+	}
+
+	public void testToArray() {
+		final long[] bits = BitSetUtil.create(10);
+		BitSetUtil.set(bits, 1);
+		BitSetUtil.set(bits, 9);
+		final int[] array = BitSetUtil.toArray(bits);
+		assertEquals(2, array.length);
+		assertEquals(1, array[0]);
+		assertEquals(9, array[1]);
+	}
+
+}
@@ -0,0 +1,24 @@
+package de.hft.timetabling.util;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.services.AbstractServicesTest;
+
+public class CodingUtilTest extends AbstractServicesTest {
+
+	public void testCopy() throws Exception {
+		final ICourse[][] coding = generateFeasibleSolution(0);
+		final ICourse[][] copy = CodingUtil.copy(coding);
+		assertEquals(coding.length, copy.length);
+		for (int period = 0; period < coding.length; period++) {
+			assertNotSame(coding[period], copy[period]);
+			for (int room = 0; room < coding[period].length; room++) {
+				assertSame(coding[period][room], copy[period][room]);
+				if (copy[period][room] != null) {
+					copy[period][room] = null;
+					assertNotNull(coding[period][room]);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package de.hft.timetabling.util;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.services.AbstractServicesTest;
+import de.hft.timetabling.validator.Validator;
+
+public class MinCostRoomAssignmentTest extends AbstractServicesTest {
+
+	private MinCostRoomAssignment roomAssignment;
+
+	private int smallRoom;
+
+	private int bigRoom;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		roomAssignment = new MinCostRoomAssignment(instance
+				.getInstanceTables());
+		smallRoom = instance.getRoomById("A").getUniqueNumber();
+		bigRoom = instance.getRoomById("B").getUniqueNumber();
+	}
+
+	public void testCapacityAndStability() {
+		final ICourse sceCosC = instance.getCourseById("SceCosC");
+		final ICourse arcTec = instance.getCourseById("ArcTec");
+		final ICourse geotec = instance.getCourseById("Geotec");
+		final ICourse[][] coding = new ICourse[instance.getNumberOfPeriods()][instance
+				.getNumberOfRooms()];
+		coding[0][bigRoom] = sceCosC;
+		coding[1][smallRoom] = sceCosC;
+		coding[2][smallRoom] = arcTec;
+		coding[2][bigRoom] = geotec;
+
+		// SceCosC fits into both rooms, ArcTec only into the big one.
+		assertEquals(11, roomAssignment.optimize(coding));
+		assertSame(coding[0][smallRoom], coding[1][smallRoom]);
+		assertSame(arcTec, coding[2][bigRoom]);
+		assertSame(geotec, coding[2][smallRoom]);
+	}
+
+	public void testDecreaseMatchesEvaluator() throws Exception {
+		final Validator validator = new Validator();
+		for (int i = 0; i < 10; i++) {
+			final ICourse[][] coding = generateFeasibleSolution(i);
+			final int penaltyBefore = evaluate(coding);
+			final int decrease = roomAssignment.optimize(coding);
+			assertEquals(penaltyBefore - decrease, evaluate(coding));
+			assertTrue(validator.isValidSolution(instance, coding));
+			assertEquals(0, roomAssignment.optimize(coding));
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package de.hft.timetabling.util;
+
+import de.hft.timetabling.common.ICourse;
+import de.hft.timetabling.common.InstanceTables;
+import de.hft.timetabling.services.AbstractServicesTest;
+
+public class RoomAssignmentUtilTest extends AbstractServicesTest {
+
+	private InstanceTables tables;
+
+	private int smallRoom;
+
+	private int bigRoom;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tables = instance.getInstanceTables();
+		smallRoom = instance.getRoomById("A").getUniqueNumber();
+		bigRoom = instance.getRoomById("B").getUniqueNumber();
+	}
+
+	public void testAssignRoomsByCapacity() {
+		final ICourse sceCosC = instance.getCourseById("SceCosC");
+		final ICourse arcTec = instance.getCourseById("ArcTec");
+		final ICourse[] coursesOfPeriod = new ICourse[2];
+		coursesOfPeriod[smallRoom] = arcTec;
+		coursesOfPeriod[bigRoom] = sceCosC;
+
+		RoomAssignmentUtil.assignRoomsByCapacity(coursesOfPeriod, tables);
+		assertSame(sceCosC, coursesOfPeriod[smallRoom]);
+		assertSame(arcTec, coursesOfPeriod[bigRoom]);
+	}
+
+	public void testAssignRoomsByCapacityFreeRoom() {
+		final ICourse geotec = instance.getCourseById("Geotec");
+		final ICourse[] coursesOfPeriod = new ICourse[2];
+		coursesOfPeriod[smallRoom] = geotec;
+
+		RoomAssignmentUtil.assignRoomsByCapacity(coursesOfPeriod, tables);
+		assertNull(coursesOfPeriod[smallRoom]);
+		assertSame(geotec, coursesOfPeriod[bigRoom]);
+	}
+
+}
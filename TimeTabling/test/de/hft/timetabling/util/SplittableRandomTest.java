@@ -0,0 +1,48 @@
+package de.hft.timetabling.util;
+
+import junit.framework.TestCase;
+
+public class SplittableRandomTest extends TestCase {
+
+	public void testSameSeedSameNumbers() {
+		final SplittableRandom random1 = new SplittableRandom(42);
+		final SplittableRandom random2 = new SplittableRandom(42);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(random1.nextLong(), random2.nextLong());
+			assertEquals(random1.nextInt(17), random2.nextInt(17));
+		}
+	}
+
+	public void testSplitIsReproducible() {
+		final SplittableRandom split1 = new SplittableRandom(42).split();
+		final SplittableRandom split2 = new SplittableRandom(42).split();
+		for (int i = 0; i < 100; i++) {
+			assertEquals(split1.nextLong(), split2.nextLong());
+		}
+	}
+
+	public void testSplitStreamsDiffer() {
+		final SplittableRandom random = new SplittableRandom(42);
+		final SplittableRandom split1 = random.split();
+		final SplittableRandom split2 = random.split();
+		boolean differ = false;
+		for (int i = 0; i < 10; i++) {
+			differ |= split1.nextLong() != split2.nextLong();
+		}
+		assertTrue(differ);
+	}
+
+	public void testNextIntBound() {
+		final SplittableRandom random = new SplittableRandom(7);
+		final boolean[] seen = new boolean[5];
+		for (int i = 0; i < 1000; i++) {
+			final int value = random.nextInt(5);
+			assertTrue((value >= 0) && (value < 5));
+			seen[value] = true;
+		}
+		for (final boolean value : seen) {
+			assertTrue(value);
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package de.hft.timetabling.util;
+
+import junit.framework.TestCase;
+
+public class TimeBudgetTest extends TestCase {
+
+	public void testExpired() {
+		final TimeBudget budget = new TimeBudget(0);
+		assertTrue(budget.isExpired());
+		assertEquals(0, budget.getRemainingMillis());
+		assertEquals(1.0, budget.getElapsedFraction(), 0.0);
+	}
+
+	public void testNotExpired() {
+		final TimeBudget budget = new TimeBudget(60000);
+		assertFalse(budget.isExpired());
+		assertTrue(budget.getRemainingMillis() > 0);
+		assertTrue(budget.getElapsedFraction() < 1.0);
+	}
+
+	public void testScheduleIteration() {
+		final TimeBudget running = new TimeBudget(60000);
+		assertEquals(1, running.getScheduleIteration(1, 100));
+		assertEquals(2, running.getScheduleIteration(50, 100));
+
+		final TimeBudget expired = new TimeBudget(0);
+		assertEquals(1, expired.getScheduleIteration(1, 100));
+		assertEquals(100, expired.getScheduleIteration(2, 100));
+		assertEquals(1, expired.getScheduleIteration(2, 1));
+	}
+
+	public void testCalibratedBudget() {
+		assertEquals(CpuBenchmark.REFERENCE_BUDGET_MILLIS, CpuBenchmark
+				.getBudgetMillis(CpuBenchmark.REFERENCE_BENCHMARK_NANOS));
+		assertEquals(2 * CpuBenchmark.REFERENCE_BUDGET_MILLIS, CpuBenchmark
+				.getBudgetMillis(2 * CpuBenchmark.REFERENCE_BENCHMARK_NANOS));
+		assertTrue(CpuBenchmark.measureNanos() > 0);
+	}
+
+	public void testCalibratedBudgetIsNotTruncated() {
+		// 0.9 ms more than the reference is 0.5 % more budget
+		assertEquals(CpuBenchmark.REFERENCE_BUDGET_MILLIS
+				+ (CpuBenchmark.REFERENCE_BUDGET_MILLIS / 200), CpuBenchmark
+				.getBudgetMillis(CpuBenchmark.REFERENCE_BENCHMARK_NANOS + 900000));
+	}
+
+}